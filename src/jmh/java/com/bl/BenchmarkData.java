@@ -0,0 +1,34 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * URLs sintéticas, com hosts e caminhos repetidos como em um histórico real,
+ * compartilhadas pelos benchmarks
+ */
+final class BenchmarkData {
+    static final String[] WORDS = { "news", "mail", "docs", "video", "shop", "wiki", "blog", "search",
+            "maps", "cloud", "forum", "music", "photos", "sports", "weather", "travel" };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Gera {@code size} URLs distintas de forma determinística
+     */
+    static List<String> urls(int size) {
+        Random random = new Random(42);
+        List<String> urls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            urls.add(url(random, size, i));
+        }
+        return urls;
+    }
+
+    static String url(Random random, int size, int i) {
+        return "https://www.host" + random.nextInt(size / 10 + 1) + "." + WORDS[random.nextInt(WORDS.length)]
+                + ".example.com/" + WORDS[random.nextInt(WORDS.length)] + "/" + i;
+    }
+}
@@ -0,0 +1,75 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de decidir o bloqueio de uma requisição com listas do tamanho do
+ * EasyList: regras de domínio, padrões com trechos literais e exceções
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ContentBlockerBenchmark {
+    private static final String PAGE = "https://news.example.com/artigo/123";
+
+    @Param({ "1000", "50000" })
+    public int rules;
+
+    private ContentBlocker blocker;
+    private List<String> urls;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            String word = BenchmarkData.WORDS[i % BenchmarkData.WORDS.length];
+            switch (i % 4) {
+                case 0:
+                case 1:
+                    lines.add("||" + word + "-ads" + i + ".example.net^");
+                    break;
+                case 2:
+                    lines.add("/" + word + "-banner" + Integer.toHexString(random.nextInt()) + "/*$third-party");
+                    break;
+                default:
+                    lines.add("@@||" + word + i + ".example.org^$script");
+                    break;
+            }
+        }
+        blocker = ContentBlocker.compile(lines);
+        // Mistura de requisições comuns (a maioria) e bloqueadas
+        urls = new ArrayList<>(BenchmarkData.urls(1000));
+        for (int i = 0; i < 100; i++) {
+            urls.add("https://cdn.example.net/" + BenchmarkData.WORDS[i % BenchmarkData.WORDS.length]
+                    + "-banner/x.js?v=" + i);
+            urls.add("https://" + BenchmarkData.WORDS[i % BenchmarkData.WORDS.length] + "-ads" + (i * 4)
+                    + ".example.net/pixel.gif");
+        }
+    }
+
+    @Benchmark
+    public boolean shouldBlock() {
+        String url = urls.get(next++ % urls.size());
+        return blocker.shouldBlock(url, PAGE, "*/*");
+    }
+}
@@ -0,0 +1,111 @@
+package com.bl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registro de visitas: a lista limitada usada antes (ArrayList com
+ * remove(0) ao passar do limite) contra o {@link HistoryStore}, ambos já
+ * cheios com {@code size} entradas. Cada visita é a uma URL nova, então toda
+ * chamada também descarta a entrada mais antiga.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HistoryBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private List<String> visits;
+    private List<String> legacyHistory;
+    private Path directory;
+    private HistoryStore store;
+    private long time;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        List<String> urls = BenchmarkData.urls(size);
+        legacyHistory = new ArrayList<>(urls);
+
+        // Alterna entre URLs novas e as iniciais: a próxima visita é sempre à
+        // URL descartada há mais tempo
+        visits = new ArrayList<>(size * 2);
+        for (String url : urls) {
+            visits.add(url + "?visita");
+        }
+        visits.addAll(urls);
+
+        // O journal é escrito direto no disco: registrar um milhão de visitas
+        // uma a uma levaria minutos de fsync antes da medição
+        directory = Files.createTempDirectory("history-bench");
+        List<String> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add("V\t" + i + "\t" + urls.get(i));
+        }
+        Files.write(directory.resolve("history.journal"), records, StandardCharsets.UTF_8);
+        store = new HistoryStore(new RecordJournal(directory.resolve("history.snapshot"),
+                directory.resolve("history.journal"), "HistoryBenchmark"), size);
+        store.load();
+        time = size;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * addToHistory original, limitado a {@code size} itens
+     */
+    @Benchmark
+    public boolean legacyAddToHistory() {
+        String url = nextVisit();
+        if (!legacyHistory.isEmpty() && legacyHistory.get(legacyHistory.size() - 1).equals(url)) {
+            return false;
+        }
+        legacyHistory.add(url);
+        if (legacyHistory.size() > size) {
+            legacyHistory.remove(0);
+        }
+        return true;
+    }
+
+    @Benchmark
+    public HistoryEntry recordVisit() {
+        return store.recordVisit(nextVisit(), ++time);
+    }
+
+    private String nextVisit() {
+        String url = visits.get(next);
+        next = (next + 1) % visits.size();
+        return url;
+    }
+}
@@ -0,0 +1,138 @@
+package com.bl;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Leitura e gravação dos arquivos do navegador: favoritos e histórico antigos
+ * em JSON (Gson) e os atuais pelo {@link RecordJournal}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private Path directory;
+    private Path bookmarksFile;
+    private Path legacyHistoryFile;
+    private Path journalFile;
+    private Set<String> bookmarks;
+    private List<String> legacyHistory;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> urls = BenchmarkData.urls(size);
+        bookmarks = new LinkedHashSet<>(urls);
+        legacyHistory = urls;
+
+        directory = Files.createTempDirectory("persistence-bench");
+        bookmarksFile = directory.resolve("bookmarks.json");
+        legacyHistoryFile = directory.resolve("history.json");
+        journalFile = directory.resolve("history.journal");
+        saveBookmarks();
+        saveLegacyHistory();
+        List<String> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add("V\t" + i + "\t" + urls.get(i));
+        }
+        Files.write(journalFile, records, StandardCharsets.UTF_8);
+
+        BookmarkStore bookmarkStore = new BookmarkStore(newBookmarkJournal());
+        bookmarkStore.importUrls(urls);
+        bookmarkStore.close();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Set<String> loadBookmarks() throws IOException {
+        try (FileReader reader = new FileReader(bookmarksFile.toFile())) {
+            return new Gson().fromJson(reader, new TypeToken<LinkedHashSet<String>>() {
+            }.getType());
+        }
+    }
+
+    @Benchmark
+    public void saveBookmarks() throws IOException {
+        try (FileWriter writer = new FileWriter(bookmarksFile.toFile())) {
+            new Gson().toJson(bookmarks, writer);
+        }
+    }
+
+    @Benchmark
+    public List<String> loadLegacyHistory() throws IOException {
+        try (FileReader reader = new FileReader(legacyHistoryFile.toFile())) {
+            return new Gson().fromJson(reader, new TypeToken<List<String>>() {
+            }.getType());
+        }
+    }
+
+    @Benchmark
+    public void saveLegacyHistory() throws IOException {
+        try (FileWriter writer = new FileWriter(legacyHistoryFile.toFile())) {
+            new Gson().toJson(legacyHistory, writer);
+        }
+    }
+
+    /**
+     * Reconstrução do histórico a partir do journal, como na inicialização
+     */
+    @Benchmark
+    public HistoryStore loadHistoryJournal() throws IOException {
+        HistoryStore store = new HistoryStore(new RecordJournal(directory.resolve("history.snapshot"), journalFile,
+                "PersistenceBenchmark"), size);
+        store.load();
+        store.close();
+        return store;
+    }
+
+    @Benchmark
+    public BookmarkStore loadBookmarkJournal() throws IOException {
+        BookmarkStore store = new BookmarkStore(newBookmarkJournal());
+        store.load();
+        store.close();
+        return store;
+    }
+
+    private RecordJournal newBookmarkJournal() {
+        return new RecordJournal(directory.resolve("bookmarks.snapshot"), directory.resolve("bookmarks.journal"),
+                "PersistenceBenchmark");
+    }
+}
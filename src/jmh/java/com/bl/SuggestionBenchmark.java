@@ -0,0 +1,68 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara o índice de sugestões com a varredura linear usada antes pela barra
+ * de URL (contains em cada entrada do histórico)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SuggestionBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    @Param({ "ne", "wiki.example", "host12", "xyz" })
+    public String query;
+
+    private List<String> history;
+    private SuggestionIndex index;
+
+    @Setup
+    public void setup() {
+        history = BenchmarkData.urls(size);
+        index = new SuggestionIndex();
+        Random random = new Random(7);
+        for (int i = 0; i < history.size(); i++) {
+            index.put(history.get(i), BenchmarkData.WORDS[i % BenchmarkData.WORDS.length] + " page " + i,
+                    random.nextInt(1000));
+        }
+    }
+
+    @Benchmark
+    public List<String> linearScan() {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String url : history) {
+            if (url.toLowerCase().contains(query)) {
+                unique.add(url);
+            }
+        }
+        return new ArrayList<>(unique);
+    }
+
+    @Benchmark
+    public List<String> indexSearch() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,176 @@
+package com.bl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+import javax.swing.JProgressBar;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Troca de abas até a barra de URL e os botões de navegação mostrarem a aba
+ * nova: consultando o engine na thread do JavaFX e voltando ao Swing (uma
+ * tarefa para a URL e outra para os botões, como antes) ou lendo o
+ * {@link TabState} publicado, direto na thread do Swing.
+ *
+ * Sem display não há runtime do JavaFX nem WebEngines; uma thread dedicada
+ * faz o papel da thread do JavaFX e cada aba é representada por um objeto
+ * comum. Os estados são publicados e lidos pelo mesmo {@link TabStateStore}
+ * do {@link EngineEventDispatcher} e aplicados pelo mesmo
+ * {@link SwingBrowserApp#applyTabState} do navegador, em componentes Swing
+ * reais na thread do Swing.
+ *
+ * {@code fxBusyMicros} é trabalho já na fila da thread do JavaFX no momento
+ * da troca (layout ou desenho de uma página), que a versão com idas e voltas
+ * precisa esperar; enquanto isso, a página publica progresso como faria
+ * durante um carregamento. O trabalho é enfileirado antes e aguardado depois
+ * de cada chamada, fora da medição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TabSwitchBenchmark {
+    private static final int TABS = 20;
+    private static final long PROGRESS_EVERY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Param({ "0", "2000" })
+    public int fxBusyMicros;
+
+    private ExecutorService fxThread;
+    private JTextField urlBar;
+    private JButton backButton;
+    private JButton forwardButton;
+    private JProgressBar progressBar;
+    private List<FakeEngine> engines;
+    private final TabStateStore<FakeEngine> states = new TabStateStore<>();
+    private FakeEngine loading; // Aba em segundo plano que publica progresso
+    private CountDownLatch fxIdle;
+    private int next;
+
+    /**
+     * O que a troca antiga lia do WebEngine; só a thread "do JavaFX" acessa
+     */
+    private static class FakeEngine {
+        String location;
+        int historyIndex;
+        int historySize;
+    }
+
+    @Setup
+    public void setup() throws InterruptedException, InvocationTargetException {
+        fxThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "fx");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SwingUtilities.invokeAndWait(() -> {
+            urlBar = new JTextField();
+            backButton = new JButton("<");
+            forwardButton = new JButton(">");
+            progressBar = new JProgressBar();
+        });
+        engines = new ArrayList<>();
+        for (int i = 0; i < TABS; i++) {
+            FakeEngine engine = new FakeEngine();
+            engine.location = BenchmarkData.WORDS[i % BenchmarkData.WORDS.length] + ".example.com/pagina/" + i;
+            engine.historyIndex = i % 3;
+            engine.historySize = 3;
+            engines.add(engine);
+            // A mesma sequência de eventos que o dispatcher publica numa navegação
+            String title = "Página " + i;
+            boolean canGoBack = engine.historyIndex > 0;
+            boolean canGoForward = engine.historyIndex < engine.historySize - 1;
+            states.update(engine, state -> state.withLocation(engine.location));
+            states.update(engine, state -> state.withNavigation(canGoBack, canGoForward));
+            states.update(engine, state -> state.withTitle(title));
+            states.update(engine, state -> state.withProgress(1.0));
+        }
+        loading = new FakeEngine();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fxThread.shutdownNow();
+    }
+
+    @Setup(Level.Invocation)
+    public void queueFxWork() {
+        CountDownLatch idle = new CountDownLatch(1);
+        fxIdle = idle;
+        long busyNanos = TimeUnit.MICROSECONDS.toNanos(fxBusyMicros);
+        fxThread.execute(() -> {
+            long start = System.nanoTime();
+            long lastProgress = start;
+            long now;
+            while ((now = System.nanoTime()) - start < busyNanos) {
+                if (now - lastProgress >= PROGRESS_EVERY_NANOS) {
+                    double progress = (double) (now - start) / busyNanos;
+                    states.update(loading, state -> state.withProgress(progress));
+                    lastProgress = now;
+                }
+                Thread.onSpinWait();
+            }
+            idle.countDown();
+        });
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitFxIdle() throws InterruptedException {
+        fxIdle.await();
+    }
+
+    @Benchmark
+    public void switchWithThreadHops() throws Exception {
+        FakeEngine engine = engines.get(next++ % TABS);
+        CountDownLatch updated = new CountDownLatch(2);
+        SwingUtilities.invokeAndWait(() -> {
+            fxThread.execute(() -> {
+                String location = engine.location;
+                SwingUtilities.invokeLater(() -> {
+                    urlBar.setText(location);
+                    updated.countDown();
+                });
+            });
+            fxThread.execute(() -> {
+                boolean canGoBack = engine.historyIndex > 0;
+                boolean canGoForward = engine.historyIndex < engine.historySize - 1;
+                SwingUtilities.invokeLater(() -> {
+                    backButton.setEnabled(canGoBack);
+                    forwardButton.setEnabled(canGoForward);
+                    updated.countDown();
+                });
+            });
+        });
+        updated.await();
+    }
+
+    @Benchmark
+    public void switchFromPublishedState() throws Exception {
+        FakeEngine engine = engines.get(next++ % TABS);
+        SwingUtilities.invokeAndWait(() -> SwingBrowserApp.applyTabState(states.get(engine), false, false,
+                urlBar, backButton, forwardButton, progressBar));
+    }
+}
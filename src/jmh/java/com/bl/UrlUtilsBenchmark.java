@@ -0,0 +1,54 @@
+package com.bl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tratamento do texto da barra de URL e dos títulos das abas, chamado a cada
+ * navegação e a cada troca de título
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlUtilsBenchmark {
+    @Param({ "https://www.example.com/docs/index.html", "example.com", "como fazer pão caseiro" })
+    public String input;
+
+    private String longUrl;
+    private String longTitle;
+
+    @Setup
+    public void setup() {
+        longUrl = "https://www.example.com/" + "caminho/".repeat(20) + "pagina.html?q=" + input;
+        longTitle = "Título de uma página com um nome bastante comprido - " + input;
+    }
+
+    @Benchmark
+    public String ensureUrlProtocol() {
+        return UrlUtils.ensureUrlProtocol(input);
+    }
+
+    @Benchmark
+    public String shortenUrl() {
+        return UrlUtils.shortenUrl(longUrl, 60);
+    }
+
+    @Benchmark
+    public String truncateTitle() {
+        return UrlUtils.truncateTitle(longTitle, 10);
+    }
+}
@@ -0,0 +1,146 @@
+package com.bl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Autômato de Aho-Corasick: encontra em uma única passada todas as ocorrências
+ * de um conjunto de palavras em um texto, em tempo proporcional ao tamanho do
+ * texto e não ao número de palavras.
+ *
+ * As transições de cada estado ficam em arrays ordenados (busca binária), o
+ * que mantém listas de dezenas de milhares de palavras em poucos megabytes.
+ * Depois de construído é imutável e pode ser usado por várias threads.
+ */
+final class AhoCorasick {
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final char[][] keys; // Caracteres das transições de cada estado, ordenados
+    private final int[][] targets; // Estado de destino de cada transição
+    private final int[] fail;
+    private final int[] outputLink; // Próximo estado na cadeia de falhas que termina alguma palavra, ou -1
+    private final int[][] matches; // Palavras que terminam em cada estado
+    private final int[] lengths; // Tamanho de cada palavra
+
+    /**
+     * Recebe o visitante de cada ocorrência encontrada
+     */
+    interface MatchVisitor {
+        /**
+         * @param word  índice da palavra na lista de construção
+         * @param start posição do texto onde a ocorrência começa
+         * @return false para interromper a busca
+         */
+        boolean visit(int word, int start);
+    }
+
+    /**
+     * @param words palavras a procurar; a posição na lista é o índice
+     *              devolvido nas ocorrências
+     */
+    AhoCorasick(List<String> words) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        lengths = new int[words.size()];
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            lengths[w] = word.length();
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                Integer next = trie.get(state).get(word.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(word.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(w);
+        }
+
+        int size = trie.size();
+        keys = new char[size][];
+        targets = new int[size][];
+        matches = new int[size][];
+        for (int s = 0; s < size; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            keys[s] = new char[edges.size()];
+            targets[s] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                keys[s][i] = edge.getKey();
+                targets[s][i] = edge.getValue();
+                i++;
+            }
+            List<Integer> ending = ends.get(s);
+            matches[s] = ending.isEmpty() ? NO_MATCHES : ending.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Links de falha em largura: o de cada estado é o maior sufixo próprio que também está na trie
+        fail = new int[size];
+        outputLink = new int[size];
+        Arrays.fill(outputLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                while (f != 0 && next(f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = next(f, c);
+                fail[child] = target >= 0 && target != child ? target : 0;
+                outputLink[child] = matches[fail[child]].length > 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Número de estados do autômato
+     */
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Visita as ocorrências de todas as palavras no texto, na ordem em que
+     * terminam
+     */
+    void search(CharSequence text, MatchVisitor visitor) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            for (int s = matches[state].length > 0 ? state : outputLink[state]; s > 0; s = outputLink[s]) {
+                for (int word : matches[s]) {
+                    if (!visitor.visit(word, i + 1 - lengths[word])) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        int i = Arrays.binarySearch(keys[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+}
@@ -0,0 +1,253 @@
+package com.bl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.Timer;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Worker;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.Scene;
+import javafx.scene.web.WebEngine;
+
+/**
+ * Reduz o trabalho das abas de fundo. Alguns segundos depois que uma aba deixa
+ * de ser a selecionada, a página recebe um script que retém os callbacks de
+ * requestAnimationFrame, pausa as animações CSS e os vídeos e faz os timers
+ * criados a partir dali dispararem no máximo uma vez por segundo; a cena do
+ * JavaFX é desconectada do JFXPanel, o que interrompe os pulsos de desenho da
+ * aba. Quando a aba volta a ser selecionada, tudo é desfeito e os quadros
+ * retidos rodam uma vez.
+ *
+ * Intervalos criados enquanto a aba estava contida são recriados com o
+ * intervalo pedido pela página quando ela volta; como os ids mudam,
+ * clearInterval e clearTimeout passam a traduzir os ids antigos. Timers
+ * criados antes da aba ir para o fundo mantêm o intervalo original, porque o
+ * JavaScript não dá acesso a eles. Áudio continua tocando. Uma página nova
+ * carregada em segundo plano recebe o script de novo.
+ *
+ * Deve ser usado pela thread do Swing.
+ */
+public class BackgroundThrottler {
+    private static final int THROTTLE_DELAY_MS = 5000;
+    private static final String SUSPEND_SCRIPT = "(function() {"
+            + "  var t = window.__blThrottle;"
+            + "  if (!t) {"
+            + "    t = window.__blThrottle = { setTimeout: window.setTimeout, setInterval: window.setInterval,"
+            + "        clearTimeout: window.clearTimeout, clearInterval: window.clearInterval,"
+            + "        raf: window.requestAnimationFrame, caf: window.cancelAnimationFrame,"
+            + "        frames: {}, nextFrame: 1, media: [], intervals: {}, renamed: {} };"
+            // Permanentes: intervalos recriados na volta ganham outro id
+            + "    var clear = function(original) {"
+            + "      return function(id) {"
+            + "        if (t.renamed.hasOwnProperty(id)) { var newId = t.renamed[id]; delete t.renamed[id]; id = newId; }"
+            + "        delete t.intervals[id];"
+            + "        return original.call(window, id);"
+            + "      };"
+            + "    };"
+            + "    window.clearTimeout = clear(t.clearTimeout);"
+            + "    window.clearInterval = clear(t.clearInterval);"
+            + "  }"
+            + "  if (t.active) return;"
+            + "  t.active = true;"
+            + "  var clamp = function(original) {"
+            + "    return function(callback, delay) {"
+            + "      var args = Array.prototype.slice.call(arguments);"
+            + "      args[1] = Math.max(delay || 0, 1000);"
+            + "      return original.apply(window, args);"
+            + "    };"
+            + "  };"
+            + "  window.setTimeout = clamp(t.setTimeout);"
+            + "  var clampInterval = clamp(t.setInterval);"
+            + "  window.setInterval = function() {"
+            + "    var id = clampInterval.apply(window, arguments);"
+            + "    t.intervals[id] = Array.prototype.slice.call(arguments);"
+            + "    return id;"
+            + "  };"
+            + "  window.requestAnimationFrame = function(callback) {"
+            + "    var id = -(t.nextFrame++);"
+            + "    t.frames[id] = callback;"
+            + "    return id;"
+            + "  };"
+            + "  window.cancelAnimationFrame = function(id) {"
+            + "    if (id < 0) delete t.frames[id]; else if (t.caf) t.caf.call(window, id);"
+            + "  };"
+            + "  var videos = document.getElementsByTagName('video');"
+            + "  for (var i = 0; i < videos.length; i++) {"
+            + "    if (!videos[i].paused) { videos[i].pause(); t.media.push(videos[i]); }"
+            + "  }"
+            + "  if (document.head) {"
+            + "    var style = document.createElement('style');"
+            + "    style.id = '__blThrottleStyle';"
+            + "    style.textContent = '*, *::before, *::after { animation-play-state: paused !important; }';"
+            + "    document.head.appendChild(style);"
+            + "  }"
+            + "})()";
+    private static final String RESUME_SCRIPT = "(function() {"
+            + "  var t = window.__blThrottle;"
+            + "  if (!t || !t.active) return;"
+            + "  t.active = false;"
+            + "  window.setTimeout = t.setTimeout;"
+            + "  window.setInterval = t.setInterval;"
+            + "  window.requestAnimationFrame = t.raf;"
+            + "  window.cancelAnimationFrame = t.caf;"
+            + "  var intervals = t.intervals;"
+            + "  t.intervals = {};"
+            + "  for (var id in intervals) {"
+            + "    t.clearInterval.call(window, Number(id));"
+            + "    t.renamed[id] = t.setInterval.apply(window, intervals[id]);"
+            + "  }"
+            + "  var frames = t.frames;"
+            + "  t.frames = {};"
+            + "  for (var id in frames) t.raf.call(window, frames[id]);"
+            + "  for (var i = 0; i < t.media.length; i++) {"
+            + "    var played = t.media[i].play();"
+            + "    if (played && played.catch) played.catch(function() {});"
+            + "  }"
+            + "  t.media = [];"
+            + "  var style = document.getElementById('__blThrottleStyle');"
+            + "  if (style) style.parentNode.removeChild(style);"
+            + "})()";
+
+    private final Map<BrowserTab, Timer> pending = new HashMap<>();
+    private final Map<BrowserTab, Throttled> throttled = new HashMap<>();
+    private boolean enabled;
+    private long throttles;
+
+    public BackgroundThrottler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Ao desativar, todas as abas de fundo voltam a rodar normalmente
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            for (BrowserTab tab : pending.keySet().toArray(new BrowserTab[0])) {
+                resume(tab);
+            }
+            for (BrowserTab tab : throttled.keySet().toArray(new BrowserTab[0])) {
+                resume(tab);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A aba foi para o fundo: será contida se continuar lá por alguns segundos
+     */
+    public void schedule(BrowserTab tab) {
+        if (!enabled || pending.containsKey(tab) || throttled.containsKey(tab)) {
+            return;
+        }
+        Timer timer = new Timer(THROTTLE_DELAY_MS, e -> {
+            pending.remove(tab);
+            throttle(tab);
+        });
+        timer.setRepeats(false);
+        pending.put(tab, timer);
+        timer.start();
+    }
+
+    /**
+     * A aba foi selecionada: volta a rodar normalmente
+     */
+    public void resume(BrowserTab tab) {
+        Timer timer = pending.remove(tab);
+        if (timer != null) {
+            timer.stop();
+        }
+        Throttled state = throttled.remove(tab);
+        if (state == null) {
+            return;
+        }
+        Platform.runLater(() -> {
+            state.engine.getLoadWorker().stateProperty().removeListener(state.reapply);
+            if (state.scene != null && state.panel.getScene() == null) {
+                state.panel.setScene(state.scene);
+            }
+            runScript(state.engine, RESUME_SCRIPT);
+        });
+    }
+
+    /**
+     * A aba foi fechada ou hibernada: descarta o estado sem mexer na página
+     */
+    public void forget(BrowserTab tab) {
+        Timer timer = pending.remove(tab);
+        if (timer != null) {
+            timer.stop();
+        }
+        Throttled state = throttled.remove(tab);
+        if (state != null) {
+            Platform.runLater(() -> state.engine.getLoadWorker().stateProperty().removeListener(state.reapply));
+        }
+    }
+
+    /**
+     * Abas contidas agora
+     */
+    public int getThrottledCount() {
+        return throttled.size();
+    }
+
+    /**
+     * Quantas vezes alguma aba foi contida desde o início
+     */
+    public long getThrottles() {
+        return throttles;
+    }
+
+    private void throttle(BrowserTab tab) {
+        WebEngine engine = tab.getEngine();
+        JFXPanel panel = tab.getFxPanel();
+        if (!enabled || engine == null || panel == null || tab.isHibernated() || tab.isRestoring()) {
+            return;
+        }
+        Throttled state = new Throttled(engine, panel);
+        throttled.put(tab, state);
+        throttles++;
+        // Executado antes de um resume posterior, pela ordem da fila do JavaFX
+        Platform.runLater(() -> {
+            state.scene = panel.getScene();
+            runScript(engine, SUSPEND_SCRIPT);
+            engine.getLoadWorker().stateProperty().addListener(state.reapply);
+            panel.setScene(null);
+        });
+    }
+
+    private static void runScript(WebEngine engine, String script) {
+        try {
+            engine.executeScript(script);
+        } catch (RuntimeException e) {
+            // Página sem JavaScript ou ainda sem documento
+        }
+    }
+
+    /**
+     * Aba contida: o que é preciso para desfazer. Os campos mutáveis são da
+     * thread do JavaFX.
+     */
+    private static class Throttled {
+        final WebEngine engine;
+        final JFXPanel panel;
+        final ChangeListener<Worker.State> reapply;
+        Scene scene;
+
+        Throttled(WebEngine engine, JFXPanel panel) {
+            this.engine = engine;
+            this.panel = panel;
+            this.reapply = (obs, oldState, newState) -> {
+                if (newState == Worker.State.SUCCEEDED) {
+                    runScript(engine, SUSPEND_SCRIPT);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.bl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import javafx.application.Platform;
+import javafx.concurrent.Worker;
+import javafx.scene.web.WebEngine;
+
+/**
+ * Modo de medição em lote, sem janela: carrega uma lista de URLs em N
+ * WebEngines simultâneos e grava o tempo de cada página em CSV ou JSON.
+ *
+ * Cada URL usa um WebEngine novo, sem o cache em disco, para que todas as
+ * medições partam do mesmo estado. Com {@code --serve} um
+ * {@link LocalHttpServer} serve um diretório local e as linhas da lista que
+ * começam com "/" são resolvidas contra ele, o que torna os resultados
+ * repetíveis sem rede. Executar com:
+ *
+ * java -jar navegador.jar --batch urls.txt [--parallel 4] [--out resultado.csv]
+ * [--serve site/] [--latency 20] [--timeout 30]
+ *
+ * O runtime do JavaFX ainda precisa de um display (ou de um servidor X
+ * virtual, como o Xvfb), mesmo sem janela.
+ */
+public class BatchLoader {
+    private static final long READY_STATE_POLL_MS = 5;
+    private static final long STARTUP_TIMEOUT_SECONDS = 15;
+
+    private final List<String> urls;
+    private final int parallelism;
+    private final long timeoutMs;
+    private final ConcurrentLinkedQueue<Integer> pending = new ConcurrentLinkedQueue<>();
+    private final List<PageTiming> results;
+    private final CountDownLatch finished;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "BatchLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Tempos de uma página; os tempos são relativos ao início e valem -1
+     * quando não puderam ser medidos
+     */
+    public static class PageTiming {
+        String url;
+        long startEpochMs;
+        long domContentLoadedMs = -1;
+        long loadMs = -1;
+        int resources = -1;
+        String status;
+        String error;
+    }
+
+    public BatchLoader(List<String> urls, int parallelism, long timeoutMs) {
+        this.urls = urls;
+        this.parallelism = Math.max(1, Math.min(parallelism, urls.size()));
+        this.timeoutMs = timeoutMs;
+        this.results = new ArrayList<>(Collections.nCopies(urls.size(), null));
+        this.finished = new CountDownLatch(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            pending.add(i);
+        }
+    }
+
+    /**
+     * Executa o modo em lote a partir dos argumentos da linha de comando e
+     * devolve o código de saída
+     */
+    public static int run(String[] args) {
+        Path urlFile = null;
+        Path serveDir = null;
+        Path out = Paths.get("batch_results.csv");
+        int parallelism = 4;
+        long latencyMs = 0;
+        long timeoutSeconds = 30;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--batch":
+                        urlFile = Paths.get(args[++i]);
+                        break;
+                    case "--parallel":
+                        parallelism = Integer.parseInt(args[++i]);
+                        break;
+                    case "--out":
+                        out = Paths.get(args[++i]);
+                        break;
+                    case "--serve":
+                        serveDir = Paths.get(args[++i]);
+                        break;
+                    case "--latency":
+                        latencyMs = Long.parseLong(args[++i]);
+                        break;
+                    case "--timeout":
+                        timeoutSeconds = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        System.err.println("Argumento desconhecido: " + args[i]);
+                        return 2;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            System.err.println("Uso: --batch urls.txt [--parallel N] [--out arquivo.csv|.json] [--serve diretório]"
+                    + " [--latency ms] [--timeout s]");
+            return 2;
+        }
+
+        LocalHttpServer server = null;
+        try {
+            List<String> urls = new ArrayList<>();
+            if (serveDir != null) {
+                server = new LocalHttpServer(serveDir, 0, latencyMs);
+                server.start();
+                System.out.println("Servidor local: " + server.getBaseUrl() + " -> " + serveDir.toAbsolutePath());
+            }
+            for (String line : Files.readAllLines(urlFile, StandardCharsets.UTF_8)) {
+                String url = line.trim();
+                if (url.isEmpty() || url.startsWith("#")) {
+                    continue;
+                }
+                if (url.startsWith("/") && server != null) {
+                    url = server.getBaseUrl() + url;
+                }
+                urls.add(UrlUtils.ensureUrlProtocol(url));
+            }
+            if (urls.isEmpty()) {
+                System.err.println("Nenhuma URL em " + urlFile);
+                return 2;
+            }
+
+            List<PageTiming> results = new BatchLoader(urls, parallelism, TimeUnit.SECONDS.toMillis(timeoutSeconds))
+                    .execute();
+            write(results, out);
+            printSummary(results);
+            if (server != null) {
+                System.out.printf("Servidor local: %d requisições, %.1f KB%n", server.getRequests(),
+                        server.getBytesServed() / 1024.0);
+            }
+            System.out.println("Resultados gravados em " + out.toAbsolutePath());
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Erro no modo em lote: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    /**
+     * Carrega todas as URLs e devolve os tempos na ordem da lista
+     */
+    public List<PageTiming> execute() throws IOException, InterruptedException {
+        // Sem display a inicialização do toolkit não retorna; espera com limite
+        CountDownLatch started = new CountDownLatch(1);
+        Thread startup = new Thread(() -> {
+            try {
+                Platform.startup(started::countDown);
+            } catch (IllegalStateException e) {
+                started.countDown(); // Runtime já iniciado
+            }
+        }, "BatchLoader-startup");
+        startup.setDaemon(true);
+        startup.start();
+        if (!started.await(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IOException("o runtime do JavaFX não iniciou; há um display disponível?");
+        }
+        Platform.setImplicitExit(false);
+        Platform.runLater(() -> {
+            for (int i = 0; i < parallelism; i++) {
+                loadNext();
+            }
+        });
+        finished.await();
+        scheduler.shutdownNow();
+        Platform.exit();
+        return results;
+    }
+
+    /**
+     * Começa a próxima URL da fila em um WebEngine novo. Roda na thread do
+     * JavaFX.
+     */
+    private void loadNext() {
+        Integer index = pending.poll();
+        if (index == null) {
+            return;
+        }
+        PageTiming timing = new PageTiming();
+        timing.url = urls.get(index);
+        WebEngine engine = new WebEngine();
+        long[] startNanos = new long[1];
+        boolean[] done = new boolean[1];
+        List<ScheduledFuture<?>> timers = new ArrayList<>(2);
+
+        Runnable complete = () -> {
+            if (done[0]) {
+                return;
+            }
+            done[0] = true;
+            timers.forEach(timer -> timer.cancel(false));
+            results.set(index, timing);
+            engine.load(null); // Libera a página antes do próximo engine
+            finished.countDown();
+            loadNext();
+        };
+
+        engine.getLoadWorker().stateProperty().addListener((obs, oldState, newState) -> {
+            if (done[0]) {
+                return;
+            }
+            if (newState == Worker.State.SUCCEEDED) {
+                timing.loadMs = (System.nanoTime() - startNanos[0]) / 1_000_000;
+                timing.status = "ok";
+                readPageMetrics(engine, timing);
+                complete.run();
+            } else if (newState == Worker.State.FAILED || newState == Worker.State.CANCELLED) {
+                timing.status = newState == Worker.State.FAILED ? "erro" : "cancelado";
+                Throwable failure = engine.getLoadWorker().getException();
+                timing.error = failure != null ? failure.getMessage() : null;
+                complete.run();
+            }
+        });
+
+        // Sem evento de DOMContentLoaded no WebEngine: sonda o readyState
+        // enquanto a página carrega, caso a página não tenha Navigation Timing
+        timers.add(scheduler.scheduleWithFixedDelay(() -> Platform.runLater(() -> {
+            if (done[0] || timing.domContentLoadedMs >= 0) {
+                return;
+            }
+            try {
+                Object state = engine.executeScript("document.readyState");
+                if ("interactive".equals(state) || "complete".equals(state)) {
+                    timing.domContentLoadedMs = (System.nanoTime() - startNanos[0]) / 1_000_000;
+                }
+            } catch (RuntimeException e) {
+                // Documento ainda não existe
+            }
+        }), READY_STATE_POLL_MS, READY_STATE_POLL_MS, TimeUnit.MILLISECONDS));
+
+        timers.add(scheduler.schedule(() -> Platform.runLater(() -> {
+            if (!done[0]) {
+                timing.status = "tempo esgotado";
+                readPageMetrics(engine, timing);
+                complete.run();
+            }
+        }), timeoutMs, TimeUnit.MILLISECONDS));
+
+        timing.startEpochMs = System.currentTimeMillis();
+        startNanos[0] = System.nanoTime();
+        engine.load(timing.url);
+    }
+
+    /**
+     * Lê do próprio WebKit o DOMContentLoaded (Navigation Timing, mais preciso
+     * que a sondagem) e o número de recursos carregados
+     */
+    private static void readPageMetrics(WebEngine engine, PageTiming timing) {
+        try {
+            Object domContentLoaded = engine.executeScript(
+                    "window.performance && performance.timing ? performance.timing.domContentLoadedEventStart : 0");
+            if (domContentLoaded instanceof Number && ((Number) domContentLoaded).longValue() > 0) {
+                timing.domContentLoadedMs = Math.max(0,
+                        ((Number) domContentLoaded).longValue() - timing.startEpochMs);
+            }
+            Object resources = engine.executeScript(
+                    "window.performance && performance.getEntriesByType"
+                            + " ? performance.getEntriesByType('resource').length"
+                            + " : document.querySelectorAll('img[src],script[src],link[href],iframe[src]').length");
+            if (resources instanceof Number) {
+                timing.resources = ((Number) resources).intValue();
+            }
+        } catch (RuntimeException e) {
+            // Página sem JavaScript: fica com a medição da sondagem
+        }
+    }
+
+    private static void write(List<PageTiming> results, Path out) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            if (out.toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+                gson.toJson(results, writer);
+                return;
+            }
+            writer.write("url,start_epoch_ms,dom_content_loaded_ms,load_ms,resources,status,error\n");
+            for (PageTiming timing : results) {
+                writer.write(String.join(",", csv(timing.url), String.valueOf(timing.startEpochMs),
+                        String.valueOf(timing.domContentLoadedMs), String.valueOf(timing.loadMs),
+                        String.valueOf(timing.resources), csv(timing.status), csv(timing.error)));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static void printSummary(List<PageTiming> results) {
+        List<Long> loads = new ArrayList<>();
+        for (PageTiming timing : results) {
+            if ("ok".equals(timing.status)) {
+                loads.add(timing.loadMs);
+            }
+        }
+        Collections.sort(loads);
+        System.out.printf("%d de %d páginas carregadas", loads.size(), results.size());
+        if (!loads.isEmpty()) {
+            System.out.printf("; load mediano %d ms, p95 %d ms", loads.get(loads.size() / 2),
+                    loads.get(Math.min(loads.size() - 1, (int) Math.ceil(loads.size() * 0.95) - 1)));
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Favorito imutável: URL com título, pasta, etiquetas e horário de criação
+ */
+public class Bookmark {
+    private final String url;
+    private final String title;
+    private final String folder;
+    private final List<String> tags;
+    private final long added;
+
+    /**
+     * @param folder pasta, ou vazio para a raiz
+     * @param tags   etiquetas; são normalizadas para minúsculas e sem repetição
+     */
+    public Bookmark(String url, String title, String folder, Collection<String> tags, long added) {
+        this.url = url;
+        this.title = title != null && !title.isEmpty() ? title : null;
+        this.folder = folder != null ? folder.trim() : "";
+        this.tags = normalizeTags(tags);
+        this.added = added;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Título salvo, ou null se o favorito não tem título
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public long getAdded() {
+        return added;
+    }
+
+    /**
+     * Título para exibição: o título salvo ou a própria URL
+     */
+    public String getDisplayTitle() {
+        return title != null ? title : url;
+    }
+
+    Bookmark withDetails(String newTitle, String newFolder, Collection<String> newTags) {
+        return new Bookmark(url, newTitle, newFolder, newTags, added);
+    }
+
+    /**
+     * Separa etiquetas digitadas com vírgulas
+     */
+    public static List<String> parseTags(String text) {
+        List<String> result = new ArrayList<>();
+        if (text != null) {
+            for (String tag : text.split(",")) {
+                result.add(tag);
+            }
+        }
+        return normalizeTags(result);
+    }
+
+    private static List<String> normalizeTags(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Collections.emptyList();
+        }
+        TreeSet<String> normalized = new TreeSet<>();
+        for (String tag : tags) {
+            String value = tag.replace(',', ' ').trim().toLowerCase(Locale.ROOT);
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(normalized));
+    }
+}
@@ -0,0 +1,392 @@
+package com.bl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Favoritos com pastas, etiquetas e títulos.
+ *
+ * Como o {@link HistoryStore}, grava cada alteração como uma linha no
+ * {@link RecordJournal} (adicionar ou remover um favorito não reescreve o
+ * arquivo inteiro) e compacta periodicamente em um snapshot. Em memória, os
+ * favoritos ficam indexados por URL, por horário de criação, por pasta e por
+ * palavra (do título, da URL, da pasta e das etiquetas), de modo que a busca
+ * por prefixo de palavra não percorre todos os favoritos. Deve ser acessado
+ * apenas pela thread do Swing.
+ */
+public class BookmarkStore {
+    private static final String PUT = "B";
+    private static final String REMOVE = "R";
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /** Mais recente primeiro; empates resolvidos pela URL */
+    private static final Comparator<Bookmark> BY_ADDED = Comparator
+            .comparingLong(Bookmark::getAdded).reversed()
+            .thenComparing(Bookmark::getUrl);
+
+    private final RecordJournal journal;
+    private final Map<String, Bookmark> bookmarksByUrl = new HashMap<>();
+    private final NavigableSet<Bookmark> bookmarksByAdded = new TreeSet<>(BY_ADDED);
+    private final TreeMap<String, Integer> folders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final TreeMap<String, Set<String>> urlsByToken = new TreeMap<>();
+
+    public BookmarkStore(RecordJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Carrega o snapshot e o journal do disco
+     */
+    public void load() throws IOException {
+        journal.replay(this::applyRecord);
+    }
+
+    /**
+     * Indica se os favoritos já existem em disco
+     */
+    public boolean exists() {
+        return journal.exists();
+    }
+
+    /**
+     * Importa favoritos do formato antigo (apenas URLs), sem título nem pasta,
+     * gravando tudo em um único snapshot
+     */
+    public void importUrls(Collection<String> urls) {
+        long now = System.currentTimeMillis();
+        int order = urls.size();
+        for (String url : urls) {
+            String entryUrl = sanitize(url);
+            if (!entryUrl.isEmpty() && !bookmarksByUrl.containsKey(entryUrl)) {
+                // Preserva a ordem antiga: o primeiro da lista fica como o mais antigo
+                replace(null, new Bookmark(entryUrl, null, "", null, now - order));
+            }
+            order--;
+        }
+        compact();
+    }
+
+    /**
+     * Adiciona um favorito na raiz, se a URL ainda não for favorita
+     *
+     * @return o favorito novo, ou null se já existia
+     */
+    public Bookmark add(String url, String title) {
+        String entryUrl = sanitize(url);
+        if (entryUrl.isEmpty() || bookmarksByUrl.containsKey(entryUrl)) {
+            return null;
+        }
+        Bookmark bookmark = new Bookmark(entryUrl, sanitize(title), "", null, System.currentTimeMillis());
+        replace(null, bookmark);
+        append(bookmark);
+        return bookmark;
+    }
+
+    /**
+     * Altera título, pasta e etiquetas de um favorito existente
+     *
+     * @return o favorito atualizado, ou null se a URL não é favorita
+     */
+    public Bookmark update(String url, String title, String folder, Collection<String> tags) {
+        Bookmark bookmark = url != null ? bookmarksByUrl.get(url) : null;
+        if (bookmark == null) {
+            return null;
+        }
+        List<String> cleanTags = new ArrayList<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                cleanTags.add(sanitizeTag(tag));
+            }
+        }
+        Bookmark updated = bookmark.withDetails(sanitize(title), sanitize(folder), cleanTags);
+        replace(bookmark, updated);
+        append(updated);
+        return updated;
+    }
+
+    /**
+     * @return se a URL era favorita
+     */
+    public boolean remove(String url) {
+        Bookmark bookmark = url != null ? bookmarksByUrl.get(url) : null;
+        if (bookmark == null) {
+            return false;
+        }
+        unindex(bookmark);
+        journal.append(REMOVE + "\t" + bookmark.getUrl());
+        compactIfNeeded();
+        return true;
+    }
+
+    public boolean contains(String url) {
+        return url != null && bookmarksByUrl.containsKey(url);
+    }
+
+    public Bookmark get(String url) {
+        return url != null ? bookmarksByUrl.get(url) : null;
+    }
+
+    public int size() {
+        return bookmarksByUrl.size();
+    }
+
+    public boolean isEmpty() {
+        return bookmarksByUrl.isEmpty();
+    }
+
+    /**
+     * Todos os favoritos, mais recentes primeiro
+     */
+    public List<Bookmark> getBookmarks() {
+        return new ArrayList<>(bookmarksByAdded);
+    }
+
+    /**
+     * Favoritos mais recentes primeiro
+     */
+    public List<Bookmark> findRecent(int limit) {
+        List<Bookmark> result = new ArrayList<>(Math.min(limit, 64));
+        for (Bookmark bookmark : bookmarksByAdded) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(bookmark);
+        }
+        return result;
+    }
+
+    /**
+     * Pastas em uso, em ordem alfabética (sem a raiz)
+     */
+    public List<String> getFolders() {
+        List<String> result = new ArrayList<>(folders.keySet());
+        result.remove("");
+        return result;
+    }
+
+    /**
+     * Favoritos cujo título, URL, pasta ou etiquetas têm palavras começando
+     * com cada uma das palavras digitadas, mais recentes primeiro
+     *
+     * @param folder pasta onde buscar, ou null para todas
+     */
+    public List<Bookmark> search(String query, String folder) {
+        String[] words = tokenize(query, 1).toArray(new String[0]);
+        if (words.length == 0) {
+            return filterFolder(bookmarksByAdded, folder);
+        }
+        // Começa pela palavra com menos candidatos e filtra pelas demais
+        Arrays.sort(words, Comparator.comparingInt(this::countPrefix));
+        Set<String> matches = urlsWithPrefix(words[0]);
+        for (int i = 1; i < words.length && !matches.isEmpty(); i++) {
+            matches.retainAll(urlsWithPrefix(words[i]));
+        }
+        List<Bookmark> found = new ArrayList<>(matches.size());
+        for (String url : matches) {
+            found.add(bookmarksByUrl.get(url));
+        }
+        found.sort(BY_ADDED);
+        return filterFolder(found, folder);
+    }
+
+    /**
+     * Grava um novo snapshot em segundo plano
+     */
+    public void compact() {
+        journal.compact(new ArrayList<>(bookmarksByAdded), BookmarkStore::formatBookmark);
+    }
+
+    /**
+     * Journal em disco, para estatísticas e para forçar a gravação fora da
+     * thread do Swing
+     */
+    public RecordJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Força a gravação das alterações pendentes e encerra o journal
+     */
+    public void close() {
+        journal.close();
+    }
+
+    private void append(Bookmark bookmark) {
+        journal.append(formatBookmark(bookmark));
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        if (journal.needsCompaction(bookmarksByUrl.size())) {
+            compact();
+        }
+    }
+
+    private void applyRecord(String record) {
+        String[] fields = record.split("\t", -1);
+        try {
+            switch (fields[0]) {
+            case PUT:
+                Bookmark loaded = new Bookmark(fields[1], fields[2], fields[3], Bookmark.parseTags(fields[4]),
+                        Long.parseLong(fields[5]));
+                replace(bookmarksByUrl.get(loaded.getUrl()), loaded);
+                break;
+            case REMOVE:
+                Bookmark removed = bookmarksByUrl.get(fields[1]);
+                if (removed != null) {
+                    unindex(removed);
+                }
+                break;
+            default:
+                System.err.println("Registro de favoritos desconhecido ignorado: " + fields[0]);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Registro de favoritos inválido ignorado: " + e.getMessage());
+        }
+    }
+
+    private void replace(Bookmark oldBookmark, Bookmark newBookmark) {
+        if (oldBookmark != null) {
+            unindex(oldBookmark);
+        }
+        bookmarksByUrl.put(newBookmark.getUrl(), newBookmark);
+        bookmarksByAdded.add(newBookmark);
+        folders.merge(newBookmark.getFolder(), 1, Integer::sum);
+        for (String token : tokensOf(newBookmark)) {
+            urlsByToken.computeIfAbsent(token, t -> new HashSet<>(2)).add(newBookmark.getUrl());
+        }
+    }
+
+    private void unindex(Bookmark bookmark) {
+        bookmarksByUrl.remove(bookmark.getUrl());
+        bookmarksByAdded.remove(bookmark);
+        folders.computeIfPresent(bookmark.getFolder(), (folder, count) -> count > 1 ? count - 1 : null);
+        for (String token : tokensOf(bookmark)) {
+            Set<String> urls = urlsByToken.get(token);
+            if (urls != null) {
+                urls.remove(bookmark.getUrl());
+                if (urls.isEmpty()) {
+                    urlsByToken.remove(token);
+                }
+            }
+        }
+    }
+
+    private Set<String> urlsWithPrefix(String prefix) {
+        Set<String> result = new HashSet<>();
+        for (Set<String> urls : urlsByToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            result.addAll(urls);
+        }
+        return result;
+    }
+
+    private int countPrefix(String prefix) {
+        int count = 0;
+        for (Set<String> urls : urlsByToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            count += urls.size();
+        }
+        return count;
+    }
+
+    private static List<Bookmark> filterFolder(Collection<Bookmark> bookmarks, String folder) {
+        if (folder == null) {
+            return new ArrayList<>(bookmarks);
+        }
+        List<Bookmark> result = new ArrayList<>();
+        for (Bookmark bookmark : bookmarks) {
+            if (bookmark.getFolder().equalsIgnoreCase(folder)) {
+                result.add(bookmark);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> tokensOf(Bookmark bookmark) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(bookmark.getUrl(), MIN_TOKEN_LENGTH));
+        tokens.addAll(tokenize(bookmark.getTitle(), MIN_TOKEN_LENGTH));
+        tokens.addAll(tokenize(bookmark.getFolder(), MIN_TOKEN_LENGTH));
+        for (String tag : bookmark.getTags()) {
+            tokens.addAll(tokenize(tag, MIN_TOKEN_LENGTH));
+        }
+        tokens.remove("http");
+        tokens.remove("https");
+        tokens.remove("www");
+        return tokens;
+    }
+
+    /**
+     * Palavras em minúsculas com pelo menos {@code minLength} caracteres,
+     * separadas por qualquer caractere que não seja letra ou dígito
+     */
+    private static List<String> tokenize(String text, int minLength) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= minLength) {
+                    tokens.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String formatBookmark(Bookmark bookmark) {
+        return PUT + "\t" + bookmark.getUrl() + "\t" + (bookmark.getTitle() != null ? bookmark.getTitle() : "")
+                + "\t" + bookmark.getFolder() + "\t" + formatTags(bookmark.getTags()) + "\t"
+                + bookmark.getAdded();
+    }
+
+    /**
+     * As etiquetas são gravadas num só campo, separadas por vírgula
+     */
+    private static String formatTags(List<String> tags) {
+        List<String> clean = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            clean.add(sanitizeTag(tag));
+        }
+        return String.join(",", clean);
+    }
+
+    /**
+     * Uma vírgula dentro da etiqueta a dividiria em duas ao recarregar
+     */
+    private static String sanitizeTag(String tag) {
+        return sanitize(tag).replace(',', ' ').trim();
+    }
+
+    /**
+     * Um registro do journal ocupa uma única linha e usa tabulação como
+     * separador
+     */
+    private static String sanitize(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value.trim();
+        }
+        return value.replaceAll("[\\r\\n\\t]", " ").trim();
+    }
+}
@@ -0,0 +1,822 @@
+package com.bl;
+
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+
+import javafx.application.Platform;
+import javafx.scene.web.WebEngine;
+
+/**
+ * Interface de gerenciamento JMX do navegador: MXBeans de abas, bancos de
+ * dados, memória, caches e da inicialização registrados no MBeanServer da
+ * plataforma, no domínio "com.bl". Um JConsole na mesma máquina os enxerga pela conexão local
+ * (attach), sem nenhuma porta de rede aberta.
+ *
+ * As chamadas chegam por threads do JMX; o que pertence à interface roda na
+ * thread do Swing (e o estado dos WebEngines na do JavaFX), esperando o
+ * resultado por um tempo limitado.
+ */
+public class BrowserManagement {
+    private static final String DOMAIN = "com.bl";
+    private static final long CALL_TIMEOUT_SECONDS = 5;
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    /**
+     * Registra um MXBean como com.bl:type=&lt;type&gt;, substituindo um
+     * registro anterior com o mesmo nome
+     */
+    public void register(String type, Object mxbean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN, "type", type);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mxbean, name);
+            registered.add(name);
+        } catch (JMException e) {
+            System.err.println("Erro ao registrar MBean " + type + ": " + e.getMessage());
+        }
+    }
+
+    public void unregisterAll() {
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Já removido
+            }
+        }
+        registered.clear();
+    }
+
+    /**
+     * Executa na thread do Swing e devolve o resultado
+     */
+    static <T> T onEdt(Callable<T> task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        SwingUtilities.invokeLater(() -> complete(result, task));
+        return await(result);
+    }
+
+    /**
+     * Executa na thread do JavaFX e devolve o resultado
+     */
+    static <T> T onFx(Callable<T> task) {
+        if (Platform.isFxApplicationThread()) {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> complete(result, task));
+        return await(result);
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, Callable<T> task) {
+        try {
+            result.complete(task.call());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrompido");
+        } catch (Exception e) {
+            // Só tipos do java.* chegam ao cliente JMX
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        }
+    }
+
+    // ---- Abas ----
+
+    public interface TabsMXBean {
+        int getTabCount();
+
+        int getHibernatedCount();
+
+        /** Abas de fundo com timers, animações e desenho contidos */
+        int getThrottledCount();
+
+        /** Quantas vezes alguma aba foi contida desde o início */
+        long getThrottles();
+
+        /** Trocas de aba atendidas pelo estado publicado da aba */
+        long getSwitches();
+
+        double getAverageSwitchMicros();
+
+        double getMaxSwitchMicros();
+
+        /** Trocas para abas sem estado publicado, que consultaram o engine */
+        long getSwitchesWithoutState();
+
+        /** Id da aba selecionada, ou 0 */
+        int getActiveTabId();
+
+        List<TabInfo> getTabs();
+
+        /** Hiberna a aba; devolve false se ela não existe, está ativa ou já hibernada */
+        boolean hibernateTab(int tabId);
+
+        /** Hiberna todas as abas de fundo com página carregada; devolve quantas */
+        int hibernateBackgroundTabs();
+    }
+
+    /**
+     * Uma linha da tabela de abas; os tempos valem -1 quando não medidos
+     */
+    public static class TabInfo {
+        private final int id;
+        private final String url;
+        private final String title;
+        private final String loadState;
+        private final long lastLoadMs;
+        private final long idleSeconds;
+        private final boolean hibernated;
+
+        @ConstructorProperties({ "id", "url", "title", "loadState", "lastLoadMs", "idleSeconds", "hibernated" })
+        public TabInfo(int id, String url, String title, String loadState, long lastLoadMs, long idleSeconds,
+                boolean hibernated) {
+            this.id = id;
+            this.url = url;
+            this.title = title;
+            this.loadState = loadState;
+            this.lastLoadMs = lastLoadMs;
+            this.idleSeconds = idleSeconds;
+            this.hibernated = hibernated;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /** Estado do Worker do WebEngine, ou HIBERNATED */
+        public String getLoadState() {
+            return loadState;
+        }
+
+        public long getLastLoadMs() {
+            return lastLoadMs;
+        }
+
+        /** Segundos desde que a aba foi usada pela última vez; 0 para a ativa */
+        public long getIdleSeconds() {
+            return idleSeconds;
+        }
+
+        public boolean isHibernated() {
+            return hibernated;
+        }
+    }
+
+    public static class Tabs implements TabsMXBean {
+        private final TabRegistry tabs;
+        private final Supplier<BrowserTab> activeTab;
+        private final Consumer<BrowserTab> hibernator;
+        private final NavigationTimingStore timings;
+        private final BackgroundThrottler throttler;
+        private final TabSwitchMetrics switchMetrics;
+
+        public Tabs(TabRegistry tabs, Supplier<BrowserTab> activeTab, Consumer<BrowserTab> hibernator,
+                NavigationTimingStore timings, BackgroundThrottler throttler, TabSwitchMetrics switchMetrics) {
+            this.tabs = tabs;
+            this.activeTab = activeTab;
+            this.hibernator = hibernator;
+            this.timings = timings;
+            this.throttler = throttler;
+            this.switchMetrics = switchMetrics;
+        }
+
+        @Override
+        public int getTabCount() {
+            return onEdt(tabs::size);
+        }
+
+        @Override
+        public int getHibernatedCount() {
+            return onEdt(tabs::getHibernatedCount);
+        }
+
+        @Override
+        public int getThrottledCount() {
+            return onEdt(throttler::getThrottledCount);
+        }
+
+        @Override
+        public long getThrottles() {
+            return onEdt(throttler::getThrottles);
+        }
+
+        @Override
+        public long getSwitches() {
+            return switchMetrics.getSwitches();
+        }
+
+        @Override
+        public double getAverageSwitchMicros() {
+            return switchMetrics.getAverageMicros();
+        }
+
+        @Override
+        public double getMaxSwitchMicros() {
+            return switchMetrics.getMaxMicros();
+        }
+
+        @Override
+        public long getSwitchesWithoutState() {
+            return switchMetrics.getWithoutState();
+        }
+
+        @Override
+        public int getActiveTabId() {
+            return onEdt(() -> {
+                BrowserTab tab = activeTab.get();
+                return tab != null ? tab.getId() : 0;
+            });
+        }
+
+        @Override
+        public List<TabInfo> getTabs() {
+            // Abas na thread do Swing, estado dos engines na do JavaFX
+            List<BrowserTab> snapshot = new ArrayList<>();
+            Map<BrowserTab, WebEngine> engines = new HashMap<>();
+            AtomicReference<BrowserTab> active = new AtomicReference<>();
+            onEdt(() -> {
+                active.set(activeTab.get());
+                for (BrowserTab tab : tabs.getTabs()) {
+                    snapshot.add(tab);
+                    if (tab.getEngine() != null) {
+                        engines.put(tab, tab.getEngine());
+                    }
+                }
+                return null;
+            });
+            Map<BrowserTab, String> states = engines.isEmpty() ? Map.of() : onFx(() -> {
+                Map<BrowserTab, String> result = new HashMap<>();
+                engines.forEach((tab, engine) -> result.put(tab, engine.getLoadWorker().getState().name()));
+                return result;
+            });
+            return onEdt(() -> {
+                long now = System.currentTimeMillis();
+                List<TabInfo> result = new ArrayList<>();
+                for (BrowserTab tab : snapshot) {
+                    List<NavigationTiming> tabTimings = timings.getTimings(tab.getId());
+                    long lastLoad = tabTimings.isEmpty() ? -1 : tabTimings.get(0).getLoadMs();
+                    String url = tab.isHibernated() ? tab.getSnapshot().getUrl() : tab.getLocation();
+                    String state = tab.isHibernated() ? "HIBERNATED" : states.getOrDefault(tab, "READY");
+                    long idle = tab == active.get() ? 0 : (now - tab.getLastActive()) / 1000;
+                    result.add(new TabInfo(tab.getId(), url, tab.getTitle(), state, lastLoad, idle,
+                            tab.isHibernated()));
+                }
+                return result;
+            });
+        }
+
+        @Override
+        public boolean hibernateTab(int tabId) {
+            return onEdt(() -> {
+                BrowserTab tab = tabs.findById(tabId);
+                if (tab == null || tab == activeTab.get() || tab.isHibernated() || tab.isHibernating()
+                        || tab.getEngine() == null) {
+                    return false;
+                }
+                hibernator.accept(tab);
+                return true;
+            });
+        }
+
+        @Override
+        public int hibernateBackgroundTabs() {
+            return onEdt(() -> {
+                int count = 0;
+                BrowserTab active = activeTab.get();
+                for (BrowserTab tab : tabs.getTabs()) {
+                    if (tab != active && !tab.isHibernated() && !tab.isHibernating() && tab.getEngine() != null) {
+                        hibernator.accept(tab);
+                        count++;
+                    }
+                }
+                return count;
+            });
+        }
+    }
+
+    // ---- Histórico e favoritos ----
+
+    public interface StoresMXBean {
+        /** Se histórico e favoritos já terminaram de carregar */
+        boolean isLoaded();
+
+        int getHistorySize();
+
+        int getHistoryCapacity();
+
+        int getBookmarkCount();
+
+        long getHistoryPendingRecords();
+
+        double getHistoryAverageWriteMicros();
+
+        double getHistoryAverageSyncMicros();
+
+        long getBookmarkPendingRecords();
+
+        double getBookmarkAverageWriteMicros();
+
+        double getBookmarkAverageSyncMicros();
+
+        int getNavigationTimingCount();
+
+        /** Gravações esperando ou em andamento no serviço de persistência */
+        int getPersistencePending();
+
+        /** Gravações substituídas por uma mais nova da mesma chave */
+        long getPersistenceCoalesced();
+
+        long getPersistenceFailures();
+
+        double getPersistenceAverageWriteMillis();
+
+        /** Gravações, coalescências, falhas e tempo médio numa linha */
+        String getPersistenceSummary();
+
+        /** Antecipa e aguarda as gravações pendentes; devolve false se o tempo acabou */
+        boolean flushPersistence();
+
+        /** Grava em disco as visitas ainda pendentes no journal do histórico */
+        void flushHistory();
+
+        /** Grava um novo snapshot do histórico e trunca o journal */
+        void compactHistory();
+
+        void flushBookmarks();
+    }
+
+    public static class Stores implements StoresMXBean {
+        private final Supplier<HistoryStore> history;
+        private final Supplier<BookmarkStore> bookmarks;
+        private final NavigationTimingStore timings;
+        private final PersistenceService persistence;
+
+        /**
+         * @param history   histórico, ou null enquanto carrega; lido na thread do Swing
+         * @param bookmarks favoritos, ou null enquanto carregam; lido na thread do Swing
+         */
+        public Stores(Supplier<HistoryStore> history, Supplier<BookmarkStore> bookmarks,
+                NavigationTimingStore timings, PersistenceService persistence) {
+            this.history = history;
+            this.bookmarks = bookmarks;
+            this.timings = timings;
+            this.persistence = persistence;
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return onEdt(() -> history.get() != null && bookmarks.get() != null);
+        }
+
+        @Override
+        public int getHistorySize() {
+            return onEdt(() -> history.get() != null ? history.get().size() : -1);
+        }
+
+        @Override
+        public int getHistoryCapacity() {
+            return onEdt(() -> history.get() != null ? history.get().getCapacity() : -1);
+        }
+
+        @Override
+        public int getBookmarkCount() {
+            return onEdt(() -> bookmarks.get() != null ? bookmarks.get().size() : -1);
+        }
+
+        @Override
+        public long getHistoryPendingRecords() {
+            RecordJournal journal = historyJournal();
+            return journal != null ? journal.getPendingRecords() : 0;
+        }
+
+        @Override
+        public double getHistoryAverageWriteMicros() {
+            RecordJournal journal = historyJournal();
+            return journal != null ? journal.getAverageWriteMicros() : 0;
+        }
+
+        @Override
+        public double getHistoryAverageSyncMicros() {
+            RecordJournal journal = historyJournal();
+            return journal != null ? journal.getAverageSyncMicros() : 0;
+        }
+
+        @Override
+        public long getBookmarkPendingRecords() {
+            RecordJournal journal = bookmarkJournal();
+            return journal != null ? journal.getPendingRecords() : 0;
+        }
+
+        @Override
+        public double getBookmarkAverageWriteMicros() {
+            RecordJournal journal = bookmarkJournal();
+            return journal != null ? journal.getAverageWriteMicros() : 0;
+        }
+
+        @Override
+        public double getBookmarkAverageSyncMicros() {
+            RecordJournal journal = bookmarkJournal();
+            return journal != null ? journal.getAverageSyncMicros() : 0;
+        }
+
+        @Override
+        public int getNavigationTimingCount() {
+            return timings.size();
+        }
+
+        @Override
+        public int getPersistencePending() {
+            return persistence.getPending();
+        }
+
+        @Override
+        public long getPersistenceCoalesced() {
+            return persistence.getCoalesced();
+        }
+
+        @Override
+        public long getPersistenceFailures() {
+            return persistence.getFailures();
+        }
+
+        @Override
+        public double getPersistenceAverageWriteMillis() {
+            return persistence.getAverageWriteMillis();
+        }
+
+        @Override
+        public String getPersistenceSummary() {
+            return persistence.getSummary();
+        }
+
+        @Override
+        public boolean flushPersistence() {
+            return persistence.flush(CALL_TIMEOUT_SECONDS * 1000);
+        }
+
+        @Override
+        public void flushHistory() {
+            // A espera pelo disco fica na thread do JMX
+            RecordJournal journal = historyJournal();
+            if (journal != null) {
+                journal.flush();
+            }
+        }
+
+        @Override
+        public void compactHistory() {
+            onEdt(() -> {
+                if (history.get() != null) {
+                    history.get().compact();
+                }
+                return null;
+            });
+        }
+
+        @Override
+        public void flushBookmarks() {
+            RecordJournal journal = bookmarkJournal();
+            if (journal != null) {
+                journal.flush();
+            }
+        }
+
+        private RecordJournal historyJournal() {
+            return onEdt(() -> history.get() != null ? history.get().getJournal() : null);
+        }
+
+        private RecordJournal bookmarkJournal() {
+            return onEdt(() -> bookmarks.get() != null ? bookmarks.get().getJournal() : null);
+        }
+    }
+
+    // ---- Memória ----
+
+    /** Não confundir com java.lang.management.MemoryMXBean, que é da JVM */
+    public interface BrowserMemoryMXBean {
+        long getUsedBytes();
+
+        long getCommittedBytes();
+
+        long getMaxBytes();
+
+        int getPercent();
+
+        /** Nível de pressão de memória da última medição */
+        String getLevel();
+
+        long getGcCount();
+
+        long getGcMillis();
+
+        String getLastGc();
+
+        /** Abas hibernadas pela política de pressão de memória */
+        long getPressureEvictions();
+
+        List<String> getRecentDecisions();
+
+        int getPooledWebViews();
+
+        /** Tempo médio de abertura de abas, com e sem o estoque */
+        String getTabOpenLatency();
+
+        /** Pede uma nova medição */
+        void refresh();
+
+        /** Descarta os WebViews prontos do estoque; devolve quantos */
+        int drainWebViewPool();
+    }
+
+    public static class BrowserMemory implements BrowserMemoryMXBean {
+        private final MemoryTelemetry telemetry;
+        private final MemoryPressurePolicy policy;
+        private final WebViewPool pool;
+
+        public BrowserMemory(MemoryTelemetry telemetry, MemoryPressurePolicy policy, WebViewPool pool) {
+            this.telemetry = telemetry;
+            this.policy = policy;
+            this.pool = pool;
+        }
+
+        @Override
+        public long getUsedBytes() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getUsed() : -1;
+        }
+
+        @Override
+        public long getCommittedBytes() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getCommitted() : -1;
+        }
+
+        @Override
+        public long getMaxBytes() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getMax() : -1;
+        }
+
+        @Override
+        public int getPercent() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getPercent() : -1;
+        }
+
+        @Override
+        public String getLevel() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getLevel().name() : null;
+        }
+
+        @Override
+        public long getGcCount() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getGcCount() : -1;
+        }
+
+        @Override
+        public long getGcMillis() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getGcMillis() : -1;
+        }
+
+        @Override
+        public String getLastGc() {
+            MemoryTelemetry.Sample sample = telemetry.getLastSample();
+            return sample != null ? sample.getLastGc() : null;
+        }
+
+        @Override
+        public long getPressureEvictions() {
+            return onEdt(policy::getEvictions);
+        }
+
+        @Override
+        public List<String> getRecentDecisions() {
+            return onEdt(policy::getDecisions);
+        }
+
+        @Override
+        public int getPooledWebViews() {
+            return onEdt(pool::getReadyCount);
+        }
+
+        @Override
+        public String getTabOpenLatency() {
+            return onEdt(pool::getLatencySummary);
+        }
+
+        @Override
+        public void refresh() {
+            telemetry.refresh();
+        }
+
+        @Override
+        public int drainWebViewPool() {
+            return onEdt(pool::drain);
+        }
+    }
+
+    // ---- Caches e filtros ----
+
+    public interface CachesMXBean {
+        boolean isHttpCacheEnabled();
+
+        long getHttpCacheHits();
+
+        long getHttpCacheRevalidated();
+
+        long getHttpCacheMisses();
+
+        double getHttpCacheHitRatio();
+
+        long getHttpCacheBytesSaved();
+
+        long getHttpCacheBytes();
+
+        int getHttpCacheEntries();
+
+        String getHttpCacheSummary();
+
+        String getContentBlockerSummary();
+
+        String getSpeculationSummary();
+
+        String getEngineEventsSummary();
+
+        /** Remove todas as respostas do cache HTTP em disco */
+        void clearCaches();
+    }
+
+    public static class Caches implements CachesMXBean {
+        private final HttpDiskCache httpCache;
+        private final Supplier<ContentBlocker> contentBlocker;
+        private final Supplier<SpeculativeLoader> speculativeLoader;
+        private final EngineEventDispatcher engineEvents;
+
+        /**
+         * @param httpCache         cache em disco, ou null se desativado
+         * @param contentBlocker    lido na thread do Swing; null quando desativado
+         * @param speculativeLoader lido na thread do Swing; null quando desativado
+         */
+        public Caches(HttpDiskCache httpCache, Supplier<ContentBlocker> contentBlocker,
+                Supplier<SpeculativeLoader> speculativeLoader, EngineEventDispatcher engineEvents) {
+            this.httpCache = httpCache;
+            this.contentBlocker = contentBlocker;
+            this.speculativeLoader = speculativeLoader;
+            this.engineEvents = engineEvents;
+        }
+
+        @Override
+        public boolean isHttpCacheEnabled() {
+            return httpCache != null;
+        }
+
+        @Override
+        public long getHttpCacheHits() {
+            return httpCache != null ? httpCache.getHits() : 0;
+        }
+
+        @Override
+        public long getHttpCacheRevalidated() {
+            return httpCache != null ? httpCache.getRevalidated() : 0;
+        }
+
+        @Override
+        public long getHttpCacheMisses() {
+            return httpCache != null ? httpCache.getMisses() : 0;
+        }
+
+        @Override
+        public double getHttpCacheHitRatio() {
+            return httpCache != null ? httpCache.getHitRatio() : 0;
+        }
+
+        @Override
+        public long getHttpCacheBytesSaved() {
+            return httpCache != null ? httpCache.getBytesSaved() : 0;
+        }
+
+        @Override
+        public long getHttpCacheBytes() {
+            return httpCache != null ? httpCache.getTotalBytes() : 0;
+        }
+
+        @Override
+        public int getHttpCacheEntries() {
+            return httpCache != null ? httpCache.size() : 0;
+        }
+
+        @Override
+        public String getHttpCacheSummary() {
+            return httpCache != null ? httpCache.getSummary() : "desativado";
+        }
+
+        @Override
+        public String getContentBlockerSummary() {
+            ContentBlocker blocker = onEdt(contentBlocker::get);
+            return blocker != null ? blocker.getSummary() : "desativado";
+        }
+
+        @Override
+        public String getSpeculationSummary() {
+            return onEdt(() -> speculativeLoader.get() != null ? speculativeLoader.get().getSummary() : "desativada");
+        }
+
+        @Override
+        public String getEngineEventsSummary() {
+            return engineEvents.getSummary();
+        }
+
+        @Override
+        public void clearCaches() {
+            if (httpCache != null) {
+                httpCache.clear();
+            }
+        }
+    }
+
+    // ---- Inicialização ----
+
+    public interface StartupMXBean {
+        /** Fases da inicialização, em ordem de término, com a thread de cada uma */
+        List<StartupTimeline.Phase> getPhases();
+
+        /** Marcos em milissegundos desde a entrada no main */
+        Map<String, Long> getMilestones();
+
+        /** Tempo entre o início da JVM e a entrada no main */
+        long getJvmStartToMainMillis();
+    }
+
+    public static class Startup implements StartupMXBean {
+        private final StartupTimeline timeline;
+
+        public Startup(StartupTimeline timeline) {
+            this.timeline = timeline;
+        }
+
+        @Override
+        public List<StartupTimeline.Phase> getPhases() {
+            return timeline.getPhases();
+        }
+
+        @Override
+        public Map<String, Long> getMilestones() {
+            return timeline.getMilestones();
+        }
+
+        @Override
+        public long getJvmStartToMainMillis() {
+            return timeline.getJvmStartToOriginMillis();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.bl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.web.WebEngine;
+import javafx.scene.web.WebView;
+
+/**
+ * Uma aba do navegador com identidade estável, independente da posição que
+ * ocupa no JTabbedPane. Deve ser acessada apenas pela thread do Swing, exceto
+ * a lista de voltar/avançar herdada, que é sincronizada.
+ */
+public class BrowserTab {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final int id;
+    private final JPanel panel;
+    private final JLabel titleLabel;
+
+    private JFXPanel fxPanel;
+    private WebView webView;
+    private WebEngine engine;
+    private String title;
+    private TabSnapshot snapshot; // Diferente de null enquanto a aba estiver hibernada
+    private long lastActive;
+    private boolean restoring;
+    private boolean hibernating; // Snapshot sendo capturado na thread do JavaFX
+    private String location; // Página principal atual
+    private int blockedRequests; // Bloqueios do filtro de conteúdo nesta página
+    private long blockedBytes;
+
+    // Voltar/avançar de antes da hibernação ou do reinício, além das pontas do
+    // histórico do WebEngine atual; a página mais próxima fica no topo
+    private final Deque<String> sessionBack = new ArrayDeque<>();
+    private final Deque<String> sessionForward = new ArrayDeque<>();
+
+    public BrowserTab(JPanel panel, JLabel titleLabel) {
+        this.id = NEXT_ID.getAndIncrement();
+        this.panel = panel;
+        this.titleLabel = titleLabel;
+        this.lastActive = System.currentTimeMillis();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Componente da aba dentro do JTabbedPane
+     */
+    public JPanel getPanel() {
+        return panel;
+    }
+
+    public JLabel getTitleLabel() {
+        return titleLabel;
+    }
+
+    public JFXPanel getFxPanel() {
+        return fxPanel;
+    }
+
+    public WebView getWebView() {
+        return webView;
+    }
+
+    public WebEngine getEngine() {
+        return engine;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public TabSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isHibernated() {
+        return snapshot != null;
+    }
+
+    public long getLastActive() {
+        return lastActive;
+    }
+
+    public void markActive() {
+        lastActive = System.currentTimeMillis();
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Muda a página principal, zerando os contadores de bloqueio
+     */
+    public void setLocation(String location) {
+        this.location = location;
+        blockedRequests = 0;
+        blockedBytes = 0;
+    }
+
+    public int getBlockedRequests() {
+        return blockedRequests;
+    }
+
+    public long getBlockedBytes() {
+        return blockedBytes;
+    }
+
+    public void recordBlocked(long estimatedBytes) {
+        blockedRequests++;
+        blockedBytes += estimatedBytes;
+    }
+
+    public boolean isRestoring() {
+        return restoring;
+    }
+
+    void setRestoring(boolean restoring) {
+        this.restoring = restoring;
+    }
+
+    /**
+     * Se a hibernação já começou e o snapshot ainda não chegou; o engine
+     * continua presente, mas a aba não deve ser hibernada de novo
+     */
+    public boolean isHibernating() {
+        return hibernating;
+    }
+
+    void setHibernating(boolean hibernating) {
+        this.hibernating = hibernating;
+    }
+
+    /**
+     * Substitui a lista de voltar/avançar herdada
+     *
+     * @param back    páginas anteriores, da mais próxima à mais antiga
+     * @param forward páginas seguintes, da mais próxima à mais distante
+     */
+    public synchronized void setSessionHistory(List<String> back, List<String> forward) {
+        sessionBack.clear();
+        sessionBack.addAll(back);
+        sessionForward.clear();
+        sessionForward.addAll(forward);
+    }
+
+    public synchronized boolean hasSessionBack() {
+        return !sessionBack.isEmpty();
+    }
+
+    public synchronized boolean hasSessionForward() {
+        return !sessionForward.isEmpty();
+    }
+
+    public synchronized String popSessionBack() {
+        return sessionBack.poll();
+    }
+
+    public synchronized String popSessionForward() {
+        return sessionForward.poll();
+    }
+
+    public synchronized void pushSessionBack(String url) {
+        sessionBack.push(url);
+    }
+
+    public synchronized void pushSessionForward(String url) {
+        sessionForward.push(url);
+    }
+
+    /**
+     * Páginas anteriores herdadas, da mais antiga à mais próxima
+     */
+    public synchronized List<String> getSessionBackOldestFirst() {
+        List<String> back = new ArrayList<>(sessionBack);
+        Collections.reverse(back);
+        return back;
+    }
+
+    /**
+     * Páginas seguintes herdadas, da mais próxima à mais distante
+     */
+    public synchronized List<String> getSessionForward() {
+        return new ArrayList<>(sessionForward);
+    }
+
+    void attach(JFXPanel fxPanel, WebView webView) {
+        this.fxPanel = fxPanel;
+        this.webView = webView;
+        this.engine = webView.getEngine();
+        this.snapshot = null;
+        this.restoring = false;
+        this.hibernating = false;
+    }
+
+    void hibernate(TabSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.hibernating = false;
+        this.fxPanel = null;
+        this.webView = null;
+        this.engine = null;
+    }
+}
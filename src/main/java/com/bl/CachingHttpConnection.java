@@ -0,0 +1,304 @@
+package com.bl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.CookieHandler;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conexão HTTP entregue ao WebEngine pelo {@link HttpDiskCache}: responde do
+ * disco quando possível e, caso contrário, faz a requisição pelo HttpClient
+ * compartilhado, gravando a resposta no cache enquanto ela é lida. Cookies
+ * passam pelo {@link CookieHandler} padrão, como na conexão do JDK.
+ * Redirecionamentos não são seguidos; quem segue é o WebEngine. Requisições
+ * recusadas pelo {@link ContentBlocker} falham sem chegar à rede.
+ */
+class CachingHttpConnection extends HttpURLConnection {
+    // Cabeçalhos controlados pelo próprio HttpClient
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "date", "expect",
+            "from", "host", "upgrade", "via", "warning");
+
+    private final HttpDiskCache cache;
+    private final HttpClient client;
+    private ByteArrayOutputStream requestBody;
+
+    private Map<String, List<String>> responseHeaders = Collections.emptyMap();
+    private final List<String> headerKeys = new ArrayList<>();
+    private final List<String> headerValues = new ArrayList<>();
+    private InputStream body;
+    private boolean responded;
+    private IOException failure;
+
+    CachingHttpConnection(URL url, HttpDiskCache cache, HttpClient client) {
+        super(url);
+        this.cache = cache;
+        this.client = client;
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (responded) {
+            return;
+        }
+        if (failure != null) {
+            throw failure; // Não repete a requisição a cada consulta de cabeçalho
+        }
+        try {
+            sendRequest();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    private void sendRequest() throws IOException {
+        Map<String, List<String>> requestHeaders = getRequestProperties();
+        ContentBlocker blocker = cache.getContentBlocker();
+        if (blocker != null) {
+            String referer = HttpDiskCache.header(requestHeaders, "referer");
+            if (blocker.shouldBlock(url.toExternalForm(), referer, HttpDiskCache.header(requestHeaders, "accept"))) {
+                blocker.recordBlocked(url.toExternalForm(), referer, cache.getAverageEntrySize());
+                throw new IOException("Bloqueado pelo filtro de conteúdo: " + url);
+            }
+        }
+        URI uri = toUri(url);
+        long requestTime = System.currentTimeMillis();
+
+        // Só GETs sem condições próprias usam as respostas guardadas
+        boolean usesCache = "GET".equals(method) && requestBody == null
+                && HttpDiskCache.header(requestHeaders, "if-none-match") == null
+                && HttpDiskCache.header(requestHeaders, "if-modified-since") == null;
+        HttpDiskCache.Entry cached = usesCache ? cache.lookup(url.toExternalForm()) : null;
+        if (cached != null && !requestsRevalidation(requestHeaders) && HttpDiskCache.isFresh(cached, requestTime)) {
+            respondFromCache(cached, cache.openCached(cached, false));
+            return;
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri);
+        int timeout = Math.max(getConnectTimeout(), getReadTimeout());
+        if (timeout > 0) {
+            request.timeout(Duration.ofMillis(timeout));
+        }
+        for (Map.Entry<String, List<String>> header : requestHeaders.entrySet()) {
+            if (header.getKey() != null && !RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                for (String value : header.getValue()) {
+                    request.header(header.getKey(), value);
+                }
+            }
+        }
+        CookieHandler cookieHandler = CookieHandler.getDefault();
+        if (cookieHandler != null) {
+            for (Map.Entry<String, List<String>> cookie : cookieHandler.get(uri, requestHeaders).entrySet()) {
+                for (String value : cookie.getValue()) {
+                    request.header(cookie.getKey(), value);
+                }
+            }
+        }
+        String etag = cached != null ? HttpDiskCache.header(cached.headers, "etag") : null;
+        String lastModified = cached != null ? HttpDiskCache.header(cached.headers, "last-modified") : null;
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        request.method(method, requestBody != null
+                ? HttpRequest.BodyPublishers.ofByteArray(requestBody.toByteArray())
+                : HttpRequest.BodyPublishers.noBody());
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Requisição interrompida: " + url);
+        }
+        Map<String, List<String>> headers = response.headers().map();
+        if (cookieHandler != null) {
+            cookieHandler.put(uri, headers);
+        }
+
+        if (response.statusCode() == HTTP_NOT_MODIFIED && (etag != null || lastModified != null)) {
+            response.body().close();
+            HttpDiskCache.Entry refreshed = cache.refresh(cached, headers, requestTime);
+            respondFromCache(refreshed, cache.openCached(refreshed, true));
+            return;
+        }
+
+        InputStream stream = response.body();
+        if (usesCache) {
+            cache.recordMiss();
+            if (cache.isStorable(method, requestHeaders, response.statusCode(), headers)) {
+                stream = cache.storeWhileReading(url.toExternalForm(), response.statusCode(), null, headers,
+                        requestTime, stream);
+            }
+        }
+        respond(response.statusCode(), null, headers, stream);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (!doOutput) {
+            throw new ProtocolException("Conexão não aceita envio de dados (doOutput=false)");
+        }
+        if (responded) {
+            throw new ProtocolException("Requisição já enviada");
+        }
+        if ("GET".equals(method)) {
+            method = "POST"; // Mesmo comportamento da conexão do JDK
+        }
+        if (requestBody == null) {
+            requestBody = new ByteArrayOutputStream();
+        }
+        return requestBody;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        connect();
+        if (responseCode >= HTTP_BAD_REQUEST) {
+            if (responseCode == HTTP_NOT_FOUND || responseCode == HTTP_GONE) {
+                throw new FileNotFoundException(url.toString());
+            }
+            throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+        }
+        return body;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return responded && responseCode >= HTTP_BAD_REQUEST ? body : null;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        connect();
+        return responseCode;
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        if (!connectQuietly() || name == null) {
+            return null;
+        }
+        List<String> values = responseHeaders.get(name);
+        if (values == null) {
+            // Cabeçalhos do HTTP/2 chegam em minúsculas, os do HTTP/1.1 como vieram
+            return HttpDiskCache.header(responseHeaders, name);
+        }
+        return values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        return connectQuietly() ? responseHeaders : Collections.emptyMap();
+    }
+
+    /**
+     * Posição 0 é a linha de status, como na conexão do JDK
+     */
+    @Override
+    public String getHeaderFieldKey(int n) {
+        return connectQuietly() && n > 0 && n < headerKeys.size() ? headerKeys.get(n) : null;
+    }
+
+    @Override
+    public String getHeaderField(int n) {
+        return connectQuietly() && n >= 0 && n < headerValues.size() ? headerValues.get(n) : null;
+    }
+
+    @Override
+    public void disconnect() {
+        if (body != null) {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // Nada a fazer: a conexão está sendo descartada
+            }
+        }
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    private boolean connectQuietly() {
+        try {
+            connect();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void respondFromCache(HttpDiskCache.Entry entry, InputStream stream) {
+        respond(entry.status, entry.message, entry.headers, stream);
+    }
+
+    private void respond(int status, String message, Map<String, List<String>> headers, InputStream stream) {
+        responseCode = status;
+        responseMessage = message;
+        String statusLine = "HTTP/1.1 " + status + (message != null ? " " + message : "");
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        fields.put(null, Collections.singletonList(statusLine));
+        headerKeys.add(null);
+        headerValues.add(statusLine);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() == null || header.getKey().startsWith(":")) {
+                continue; // Pseudo-cabeçalhos do HTTP/2
+            }
+            fields.put(header.getKey(), Collections.unmodifiableList(new ArrayList<>(header.getValue())));
+            for (String value : header.getValue()) {
+                headerKeys.add(header.getKey());
+                headerValues.add(value);
+            }
+        }
+        responseHeaders = Collections.unmodifiableMap(fields);
+        body = stream;
+        responded = true;
+        connected = true;
+    }
+
+    /**
+     * Recarregamentos pedem para ignorar a cópia guardada
+     */
+    private static boolean requestsRevalidation(Map<String, List<String>> requestHeaders) {
+        String cacheControl = HttpDiskCache.header(requestHeaders, "cache-control");
+        String pragma = HttpDiskCache.header(requestHeaders, "pragma");
+        HttpDiskCache.CacheControl control = HttpDiskCache.CacheControl.parse(cacheControl);
+        return control.noCache || control.maxAgeSeconds == 0 || (pragma != null && pragma.contains("no-cache"));
+    }
+
+    private static URI toUri(URL url) throws IOException {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            // URLs com caracteres não escapados vindos das páginas
+            try {
+                return new URI(url.getProtocol(), url.getUserInfo(), url.getHost(), url.getPort(), url.getPath(),
+                        url.getQuery(), null);
+            } catch (URISyntaxException ex) {
+                throw new IOException("URL inválida: " + url, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package com.bl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloqueio de anúncios e rastreadores a partir de listas no formato do
+ * EasyList, consultado pela conexão do {@link HttpDiskCache} antes de cada
+ * requisição das páginas.
+ *
+ * As regras são compiladas uma vez: regras de domínio ({@code ||host^}) vão
+ * para um HashMap consultado com o host e cada um dos seus sufixos; as demais
+ * são indexadas pelo maior trecho literal em um autômato de
+ * {@link AhoCorasick}, e só as candidatas encontradas nele têm o padrão
+ * completo verificado. Assim o custo por requisição depende do tamanho da URL
+ * e não do número de regras. Regras de exceção ({@code @@}) são compiladas do
+ * mesmo jeito e consultadas só quando alguma regra bloqueia.
+ *
+ * Suporta as opções third-party e os tipos de recurso (script, image,
+ * stylesheet...); regras com outras opções (domain=, popup, redirect...),
+ * expressões regulares e regras de ocultação de elementos são ignoradas.
+ *
+ * Depois de compilado pode ser usado por várias threads.
+ */
+public class ContentBlocker {
+    private static final String DEFAULT_FILTERS = "/filters/default.txt";
+    private static final int MIN_KEY_LENGTH = 3;
+    // Segundos níveis genéricos sob domínios de país (co.uk, com.br, ac.jp...);
+    // fora deles, web.de e orf.at já são domínios registráveis
+    private static final Set<String> SECOND_LEVEL_LABELS = Set.of("ac", "adv", "art", "co", "com", "edu", "eng",
+            "go", "gob", "gov", "ind", "inf", "jus", "leg", "ltd", "med", "mil", "ne", "net", "nom", "or", "org",
+            "plc", "sch", "tur");
+
+    // Tipos de recurso, como máscara de bits
+    private static final int TYPE_SCRIPT = 1;
+    private static final int TYPE_IMAGE = 1 << 1;
+    private static final int TYPE_STYLESHEET = 1 << 2;
+    private static final int TYPE_SUBDOCUMENT = 1 << 3;
+    private static final int TYPE_XHR = 1 << 4;
+    private static final int TYPE_FONT = 1 << 5;
+    private static final int TYPE_MEDIA = 1 << 6;
+    private static final int TYPE_OTHER = 1 << 7;
+    private static final int ALL_TYPES = (1 << 8) - 1;
+    private static final Map<String, Integer> TYPE_OPTIONS = Map.ofEntries(
+            Map.entry("script", TYPE_SCRIPT), Map.entry("image", TYPE_IMAGE),
+            Map.entry("stylesheet", TYPE_STYLESHEET), Map.entry("css", TYPE_STYLESHEET),
+            Map.entry("subdocument", TYPE_SUBDOCUMENT), Map.entry("frame", TYPE_SUBDOCUMENT),
+            Map.entry("xmlhttprequest", TYPE_XHR), Map.entry("xhr", TYPE_XHR),
+            Map.entry("font", TYPE_FONT), Map.entry("media", TYPE_MEDIA),
+            Map.entry("object", TYPE_OTHER), Map.entry("ping", TYPE_OTHER), Map.entry("other", TYPE_OTHER));
+
+    private final RuleSet blocking;
+    private final RuleSet exceptions;
+    private final int skippedRules;
+    private volatile BlockListener listener;
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong checkNanos = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong blockedBytes = new AtomicLong();
+
+    /**
+     * Avisado a cada requisição bloqueada, na thread da conexão
+     */
+    public interface BlockListener {
+        /**
+         * @param pageUrl        página que fez a requisição (Referer), ou null
+         * @param estimatedBytes tamanho estimado da resposta que deixou de ser
+         *                       baixada
+         */
+        void blocked(String pageUrl, String url, long estimatedBytes);
+    }
+
+    private ContentBlocker(RuleSet blocking, RuleSet exceptions, int skippedRules) {
+        this.blocking = blocking;
+        this.exceptions = exceptions;
+        this.skippedRules = skippedRules;
+    }
+
+    /**
+     * Compila a lista embutida e, se existir, a lista do usuário
+     */
+    public static ContentBlocker load(Path userFilters) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = ContentBlocker.class.getResourceAsStream(DEFAULT_FILTERS)) {
+            if (in != null) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+        }
+        if (Files.exists(userFilters)) {
+            lines.addAll(Files.readAllLines(userFilters, StandardCharsets.UTF_8));
+        }
+        return compile(lines);
+    }
+
+    /**
+     * Compila regras no formato do EasyList, uma por linha
+     */
+    public static ContentBlocker compile(List<String> lines) {
+        RuleSet.Builder blocking = new RuleSet.Builder();
+        RuleSet.Builder exceptions = new RuleSet.Builder();
+        int skipped = 0;
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("!") || line.startsWith("[")) {
+                continue; // Comentários e cabeçalho da lista
+            }
+            boolean exception = line.startsWith("@@");
+            Rule rule = Rule.parse(exception ? line.substring(2) : line);
+            if (rule == null) {
+                skipped++;
+            } else {
+                (exception ? exceptions : blocking).add(rule);
+            }
+        }
+        return new ContentBlocker(blocking.build(), exceptions.build(), skipped);
+    }
+
+    public void setListener(BlockListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Indica se a requisição deve ser bloqueada
+     *
+     * @param pageUrl página que fez a requisição (Referer), ou null quando
+     *                desconhecida
+     * @param accept  cabeçalho Accept da requisição, usado para deduzir o tipo
+     *                de recurso
+     */
+    public boolean shouldBlock(String url, String pageUrl, String accept) {
+        long start = System.nanoTime();
+        try {
+            Request request = new Request(url, pageUrl, accept);
+            if (request.host == null || (request.types == TYPE_SUBDOCUMENT && pageUrl == null)) {
+                return false; // Páginas abertas pelo usuário nunca são bloqueadas
+            }
+            return blocking.matches(request) && !exceptions.matches(request);
+        } finally {
+            checked.incrementAndGet();
+            checkNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Contabiliza uma requisição bloqueada e avisa o listener
+     */
+    public void recordBlocked(String url, String pageUrl, long estimatedBytes) {
+        blocked.incrementAndGet();
+        blockedBytes.addAndGet(estimatedBytes);
+        BlockListener current = listener;
+        if (current != null) {
+            current.blocked(pageUrl, url, estimatedBytes);
+        }
+    }
+
+    public int getRuleCount() {
+        return blocking.size + exceptions.size;
+    }
+
+    public int getSkippedRules() {
+        return skippedRules;
+    }
+
+    public long getChecked() {
+        return checked.get();
+    }
+
+    public long getBlocked() {
+        return blocked.get();
+    }
+
+    public long getBlockedBytes() {
+        return blockedBytes.get();
+    }
+
+    /**
+     * Tempo médio de uma consulta, em microssegundos
+     */
+    public double getAverageCheckMicros() {
+        long count = checked.get();
+        return count > 0 ? checkNanos.get() / 1000.0 / count : 0;
+    }
+
+    /**
+     * Resumo das regras e das estatísticas de bloqueio
+     */
+    public String getSummary() {
+        return String.format("%d regras (%d ignoradas); %d de %d requisições bloqueadas, ~%.1f MB economizados; "
+                + "%.1f µs por consulta", getRuleCount(), skippedRules, blocked.get(), checked.get(),
+                blockedBytes.get() / 1048576.0, getAverageCheckMicros());
+    }
+
+    /**
+     * Requisição já decomposta para a verificação das regras
+     */
+    private static final class Request {
+        final String url; // Em minúsculas: as regras não diferenciam maiúsculas
+        final String host;
+        final int hostStart;
+        final int types;
+        final Boolean thirdParty; // null quando a página é desconhecida
+
+        Request(String url, String pageUrl, String accept) {
+            this.url = url.toLowerCase(Locale.ROOT);
+            int schemeEnd = this.url.indexOf("://");
+            hostStart = schemeEnd < 0 ? -1 : schemeEnd + 3;
+            host = hostStart < 0 ? null : this.url.substring(hostStart, hostEnd(this.url, hostStart));
+            types = guessTypes(this.url, accept);
+            String pageHost = pageUrl != null ? hostOf(pageUrl.toLowerCase(Locale.ROOT)) : null;
+            thirdParty = pageHost == null || host == null ? null
+                    : !registrableDomain(host).equals(registrableDomain(pageHost));
+        }
+    }
+
+    /**
+     * Regras de um tipo (bloqueio ou exceção) já compiladas
+     */
+    private static final class RuleSet {
+        final Map<String, List<Rule>> byDomain;
+        final AhoCorasick automaton;
+        final List<List<Rule>> byKey; // Regras de cada palavra do autômato
+        final List<Rule> unindexed; // Sem trecho literal longo o bastante
+        final int size;
+
+        RuleSet(Map<String, List<Rule>> byDomain, List<String> keys, List<List<Rule>> byKey, List<Rule> unindexed,
+                int size) {
+            this.byDomain = byDomain;
+            this.automaton = new AhoCorasick(keys);
+            this.byKey = byKey;
+            this.unindexed = unindexed;
+            this.size = size;
+        }
+
+        boolean matches(Request request) {
+            // Domínio: o próprio host e cada sufixo a partir de um ponto
+            String host = request.host;
+            for (int i = 0; i >= 0; i = nextLabel(host, i)) {
+                List<Rule> rules = byDomain.get(i == 0 ? host : host.substring(i));
+                if (rules != null) {
+                    for (Rule rule : rules) {
+                        if (rule.appliesTo(request)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            for (Rule rule : unindexed) {
+                if (rule.matches(request, -1)) {
+                    return true;
+                }
+            }
+            boolean[] found = new boolean[1];
+            automaton.search(request.url, (word, start) -> {
+                for (Rule rule : byKey.get(word)) {
+                    if (rule.matches(request, start)) {
+                        found[0] = true;
+                        return false;
+                    }
+                }
+                return true;
+            });
+            return found[0];
+        }
+
+        static final class Builder {
+            private final Map<String, List<Rule>> byDomain = new HashMap<>();
+            private final Map<String, Integer> keyIndex = new HashMap<>();
+            private final List<String> keys = new ArrayList<>();
+            private final List<List<Rule>> byKey = new ArrayList<>();
+            private final List<Rule> unindexed = new ArrayList<>();
+            private int size;
+
+            void add(Rule rule) {
+                size++;
+                if (rule.domain != null) {
+                    byDomain.computeIfAbsent(rule.domain, d -> new ArrayList<>(1)).add(rule);
+                } else if (rule.key == null) {
+                    unindexed.add(rule);
+                } else {
+                    Integer index = keyIndex.get(rule.key);
+                    if (index == null) {
+                        index = keys.size();
+                        keyIndex.put(rule.key, index);
+                        keys.add(rule.key);
+                        byKey.add(new ArrayList<>(1));
+                    }
+                    byKey.get(index).add(rule);
+                }
+            }
+
+            RuleSet build() {
+                return new RuleSet(byDomain, keys, byKey, unindexed, size);
+            }
+        }
+    }
+
+    /**
+     * Uma regra de bloqueio ou exceção
+     */
+    private static final class Rule {
+        final String domain; // Regras ||host^: o host, e o padrão não é usado
+        final String pattern; // Com * e ^ do formato do EasyList
+        final boolean hostAnchor; // ||
+        final boolean startAnchor; // |
+        final boolean endAnchor; // | no fim
+        final String key; // Maior trecho literal, procurado no autômato
+        final int keyOffset; // Posição do trecho no padrão, ou -1 se houver * antes dele
+        final int types;
+        final Boolean thirdParty;
+
+        private Rule(String domain, String pattern, boolean hostAnchor, boolean startAnchor, boolean endAnchor,
+                int types, Boolean thirdParty) {
+            this.domain = domain;
+            this.pattern = pattern;
+            this.hostAnchor = hostAnchor;
+            this.startAnchor = startAnchor;
+            this.endAnchor = endAnchor;
+            this.types = types;
+            this.thirdParty = thirdParty;
+            String longest = null;
+            int longestAt = -1;
+            if (domain == null) {
+                int segmentStart = 0;
+                for (int i = 0; i <= pattern.length(); i++) {
+                    if (i == pattern.length() || pattern.charAt(i) == '*' || pattern.charAt(i) == '^') {
+                        if (longest == null || i - segmentStart > longest.length()) {
+                            longest = pattern.substring(segmentStart, i);
+                            longestAt = segmentStart;
+                        }
+                        segmentStart = i + 1;
+                    }
+                }
+            }
+            if (longest != null && longest.length() >= MIN_KEY_LENGTH) {
+                this.key = longest;
+                this.keyOffset = pattern.lastIndexOf('*', longestAt) < 0 ? longestAt : -1;
+            } else {
+                this.key = null;
+                this.keyOffset = -1;
+            }
+        }
+
+        /**
+         * @return null se a regra usa recursos não suportados
+         */
+        static Rule parse(String line) {
+            if (line.contains("##") || line.contains("#@#") || line.contains("#?#")) {
+                return null; // Ocultação de elementos
+            }
+            if (line.length() > 1 && line.startsWith("/") && line.endsWith("/")) {
+                return null; // Expressão regular
+            }
+            String pattern = line;
+            int types = ALL_TYPES;
+            Boolean thirdParty = null;
+            int optionsAt = line.lastIndexOf('$');
+            if (optionsAt >= 0) {
+                pattern = line.substring(0, optionsAt);
+                int included = 0;
+                int excluded = 0;
+                for (String option : line.substring(optionsAt + 1).toLowerCase(Locale.ROOT).split(",")) {
+                    boolean negated = option.startsWith("~");
+                    String name = negated ? option.substring(1) : option;
+                    Integer type = TYPE_OPTIONS.get(name);
+                    if (name.equals("third-party") || name.equals("3p")) {
+                        thirdParty = !negated;
+                    } else if (name.equals("first-party") || name.equals("1p")) {
+                        thirdParty = negated;
+                    } else if (name.equals("match-case")) {
+                        continue; // Comparação sempre sem diferenciar maiúsculas
+                    } else if (type != null) {
+                        if (negated) {
+                            excluded |= type;
+                        } else {
+                            included |= type;
+                        }
+                    } else {
+                        return null;
+                    }
+                }
+                types = (included != 0 ? included : ALL_TYPES) & ~excluded;
+            }
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            boolean hostAnchor = pattern.startsWith("||");
+            boolean startAnchor = !hostAnchor && pattern.startsWith("|");
+            if (hostAnchor || startAnchor) {
+                pattern = pattern.substring(hostAnchor ? 2 : 1);
+            }
+            boolean endAnchor = pattern.endsWith("|");
+            if (endAnchor) {
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            while (pattern.startsWith("*") && !hostAnchor && !startAnchor) {
+                pattern = pattern.substring(1);
+            }
+            if (pattern.isEmpty()) {
+                return null; // Bloquearia tudo
+            }
+            if (hostAnchor && pattern.endsWith("^") && isHostName(pattern, pattern.length() - 1)) {
+                return new Rule(pattern.substring(0, pattern.length() - 1), null, true, false, false, types,
+                        thirdParty);
+            }
+            return new Rule(null, pattern, hostAnchor, startAnchor, endAnchor, types, thirdParty);
+        }
+
+        /**
+         * Opções que não dependem da URL
+         */
+        boolean appliesTo(Request request) {
+            if ((types & request.types) == 0) {
+                return false;
+            }
+            return thirdParty == null || thirdParty.equals(request.thirdParty);
+        }
+
+        /**
+         * @param keyStart posição da URL onde o trecho literal foi encontrado,
+         *                 ou -1 para procurar em qualquer posição
+         */
+        boolean matches(Request request, int keyStart) {
+            if (!appliesTo(request)) {
+                return false;
+            }
+            String url = request.url;
+            if (keyStart >= 0 && keyOffset >= 0) {
+                int start = keyStart - keyOffset;
+                return start >= 0 && allowedStart(request, start) && matchAt(url, start);
+            }
+            if (startAnchor) {
+                return matchAt(url, 0);
+            }
+            if (hostAnchor) {
+                String host = request.host;
+                for (int i = 0; i >= 0; i = nextLabel(host, i)) {
+                    if (matchAt(url, request.hostStart + i)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            for (int start = 0; start < url.length(); start++) {
+                if (matchAt(url, start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean allowedStart(Request request, int start) {
+            if (startAnchor) {
+                return start == 0;
+            }
+            if (hostAnchor) {
+                int offset = start - request.hostStart;
+                return offset >= 0 && offset < request.host.length()
+                        && (offset == 0 || request.host.charAt(offset - 1) == '.');
+            }
+            return true;
+        }
+
+        /**
+         * Compara o padrão a partir de uma posição da URL: * aceita qualquer
+         * sequência e ^ um separador ou o fim da URL
+         */
+        private boolean matchAt(String url, int urlIndex) {
+            int p = 0;
+            int u = urlIndex;
+            int star = -1;
+            int mark = 0;
+            while (true) {
+                if (p == pattern.length()) {
+                    if (!endAnchor || u == url.length()) {
+                        return true;
+                    }
+                } else if (pattern.charAt(p) == '*') {
+                    star = p++;
+                    mark = u;
+                    continue;
+                } else if (u < url.length() && (pattern.charAt(p) == url.charAt(u)
+                        || (pattern.charAt(p) == '^' && isSeparator(url.charAt(u))))) {
+                    p++;
+                    u++;
+                    continue;
+                } else if (u == url.length() && pattern.charAt(p) == '^') {
+                    p++;
+                    continue;
+                }
+                if (star < 0 || mark >= url.length()) {
+                    return false;
+                }
+                p = star + 1;
+                u = ++mark;
+            }
+        }
+
+        private static boolean isHostName(String text, int end) {
+            for (int i = 0; i < end; i++) {
+                char c = text.charAt(i);
+                if (!(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_')) {
+                    return false;
+                }
+            }
+            return end > 0;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return !(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == '%');
+    }
+
+    /**
+     * Início do próximo rótulo do host depois da posição dada, ou -1
+     */
+    private static int nextLabel(String host, int from) {
+        int dot = host.indexOf('.', from);
+        return dot < 0 ? -1 : dot + 1;
+    }
+
+    private static int hostEnd(String url, int hostStart) {
+        int end = hostStart;
+        while (end < url.length() && "/?#:".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return end;
+    }
+
+    private static String hostOf(String url) {
+        int schemeEnd = url.indexOf("://");
+        return schemeEnd < 0 ? null : url.substring(schemeEnd + 3, hostEnd(url, schemeEnd + 3));
+    }
+
+    /**
+     * Aproximação do domínio registrável (example.com, example.co.uk), sem a
+     * lista de sufixos públicos
+     */
+    private static String registrableDomain(String host) {
+        int last = host.lastIndexOf('.');
+        if (last <= 0) {
+            return host;
+        }
+        int second = host.lastIndexOf('.', last - 1);
+        // Sufixos de dois níveis como co.uk e com.br
+        if (second > 0 && host.length() - last - 1 == 2
+                && SECOND_LEVEL_LABELS.contains(host.substring(second + 1, last))) {
+            second = host.lastIndexOf('.', second - 1);
+        }
+        return second < 0 ? host : host.substring(second + 1);
+    }
+
+    /**
+     * Tipos possíveis do recurso pelo Accept e pela extensão; o WebKit manda
+     * {@code *}{@code /*} para scripts e XHR, que então ficam indistintos
+     */
+    private static int guessTypes(String url, String accept) {
+        String a = accept != null ? accept.toLowerCase(Locale.ROOT) : "";
+        if (a.startsWith("text/html") || a.startsWith("application/xhtml")) {
+            return TYPE_SUBDOCUMENT;
+        }
+        if (a.startsWith("text/css")) {
+            return TYPE_STYLESHEET;
+        }
+        if (a.startsWith("image/")) {
+            return TYPE_IMAGE;
+        }
+        if (a.startsWith("video/") || a.startsWith("audio/")) {
+            return TYPE_MEDIA;
+        }
+        int end = url.length();
+        for (char c : new char[] { '?', '#' }) {
+            int i = url.indexOf(c);
+            if (i >= 0 && i < end) {
+                end = i;
+            }
+        }
+        String path = url.substring(0, end);
+        if (path.endsWith(".js") || path.endsWith(".mjs")) {
+            return TYPE_SCRIPT;
+        }
+        if (path.endsWith(".woff") || path.endsWith(".woff2") || path.endsWith(".ttf") || path.endsWith(".otf")) {
+            return TYPE_FONT;
+        }
+        return TYPE_SCRIPT | TYPE_XHR | TYPE_OTHER;
+    }
+}
@@ -0,0 +1,259 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import javafx.scene.web.WebEngine;
+import javafx.scene.web.WebHistory;
+
+/**
+ * Agrupa os eventos dos WebEngines antes de levá-los à thread do Swing.
+ *
+ * Os listeners do JavaFX apenas anotam o estado mais recente de cada engine
+ * (localização, título, progresso, status e estado de voltar/avançar, este
+ * lido ali mesmo na thread do JavaFX). No máximo uma vez por quadro, todas as
+ * mudanças pendentes seguem em uma única tarefa para o Swing, uma
+ * {@link EngineUpdate} por engine. Páginas pesadas que disparam milhares de
+ * eventos de progresso geram assim no máximo ~60 tarefas por segundo.
+ *
+ * Além das mudanças, cada engine tem um {@link TabState} com o estado
+ * completo mais recente num {@link TabStateStore}, trocado a cada evento; a
+ * thread do Swing pode lê-lo a qualquer momento com
+ * {@link #getState(WebEngine)}, sem esperar a entrega.
+ *
+ * Os métodos de registro de eventos devem ser chamados pela thread do JavaFX.
+ */
+public class EngineEventDispatcher {
+    private static final long FRAME_MS = 16;
+
+    private final Consumer<List<EngineUpdate>> applier;
+    private final ScheduledExecutorService scheduler;
+    private final Map<WebEngine, Pending> pending = new LinkedHashMap<>();
+    private final TabStateStore<WebEngine> states = new TabStateStore<>();
+    private boolean flushScheduled;
+    private long lastFlushNanos;
+
+    // Contadores
+    private long eventsReceived;
+    private long updatesDelivered;
+    private long flushes;
+
+    /**
+     * @param applier aplica as atualizações agrupadas na thread do Swing
+     */
+    public EngineEventDispatcher(Consumer<List<EngineUpdate>> applier) {
+        this.applier = applier;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "EngineEventDispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void locationChanged(WebEngine engine, String location) {
+        Pending state = pendingFor(engine);
+        state.locations.add(location);
+        states.update(engine, current -> current.withLocation(location));
+        captureNavigation(engine, state);
+    }
+
+    /**
+     * @param location página à qual o título pertence
+     */
+    public synchronized void titleChanged(WebEngine engine, String location, String title) {
+        Pending state = pendingFor(engine);
+        state.title = title;
+        state.titleLocation = location;
+        state.titleChanged = true;
+        states.update(engine, current -> current.withTitle(title));
+    }
+
+    public synchronized void progressChanged(WebEngine engine, double progress) {
+        pendingFor(engine).progress = progress;
+        states.update(engine, current -> current.withProgress(progress));
+    }
+
+    /**
+     * Só atualiza o {@link TabState}; o zoom não gera entrega ao Swing
+     */
+    public synchronized void zoomChanged(WebEngine engine, double zoom) {
+        states.update(engine, current -> current.withZoom(zoom));
+    }
+
+    public synchronized void statusChanged(WebEngine engine, String status) {
+        pendingFor(engine).status = status;
+    }
+
+    public synchronized void historyChanged(WebEngine engine) {
+        captureNavigation(engine, pendingFor(engine));
+    }
+
+    /**
+     * Estado mais recente publicado pelo engine, ou null se ele ainda não
+     * gerou nenhum evento. Pode ser chamado de qualquer thread.
+     */
+    public TabState getState(WebEngine engine) {
+        return states.get(engine);
+    }
+
+    public synchronized long getEventsReceived() {
+        return eventsReceived;
+    }
+
+    /**
+     * Eventos absorvidos por outro evento do mesmo engine no mesmo quadro
+     */
+    public synchronized long getMergedEvents() {
+        return eventsReceived - updatesDelivered;
+    }
+
+    public synchronized long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * Resumo dos contadores de agrupamento
+     */
+    public synchronized String getSummary() {
+        return String.format("%d eventos de página, %d agrupados, %d entregas ao Swing", eventsReceived,
+                getMergedEvents(), flushes);
+    }
+
+    private void captureNavigation(WebEngine engine, Pending state) {
+        WebHistory history = engine.getHistory();
+        int index = history.getCurrentIndex();
+        state.canGoBack = index > 0;
+        state.canGoForward = index < history.getEntries().size() - 1;
+        boolean canGoBack = state.canGoBack;
+        boolean canGoForward = state.canGoForward;
+        states.update(engine, current -> current.withNavigation(canGoBack, canGoForward));
+    }
+
+    private Pending pendingFor(WebEngine engine) {
+        eventsReceived++;
+        Pending state = pending.get(engine);
+        if (state == null) {
+            state = new Pending();
+            pending.put(engine, state);
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            long sinceLast = (System.nanoTime() - lastFlushNanos) / 1_000_000;
+            long delay = Math.max(0, FRAME_MS - sinceLast);
+            scheduler.schedule(() -> SwingUtilities.invokeLater(this::flush), delay, TimeUnit.MILLISECONDS);
+        }
+        return state;
+    }
+
+    private void flush() {
+        List<EngineUpdate> updates = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<WebEngine, Pending> entry : pending.entrySet()) {
+                updates.add(entry.getValue().toUpdate(entry.getKey()));
+            }
+            pending.clear();
+            flushScheduled = false;
+            lastFlushNanos = System.nanoTime();
+            flushes++;
+            updatesDelivered += updates.size();
+        }
+        applier.accept(updates);
+    }
+
+    /**
+     * Estado acumulado de um engine desde a última entrega. Escrito pela
+     * thread do JavaFX e lido pela do Swing, sempre sob o lock do dispatcher.
+     */
+    private static final class Pending {
+        final List<String> locations = new ArrayList<>();
+        String title;
+        String titleLocation;
+        boolean titleChanged;
+        Double progress;
+        String status;
+        Boolean canGoBack;
+        Boolean canGoForward;
+
+        EngineUpdate toUpdate(WebEngine engine) {
+            return new EngineUpdate(engine, new ArrayList<>(locations), titleChanged, title, titleLocation,
+                    progress, status, canGoBack, canGoForward);
+        }
+    }
+
+    /**
+     * Mudanças de um engine desde a última entrega; campos nulos não mudaram
+     */
+    public static class EngineUpdate {
+        private final WebEngine engine;
+        private final List<String> locations;
+        private final boolean titleChanged;
+        private final String title;
+        private final String titleLocation;
+        private final Double progress;
+        private final String status;
+        private final Boolean canGoBack;
+        private final Boolean canGoForward;
+
+        EngineUpdate(WebEngine engine, List<String> locations, boolean titleChanged, String title,
+                String titleLocation, Double progress, String status, Boolean canGoBack, Boolean canGoForward) {
+            this.engine = engine;
+            this.locations = Collections.unmodifiableList(locations);
+            this.titleChanged = titleChanged;
+            this.title = title;
+            this.titleLocation = titleLocation;
+            this.progress = progress;
+            this.status = status;
+            this.canGoBack = canGoBack;
+            this.canGoForward = canGoForward;
+        }
+
+        public WebEngine getEngine() {
+            return engine;
+        }
+
+        /**
+         * Todas as localizações visitadas, em ordem (cada uma é uma visita no
+         * histórico)
+         */
+        public List<String> getLocations() {
+            return locations;
+        }
+
+        public boolean isTitleChanged() {
+            return titleChanged;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getTitleLocation() {
+            return titleLocation;
+        }
+
+        public Double getProgress() {
+            return progress;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public Boolean getCanGoBack() {
+            return canGoBack;
+        }
+
+        public Boolean getCanGoForward() {
+            return canGoForward;
+        }
+    }
+}
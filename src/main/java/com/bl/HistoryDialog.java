@@ -0,0 +1,422 @@
+package com.bl;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Diálogo do histórico de navegação.
+ *
+ * A lista não copia o histórico: o modelo busca no {@link HistoryStore}
+ * páginas de linhas conforme elas aparecem na tela, e a lista tem altura e
+ * largura de célula fixas para não medir cada linha. Abrir o diálogo custa o
+ * mesmo com cem ou um milhão de entradas. As linhas são agrupadas por dia.
+ *
+ * A busca roda no {@link SuggestionIndex}, em uma thread de fundo, enquanto o
+ * usuário digita; resultados de consultas já superadas são descartados.
+ */
+public class HistoryDialog extends JDialog {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 32;
+    private static final int SEARCH_LIMIT = 2000;
+    private static final int DEBOUNCE_MS = 150;
+    private static final int REFRESH_INTERVAL_MS = 1000;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final HistoryStore store;
+    private final SuggestionIndex index;
+    private final Consumer<String> opener;
+    private final HistoryListModel listModel;
+    private final JList<HistoryEntry> historyList;
+    private final JTextField searchField = new JTextField();
+    private final JLabel countLabel = new JLabel();
+    private final Timer debounceTimer;
+    private final Timer refreshTimer;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param opener  abre uma URL no navegador
+     * @param onClear apaga o histórico (no banco e no índice de sugestões)
+     * @param fonts   ajusta as fontes à escala da tela
+     */
+    public HistoryDialog(JFrame owner, HistoryStore store, SuggestionIndex index, Consumer<String> opener,
+            Runnable onClear, float scalingFactor, UnaryOperator<Font> fonts) {
+        super(owner, "Histórico de Navegação", false);
+        this.store = store;
+        this.index = index;
+        this.opener = opener;
+        this.listModel = new HistoryListModel(store);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "HistorySearch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        setSize((int) (700 * scalingFactor), (int) (500 * scalingFactor));
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        historyList = new JList<>(listModel);
+        historyList.setFont(fonts.apply(historyList.getFont()));
+        historyList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Altura e largura fixas: a lista não mede as linhas e só desenha as visíveis
+        historyList.setFixedCellHeight(historyList.getFontMetrics(historyList.getFont()).getHeight() + 6);
+        historyList.setFixedCellWidth(100);
+        historyList.setCellRenderer(new DayGroupRenderer(fonts));
+        historyList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    openSelected();
+                }
+            }
+        });
+        historyList.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    openSelected();
+                }
+            }
+        });
+
+        searchField.setFont(fonts.apply(searchField.getFont()));
+        searchField.setToolTipText("Busca no título e no endereço");
+        debounceTimer = new Timer(DEBOUNCE_MS, e -> submitSearch());
+        debounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+        });
+
+        // Visitas feitas com o diálogo aberto aparecem sem reabrir
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> {
+            if (!listModel.isSearching() && listModel.isStale()) {
+                listModel.browse();
+                updateCount();
+            }
+        });
+
+        countLabel.setFont(fonts.apply(countLabel.getFont()));
+
+        JButton clearButton = new JButton("Limpar Histórico");
+        clearButton.setFont(fonts.apply(clearButton.getFont()));
+        clearButton.addActionListener(e -> {
+            onClear.run();
+            searchField.setText("");
+            listModel.browse();
+            updateCount();
+        });
+
+        JPanel searchPanel = new JPanel(new BorderLayout());
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        searchPanel.add(searchField, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(clearButton);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 0));
+        bottomPanel.add(countLabel, BorderLayout.WEST);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
+
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.add(searchPanel, BorderLayout.NORTH);
+        contentPanel.add(new JScrollPane(historyList), BorderLayout.CENTER);
+        contentPanel.add(bottomPanel, BorderLayout.SOUTH);
+        add(contentPanel);
+
+        listModel.browse();
+        updateCount();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void dispose() {
+        debounceTimer.stop();
+        refreshTimer.stop();
+        generation.incrementAndGet();
+        executor.shutdownNow();
+        super.dispose();
+    }
+
+    private void openSelected() {
+        HistoryEntry entry = historyList.getSelectedValue();
+        if (entry != null) {
+            opener.accept(entry.getUrl());
+            dispose();
+        }
+    }
+
+    private void submitSearch() {
+        String query = searchField.getText().trim();
+        long search = generation.incrementAndGet();
+        if (query.isEmpty()) {
+            listModel.browse();
+            updateCount();
+            return;
+        }
+        countLabel.setText("Buscando...");
+        executor.submit(() -> {
+            if (search != generation.get()) {
+                return; // Já existe uma digitação mais nova
+            }
+            List<String> urls = index.search(query, SEARCH_LIMIT);
+            SwingUtilities.invokeLater(() -> {
+                if (search != generation.get()) {
+                    return;
+                }
+                // O índice também tem favoritos que nunca foram visitados
+                List<HistoryEntry> results = new ArrayList<>(urls.size());
+                for (String url : urls) {
+                    HistoryEntry entry = store.get(url);
+                    if (entry != null) {
+                        results.add(entry);
+                    }
+                }
+                results.sort(Comparator.comparingLong(HistoryEntry::getLastVisit).reversed());
+                listModel.showResults(results);
+                historyList.ensureIndexIsVisible(0);
+                updateCount();
+            });
+        });
+    }
+
+    private void updateCount() {
+        int size = listModel.getSize();
+        if (listModel.isSearching()) {
+            countLabel.setText(size >= SEARCH_LIMIT ? "Mais de " + SEARCH_LIMIT + " resultados"
+                    : size == 1 ? "1 resultado" : size + " resultados");
+        } else {
+            countLabel.setText(size == 1 ? "1 página" : size + " páginas");
+        }
+    }
+
+    private static String formatEntry(HistoryEntry entry) {
+        String visits = entry.getVisitCount() == 1 ? "1 visita" : entry.getVisitCount() + " visitas";
+        if (entry.getTitle() == null || entry.getTitle().isEmpty()) {
+            return UrlUtils.shortenUrl(entry.getUrl(), 80) + "  (" + visits + ")";
+        }
+        return UrlUtils.truncateTitle(entry.getTitle(), 40) + " - " + UrlUtils.shortenUrl(entry.getUrl(), 60)
+                + "  (" + visits + ")";
+    }
+
+    private static String formatDay(long time, LocalDate today) {
+        if (time <= 0) {
+            return "Sem data"; // Visitas migradas do formato antigo
+        }
+        LocalDate day = dayOf(time);
+        if (day.equals(today)) {
+            return "Hoje";
+        }
+        if (day.equals(today.minusDays(1))) {
+            return "Ontem";
+        }
+        return DAY_FORMAT.format(day);
+    }
+
+    private static LocalDate dayOf(long time) {
+        return time <= 0 ? LocalDate.MIN : Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /**
+     * Mostra o dia apenas na primeira linha de cada dia
+     */
+    private class DayGroupRenderer extends JPanel implements ListCellRenderer<HistoryEntry> {
+        private final JLabel dayLabel = new JLabel();
+        private final JLabel entryLabel = new JLabel();
+
+        DayGroupRenderer(UnaryOperator<Font> fonts) {
+            super(new BorderLayout());
+            setBorder(BorderFactory.createEmptyBorder(0, 4, 0, 4));
+            dayLabel.setFont(fonts.apply(dayLabel.getFont()).deriveFont(Font.BOLD));
+            entryLabel.setFont(fonts.apply(entryLabel.getFont()));
+            int dayWidth = dayLabel.getFontMetrics(dayLabel.getFont()).stringWidth("00/00/0000") + 16;
+            dayLabel.setPreferredSize(new Dimension(dayWidth, 1));
+            add(dayLabel, BorderLayout.WEST);
+            add(entryLabel, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends HistoryEntry> list, HistoryEntry entry,
+                int index, boolean isSelected, boolean cellHasFocus) {
+            setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+            dayLabel.setForeground(isSelected ? list.getSelectionForeground() : list.getForeground());
+            entryLabel.setForeground(dayLabel.getForeground());
+            if (entry == null) {
+                dayLabel.setText("");
+                entryLabel.setText("...");
+                return this;
+            }
+            HistoryEntry previous = index > 0 ? listModel.getElementAt(index - 1) : null;
+            boolean firstOfDay = previous == null
+                    || !dayOf(previous.getLastVisit()).equals(dayOf(entry.getLastVisit()));
+            dayLabel.setText(firstOfDay ? formatDay(entry.getLastVisit(), LocalDate.now()) : "");
+            entryLabel.setText(formatEntry(entry));
+            setToolTipText(entry.getUrl());
+            return this;
+        }
+    }
+
+    /**
+     * Modelo da lista: ou o histórico inteiro, buscado em páginas sob demanda,
+     * ou os resultados de uma busca
+     */
+    private static class HistoryListModel extends AbstractListModel<HistoryEntry> {
+        private final HistoryStore store;
+        /** Páginas buscadas recentemente, em ordem de acesso */
+        private final Map<Integer, List<HistoryEntry>> pages = new LinkedHashMap<Integer, List<HistoryEntry>>(
+                16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<HistoryEntry>> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+        /** Última entrada de cada página já vista, de onde a próxima continua */
+        private final TreeMap<Integer, HistoryEntry> pageEnds = new TreeMap<>();
+        private List<HistoryEntry> results;
+        private int size;
+        private long modCount;
+
+        HistoryListModel(HistoryStore store) {
+            this.store = store;
+        }
+
+        /**
+         * Volta a mostrar o histórico inteiro, mais recentes primeiro
+         */
+        void browse() {
+            int oldSize = size;
+            results = null;
+            pages.clear();
+            pageEnds.clear();
+            modCount = store.getModCount();
+            size = store.size();
+            fireChanged(oldSize);
+        }
+
+        void showResults(List<HistoryEntry> found) {
+            int oldSize = size;
+            results = found;
+            size = found.size();
+            fireChanged(oldSize);
+        }
+
+        boolean isSearching() {
+            return results != null;
+        }
+
+        /**
+         * Se o histórico mudou desde que as páginas foram buscadas
+         */
+        boolean isStale() {
+            return modCount != store.getModCount();
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public HistoryEntry getElementAt(int index) {
+            if (results != null) {
+                return index < results.size() ? results.get(index) : null;
+            }
+            if (isStale()) {
+                // As páginas guardadas já não batem com o histórico; a lista
+                // é recarregada pelo diálogo em seguida
+                pages.clear();
+                pageEnds.clear();
+                modCount = store.getModCount();
+            }
+            int page = index / PAGE_SIZE;
+            List<HistoryEntry> rows = pages.get(page);
+            if (rows == null) {
+                rows = fetchPage(page);
+                pages.put(page, rows);
+            }
+            int row = index % PAGE_SIZE;
+            return row < rows.size() ? rows.get(row) : null;
+        }
+
+        /**
+         * Continua da página conhecida mais próxima, para que rolar a lista
+         * não percorra o histórico desde o início a cada página
+         */
+        private List<HistoryEntry> fetchPage(int page) {
+            Map.Entry<Integer, HistoryEntry> known = pageEnds.lowerEntry(page);
+            List<HistoryEntry> rows;
+            if (known == null) {
+                rows = store.findOlder(null, page * PAGE_SIZE, PAGE_SIZE);
+            } else {
+                rows = store.findOlder(known.getValue(), (page - known.getKey() - 1) * PAGE_SIZE, PAGE_SIZE);
+            }
+            if (!rows.isEmpty()) {
+                pageEnds.put(page, rows.get(rows.size() - 1));
+            }
+            return rows;
+        }
+
+        private void fireChanged(int oldSize) {
+            if (oldSize > size) {
+                fireIntervalRemoved(this, size, oldSize - 1);
+            } else if (size > oldSize) {
+                fireIntervalAdded(this, oldSize, size - 1);
+            }
+            if (Math.min(oldSize, size) > 0) {
+                fireContentsChanged(this, 0, Math.min(oldSize, size) - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bl;
+
+import java.util.Locale;
+
+/**
+ * Entrada imutável do histórico: uma URL com título, número de visitas e
+ * horários da primeira e da última visita.
+ */
+public class HistoryEntry {
+    private final String url;
+    private final String host;
+    private final String title;
+    private final int visitCount;
+    private final long firstVisit;
+    private final long lastVisit;
+
+    public HistoryEntry(String url, String host, String title, int visitCount, long firstVisit, long lastVisit) {
+        this.url = url;
+        this.host = host;
+        this.title = title;
+        this.visitCount = visitCount;
+        this.firstVisit = firstVisit;
+        this.lastVisit = lastVisit;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Host normalizado (minúsculo e sem "www."), usado nas buscas por prefixo
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getVisitCount() {
+        return visitCount;
+    }
+
+    public long getFirstVisit() {
+        return firstVisit;
+    }
+
+    public long getLastVisit() {
+        return lastVisit;
+    }
+
+    HistoryEntry withVisit(long time) {
+        return new HistoryEntry(url, host, title, visitCount + 1, Math.min(firstVisit, time),
+                Math.max(lastVisit, time));
+    }
+
+    HistoryEntry withTitle(String newTitle) {
+        return new HistoryEntry(url, host, newTitle, visitCount, firstVisit, lastVisit);
+    }
+
+    /**
+     * Extrai o host normalizado de uma URL (minúsculo, sem porta e sem "www.").
+     * Faz a análise manualmente porque é chamado para cada visita registrada.
+     */
+    public static String normalizeHost(String url) {
+        int start = url.indexOf("://");
+        start = start >= 0 ? start + 3 : 0;
+        int end = url.length();
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        int userInfo = url.lastIndexOf('@', end - 1);
+        if (userInfo >= start) {
+            start = userInfo + 1;
+        }
+        int port = url.indexOf(':', start);
+        if (port >= 0 && port < end) {
+            end = port;
+        }
+        String host = url.substring(start, end).toLowerCase(Locale.ROOT);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+}
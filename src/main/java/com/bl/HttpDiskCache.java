@@ -0,0 +1,646 @@
+package com.bl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.net.URLStreamHandlerFactory;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+
+/**
+ * Cache HTTP em disco compartilhado por todas as abas.
+ *
+ * Fica na frente do WebEngine como handler dos protocolos http e https (ver
+ * {@link #handlerFactory()}): respostas de GET armazenáveis são gravadas em
+ * disco enquanto a página as lê, respeitando Cache-Control, Expires, ETag e
+ * Last-Modified. Respostas ainda válidas são servidas do disco; as vencidas
+ * são revalidadas com If-None-Match/If-Modified-Since e, se o servidor
+ * responder 304, também vêm do disco. O tamanho total é limitado e as
+ * entradas menos usadas recentemente são descartadas primeiro.
+ *
+ * Os métodos podem ser chamados de qualquer thread.
+ */
+public class HttpDiskCache {
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+    private static final Set<Integer> STORABLE_STATUS = Set.of(200, 203, 301);
+    // Cabeçalhos que não fazem sentido repetir a partir do disco
+    private static final Set<String> UNSTORED_HEADERS = Set.of("set-cookie", "set-cookie2", "connection",
+            "keep-alive", "transfer-encoding", "upgrade", "proxy-authenticate");
+    private static final long MAX_HEURISTIC_FRESHNESS_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final HttpClient client;
+    private final Gson gson = new Gson();
+    private volatile ContentBlocker contentBlocker; // null: nada é bloqueado
+
+    // Ordem de acesso: a primeira entrada é a menos usada recentemente
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private long hits;
+    private long revalidated;
+    private long misses;
+    private long stored;
+    private long evicted;
+    private long bytesSaved;
+
+    /**
+     * @param directory diretório onde as respostas são gravadas
+     * @param maxBytes  tamanho máximo do cache; cada resposta pode ocupar até
+     *                  um oitavo disso
+     */
+    public HttpDiskCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 8;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER) // O WebEngine segue os redirecionamentos
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    /**
+     * Lê o índice do disco; as entradas mais antigas no disco são as primeiras
+     * a sair. Pode rodar em segundo plano, enquanto isso o cache só grava.
+     */
+    public void load() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("Erro ao criar diretório do cache: " + e.getMessage());
+            return;
+        }
+        List<Path> metaFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(META_SUFFIX)) {
+                    metaFiles.add(file);
+                } else if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file); // Sobra de uma gravação interrompida
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler cache: " + e.getMessage());
+            return;
+        }
+
+        Map<Path, Long> accessTimes = new HashMap<>();
+        for (Path metaFile : metaFiles) {
+            accessTimes.put(metaFile, lastModified(bodyFile(keyOf(metaFile))));
+        }
+        metaFiles.sort((a, b) -> Long.compare(accessTimes.get(a), accessTimes.get(b)));
+
+        for (Path metaFile : metaFiles) {
+            String key = keyOf(metaFile);
+            try (Reader reader = Files.newBufferedReader(metaFile, StandardCharsets.UTF_8)) {
+                Entry entry = gson.fromJson(reader, Entry.class);
+                if (entry == null || Files.size(bodyFile(key)) != entry.size) {
+                    deleteFiles(key);
+                    continue;
+                }
+                synchronized (this) {
+                    if (!entries.containsKey(key)) {
+                        entries.put(key, entry);
+                        totalBytes += entry.size;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                deleteFiles(key);
+            }
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Fábrica de handlers para instalar com
+     * {@link URL#setURLStreamHandlerFactory(URLStreamHandlerFactory)}
+     */
+    public URLStreamHandlerFactory handlerFactory() {
+        URLStreamHandler handler = new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) {
+                return HttpDiskCache.this.openConnection(url);
+            }
+
+            @Override
+            protected URLConnection openConnection(URL url, Proxy proxy) {
+                return HttpDiskCache.this.openConnection(url);
+            }
+        };
+        return protocol -> "http".equals(protocol) || "https".equals(protocol) ? handler : null;
+    }
+
+    /**
+     * Filtro consultado antes de cada requisição das páginas, ou null para
+     * não bloquear nada
+     */
+    public void setContentBlocker(ContentBlocker contentBlocker) {
+        this.contentBlocker = contentBlocker;
+    }
+
+    public ContentBlocker getContentBlocker() {
+        return contentBlocker;
+    }
+
+    /**
+     * Abre uma conexão que passa pelo cache, sem depender do handler global
+     */
+    public URLConnection openConnection(URL url) {
+        return new CachingHttpConnection(url, this, client);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getRevalidated() {
+        return revalidated;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Fração das requisições servidas do disco (direto ou após um 304)
+     */
+    public synchronized double getHitRatio() {
+        long total = hits + revalidated + misses;
+        return total > 0 ? (double) (hits + revalidated) / total : 0;
+    }
+
+    /**
+     * Resumo das estatísticas do cache
+     */
+    public synchronized String getSummary() {
+        return String.format("%d acertos, %d revalidados, %d da rede (%.0f%% do disco); %.1f MB economizados; "
+                + "%d respostas, %.1f de %d MB em uso; %d gravadas, %d descartadas",
+                hits, revalidated, misses, getHitRatio() * 100, bytesSaved / 1048576.0,
+                entries.size(), totalBytes / 1048576.0, maxBytes / 1048576, stored, evicted);
+    }
+
+    /**
+     * Remove todas as respostas do disco, mantendo as estatísticas
+     */
+    public void clear() {
+        List<String> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(entries.keySet());
+            entries.clear();
+            totalBytes = 0;
+        }
+        for (String key : keys) {
+            deleteFiles(key);
+        }
+    }
+
+    synchronized Entry lookup(String url) {
+        return entries.get(keyFor(url));
+    }
+
+    /**
+     * Tamanho médio das respostas guardadas; serve de estimativa para
+     * respostas que não chegaram a ser baixadas
+     */
+    synchronized long getAverageEntrySize() {
+        return entries.isEmpty() ? 0 : totalBytes / entries.size();
+    }
+
+    /**
+     * Abre o corpo de uma resposta do disco e contabiliza o acerto
+     */
+    InputStream openCached(Entry entry, boolean afterRevalidation) throws IOException {
+        String key = keyFor(entry.url);
+        Path body = bodyFile(key);
+        InputStream stream = Files.newInputStream(body);
+        try {
+            // A data do arquivo guarda a ordem de uso entre execuções
+            Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Só afeta a ordem de descarte após reiniciar
+        }
+        synchronized (this) {
+            if (afterRevalidation) {
+                revalidated++;
+            } else {
+                hits++;
+            }
+            bytesSaved += entry.size;
+        }
+        return stream;
+    }
+
+    synchronized void recordMiss() {
+        misses++;
+    }
+
+    /**
+     * Atualiza cabeçalhos e validade de uma entrada após um 304
+     */
+    Entry refresh(Entry entry, Map<String, List<String>> notModifiedHeaders, long requestTime) {
+        Map<String, List<String>> headers = new TreeMap<>(entry.headers);
+        for (Map.Entry<String, List<String>> header : storableHeaders(notModifiedHeaders).entrySet()) {
+            if (!header.getKey().equals("content-length") && !header.getKey().equals("content-encoding")) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        }
+        Entry refreshed = new Entry(entry.url, entry.status, entry.message, headers, requestTime, entry.size);
+        String key = keyFor(entry.url);
+        try {
+            writeMeta(key, refreshed);
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    entries.put(key, refreshed);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao atualizar cache: " + e.getMessage());
+        }
+        return refreshed;
+    }
+
+    /**
+     * Indica se uma resposta pode ser gravada no cache
+     */
+    boolean isStorable(String method, Map<String, List<String>> requestHeaders, int status,
+            Map<String, List<String>> responseHeaders) {
+        if (!"GET".equals(method) || !STORABLE_STATUS.contains(status) || maxEntryBytes <= 0) {
+            return false;
+        }
+        if (header(requestHeaders, "authorization") != null
+                || CacheControl.parse(header(requestHeaders, "cache-control")).noStore) {
+            return false;
+        }
+        CacheControl control = CacheControl.parse(header(responseHeaders, "cache-control"));
+        if (control.noStore) {
+            return false;
+        }
+        String vary = header(responseHeaders, "vary");
+        if (vary != null && !vary.trim().isEmpty() && !vary.trim().equalsIgnoreCase("accept-encoding")) {
+            return false; // Só uma variante por URL é guardada
+        }
+        long contentLength = parseLong(header(responseHeaders, "content-length"), -1);
+        if (contentLength > maxEntryBytes) {
+            return false;
+        }
+        // Sem validade nem validadores a resposta nunca poderia ser reaproveitada
+        return freshnessMillis(responseHeaders) > 0 || header(responseHeaders, "etag") != null
+                || header(responseHeaders, "last-modified") != null;
+    }
+
+    /**
+     * Devolve um stream que grava o corpo no disco à medida que é lido; a
+     * entrada só passa a valer se o corpo for lido até o fim
+     */
+    InputStream storeWhileReading(String url, int status, String message, Map<String, List<String>> headers,
+            long requestTime, InputStream body) {
+        Path temp;
+        OutputStream out;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "body", ".tmp");
+            out = Files.newOutputStream(temp);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar no cache: " + e.getMessage());
+            return body;
+        }
+        Map<String, List<String>> storedHeaders = storableHeaders(headers);
+        return new FilterInputStream(body) {
+            private long size;
+            private boolean complete;
+            private boolean abandoned;
+            private boolean closed;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    complete = true;
+                } else {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n < 0) {
+                    complete = true;
+                } else {
+                    write(buffer, offset, n);
+                }
+                return n;
+            }
+
+            private void write(byte[] buffer, int offset, int length) {
+                if (abandoned) {
+                    return;
+                }
+                size += length;
+                try {
+                    if (size > maxEntryBytes) {
+                        abandoned = true; // Grande demais: segue só para a página
+                    } else {
+                        out.write(buffer, offset, length);
+                    }
+                } catch (IOException e) {
+                    abandoned = true;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    finish();
+                }
+            }
+
+            private void finish() {
+                try {
+                    out.close();
+                    if (complete && !abandoned) {
+                        commit(new Entry(url, status, message, storedHeaders, requestTime, size), temp);
+                        return;
+                    }
+                } catch (IOException e) {
+                    System.err.println("Erro ao gravar no cache: " + e.getMessage());
+                }
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    System.err.println("Erro ao limpar cache: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Indica se a entrada ainda pode ser usada sem consultar o servidor
+     */
+    static boolean isFresh(Entry entry, long now) {
+        CacheControl control = CacheControl.parse(header(entry.headers, "cache-control"));
+        if (control.noCache) {
+            return false;
+        }
+        long age = Math.max(0, now - entry.responseTime)
+                + TimeUnit.SECONDS.toMillis(parseLong(header(entry.headers, "age"), 0));
+        return age < freshnessMillis(entry.headers);
+    }
+
+    /**
+     * Validade da resposta: max-age, senão Expires, senão a heurística de 10%
+     * do tempo desde a última modificação (limitada a um dia)
+     */
+    static long freshnessMillis(Map<String, List<String>> headers) {
+        CacheControl control = CacheControl.parse(header(headers, "cache-control"));
+        if (control.maxAgeSeconds >= 0) {
+            return TimeUnit.SECONDS.toMillis(control.maxAgeSeconds);
+        }
+        long date = parseDate(header(headers, "date"), System.currentTimeMillis());
+        String expires = header(headers, "expires");
+        if (expires != null) {
+            return Math.max(0, parseDate(expires, 0) - date);
+        }
+        long lastModified = parseDate(header(headers, "last-modified"), -1);
+        if (lastModified > 0 && lastModified < date) {
+            return Math.min(MAX_HEURISTIC_FRESHNESS_MS, (date - lastModified) / 10);
+        }
+        return 0;
+    }
+
+    /**
+     * Primeiro valor de um cabeçalho, sem diferenciar maiúsculas
+     */
+    static String header(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() != null && header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    private void commit(Entry entry, Path temp) throws IOException {
+        String key = keyFor(entry.url);
+        Files.move(temp, bodyFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeMeta(key, entry);
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += entry.size;
+            stored++;
+        }
+        evictIfNeeded();
+    }
+
+    private void writeMeta(String key, Entry entry) throws IOException {
+        Path temp = Files.createTempFile(directory, "meta", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            gson.toJson(entry, writer);
+        }
+        Files.move(temp, directory.resolve(key + META_SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void evictIfNeeded() {
+        List<String> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Entry> eldest = it.next();
+                totalBytes -= eldest.getValue().size;
+                removed.add(eldest.getKey());
+                it.remove();
+                evicted++;
+            }
+        }
+        for (String key : removed) {
+            deleteFiles(key);
+        }
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+            Files.deleteIfExists(bodyFile(key));
+        } catch (IOException e) {
+            System.err.println("Erro ao limpar cache: " + e.getMessage());
+        }
+    }
+
+    private Path bodyFile(String key) {
+        return directory.resolve(key + BODY_SUFFIX);
+    }
+
+    private static String keyOf(Path metaFile) {
+        String name = metaFile.getFileName().toString();
+        return name.substring(0, name.length() - META_SUFFIX.length());
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Map<String, List<String>> storableHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> result = new TreeMap<>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() == null) {
+                continue;
+            }
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (!UNSTORED_HEADERS.contains(name) && !name.startsWith(":")) {
+                result.put(name, new ArrayList<>(header.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Nome de arquivo derivado da URL (sem o fragmento)
+     */
+    private static String keyFor(String url) {
+        int fragment = url.indexOf('#');
+        String withoutFragment = fragment >= 0 ? url.substring(0, fragment) : url;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(withoutFragment.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long parseDate(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Resposta guardada em disco; o corpo fica em um arquivo separado
+     */
+    static final class Entry {
+        final String url;
+        final int status;
+        final String message;
+        final Map<String, List<String>> headers;
+        final long responseTime;
+        final long size;
+
+        Entry(String url, int status, String message, Map<String, List<String>> headers, long responseTime,
+                long size) {
+            this.url = url;
+            this.status = status;
+            this.message = message;
+            this.headers = headers;
+            this.responseTime = responseTime;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Diretivas de Cache-Control relevantes para um cache privado
+     */
+    static final class CacheControl {
+        boolean noStore;
+        boolean noCache;
+        long maxAgeSeconds = -1;
+
+        static CacheControl parse(String value) {
+            CacheControl control = new CacheControl();
+            if (value == null) {
+                return control;
+            }
+            for (String directive : value.split(",")) {
+                String d = directive.trim().toLowerCase(Locale.ROOT);
+                if (d.equals("no-store")) {
+                    control.noStore = true;
+                } else if (d.equals("no-cache") || d.startsWith("no-cache=")) {
+                    control.noCache = true;
+                } else if (d.startsWith("max-age=")) {
+                    control.maxAgeSeconds = parseLong(d.substring(8).replace("\"", ""), 0);
+                }
+            }
+            return control;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bl;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.Timer;
+
+/**
+ * Reage ao uso de memória medido pela {@link MemoryTelemetry}, para que
+ * sessões longas não terminem em OutOfMemoryError.
+ *
+ * Em uso alto, hiberna a aba de fundo usada há mais tempo e suspende o estoque
+ * de WebViews pré-construídos. Em uso crítico, hiberna metade das abas de
+ * fundo (as menos usadas primeiro), descarta o estoque e pede uma coleta de
+ * lixo logo depois que as páginas forem descarregadas. Entre uma rodada e
+ * outra há um intervalo para que as medições reflitam o efeito da anterior.
+ * As abas hibernadas voltam sozinhas quando selecionadas.
+ *
+ * Cada decisão é registrada no log e guardada para consulta. Deve ser usada
+ * pela thread do Swing.
+ */
+public class MemoryPressurePolicy {
+    private static final long COOLDOWN_MS = 5_000;
+    private static final int GC_DELAY_MS = 2_000;
+    private static final int MAX_DECISIONS = 200;
+
+    private final TabRegistry tabs;
+    private final Supplier<BrowserTab> activeTab;
+    private final Consumer<BrowserTab> hibernator;
+    private final WebViewPool webViewPool;
+    private final Timer gcTimer;
+    private final Deque<String> decisions = new ArrayDeque<>();
+    private MemoryTelemetry.Level lastLevel = MemoryTelemetry.Level.NORMAL;
+    private long lastActionTime;
+    private long evictions;
+
+    /**
+     * @param activeTab  aba visível, que nunca é hibernada
+     * @param hibernator hiberna uma aba (descarrega o WebView e guarda o estado)
+     */
+    public MemoryPressurePolicy(TabRegistry tabs, Supplier<BrowserTab> activeTab, Consumer<BrowserTab> hibernator,
+            WebViewPool webViewPool) {
+        this.tabs = tabs;
+        this.activeTab = activeTab;
+        this.hibernator = hibernator;
+        this.webViewPool = webViewPool;
+        this.gcTimer = new Timer(GC_DELAY_MS, e -> {
+            log("coleta de lixo solicitada após descarregar abas");
+            System.gc();
+        });
+        this.gcTimer.setRepeats(false);
+    }
+
+    /**
+     * Avalia uma nova medição e age se necessário
+     */
+    public void onSample(MemoryTelemetry.Sample sample) {
+        MemoryTelemetry.Level level = sample.getLevel();
+        if (level != lastLevel) {
+            log(String.format("nível %s -> %s (%d%% do heap)", lastLevel, level, sample.getPercent()));
+            if (level == MemoryTelemetry.Level.NORMAL && webViewPool != null) {
+                webViewPool.setSuspended(false);
+                log("estoque de WebViews retomado");
+            }
+            lastLevel = level;
+        }
+        if (level == MemoryTelemetry.Level.NORMAL) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastActionTime < COOLDOWN_MS) {
+            return; // Aguardando o efeito da rodada anterior
+        }
+        lastActionTime = now;
+
+        if (webViewPool != null && !webViewPool.isSuspended()) {
+            webViewPool.setSuspended(true);
+            int released = webViewPool.drain();
+            log(String.format("estoque de WebViews suspenso, %d descartado(s)", released));
+        }
+
+        List<BrowserTab> candidates = evictionCandidates();
+        if (candidates.isEmpty()) {
+            log(String.format("uso %s (%d%%), nenhuma aba de fundo para hibernar", level, sample.getPercent()));
+            return;
+        }
+        int count = level == MemoryTelemetry.Level.CRITICAL ? Math.max(1, candidates.size() / 2) : 1;
+        for (BrowserTab tab : candidates.subList(0, count)) {
+            long idleSeconds = (now - tab.getLastActive()) / 1000;
+            log(String.format("uso %s (%d%%): hibernando aba %d \"%s\", ociosa há %d s (%d de %d candidatas)",
+                    level, sample.getPercent(), tab.getId(), tab.getTitle(), idleSeconds, count,
+                    candidates.size()));
+            hibernator.accept(tab);
+            evictions++;
+        }
+        if (level == MemoryTelemetry.Level.CRITICAL) {
+            gcTimer.restart();
+        }
+    }
+
+    /**
+     * Decisões mais recentes primeiro
+     */
+    public List<String> getDecisions() {
+        List<String> result = new ArrayList<>(decisions);
+        Collections.reverse(result);
+        return result;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Abas de fundo com página carregada, das usadas há mais tempo às mais
+     * recentes
+     */
+    private List<BrowserTab> evictionCandidates() {
+        BrowserTab active = activeTab.get();
+        List<BrowserTab> candidates = new ArrayList<>();
+        for (BrowserTab tab : tabs.getTabs()) {
+            // Sem engine: já hibernada ou hibernando
+            if (tab != active && !tab.isHibernated() && !tab.isHibernating() && !tab.isRestoring()
+                    && tab.getEngine() != null) {
+                candidates.add(tab);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(BrowserTab::getLastActive));
+        return candidates;
+    }
+
+    private void log(String decision) {
+        String entry = new SimpleDateFormat("HH:mm:ss").format(new Date()) + " " + decision;
+        System.out.println("[memória] " + entry);
+        if (decisions.size() >= MAX_DECISIONS) {
+            decisions.removeFirst();
+        }
+        decisions.addLast(entry);
+    }
+}
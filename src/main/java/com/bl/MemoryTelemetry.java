@@ -0,0 +1,382 @@
+package com.bl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import javax.swing.SwingUtilities;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Telemetria de memória orientada a eventos.
+ *
+ * Em vez de consultar o heap periodicamente, escuta as notificações da JVM:
+ * fim de cada coleta de lixo e limites de uso dos pools do heap (alto em 70%,
+ * crítico em 85%). Cada mudança gera uma nova {@link Sample}, entregue ao
+ * ouvinte na thread do Swing; rajadas de notificações são agrupadas em uma
+ * única entrega.
+ *
+ * Também registra eventos por aba (abertura, página carregada com o número de
+ * nós do DOM, hibernação, fechamento) com o heap usado e a variação desde o
+ * evento anterior da mesma aba. O heap é compartilhado por todas as abas, então
+ * a variação é uma estimativa; somada por site ao longo de uma sessão longa,
+ * aponta os sites que mais retêm memória. Os eventos podem ser exportados em
+ * CSV.
+ */
+public class MemoryTelemetry {
+    public static final int HIGH_PERCENT = 70;
+    public static final int CRITICAL_PERCENT = 85;
+    private static final int MAX_EVENTS = 10_000;
+
+    /**
+     * Nível de uso do heap
+     */
+    public enum Level {
+        NORMAL, HIGH, CRITICAL
+    }
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener notificationListener = this::handleNotification;
+    private final Consumer<Sample> listener;
+    private final AtomicBoolean deliveryQueued = new AtomicBoolean();
+
+    private final Deque<Event> events = new ArrayDeque<>();
+    private final Map<Integer, Long> lastHeapByTab = new HashMap<>();
+    private long gcCount;
+    private long gcMillis;
+    private String lastGc = "";
+    private volatile Sample lastSample;
+
+    /**
+     * @param listener recebe cada nova medição na thread do Swing
+     */
+    public MemoryTelemetry(Consumer<Sample> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Registra os ouvintes de notificações da JVM e entrega a primeira medição
+     */
+    public void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            heapPools.add(pool);
+            long max = pool.getUsage().getMax();
+            if (max > 0 && pool.isUsageThresholdSupported()) {
+                pool.setUsageThreshold(max * HIGH_PERCENT / 100);
+            }
+            if (max > 0 && pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(max * HIGH_PERCENT / 100);
+            }
+        }
+        addEmitter(memoryBean);
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            addEmitter(gc);
+        }
+        refresh();
+    }
+
+    /**
+     * Remove os ouvintes de notificações
+     */
+    public void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(notificationListener);
+            } catch (Exception e) {
+                // Já removido
+            }
+        }
+        emitters.clear();
+    }
+
+    /**
+     * Pede uma nova medição (por exemplo, após hibernar ou fechar uma aba)
+     */
+    public void refresh() {
+        if (deliveryQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                deliveryQueued.set(false);
+                Sample sample = measure();
+                lastSample = sample;
+                listener.accept(sample);
+            });
+        }
+    }
+
+    /**
+     * Última medição entregue, ou null antes da primeira
+     */
+    public Sample getLastSample() {
+        return lastSample;
+    }
+
+    /**
+     * Registra um evento de uma aba com o heap usado agora
+     *
+     * @param domNodes número de nós do DOM, ou -1 se não se aplica
+     */
+    public void recordTabEvent(int tabId, String event, String url, int domNodes) {
+        long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+        synchronized (this) {
+            Long previous = lastHeapByTab.get(tabId);
+            long delta = previous != null ? heapUsed - previous : 0;
+            if (event.equals("close")) {
+                lastHeapByTab.remove(tabId);
+            } else {
+                lastHeapByTab.put(tabId, heapUsed);
+            }
+            addEvent(new Event(System.currentTimeMillis(), event, tabId, url, domNodes, heapUsed, delta));
+        }
+        refresh();
+    }
+
+    /**
+     * Variação de heap acumulada por host, da maior para a menor
+     */
+    public synchronized Map<String, Long> getHeapDeltaByHost() {
+        Map<String, Long> byHost = new TreeMap<>();
+        for (Event event : events) {
+            if (event.url != null && !event.url.isEmpty()) {
+                byHost.merge(HistoryEntry.normalizeHost(event.url), event.heapDelta, Long::sum);
+            }
+        }
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(byHost.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : sorted) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Exporta os eventos registrados (abas e coletas de lixo) em CSV
+     */
+    public void exportCsv(Path file) throws IOException {
+        List<Event> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(events);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("time,event,tab,host,url,dom_nodes,heap_used_bytes,heap_delta_bytes\n");
+            for (Event event : snapshot) {
+                writer.write(event.time + "," + event.type + "," + event.tabId + ","
+                        + csv(event.url != null ? HistoryEntry.normalizeHost(event.url) : "") + ","
+                        + csv(event.url) + "," + event.domNodes + "," + event.heapUsed + "," + event.heapDelta
+                        + "\n");
+            }
+        }
+    }
+
+    private void addEmitter(Object bean) {
+        if (bean instanceof NotificationEmitter) {
+            NotificationEmitter emitter = (NotificationEmitter) bean;
+            emitter.addNotificationListener(notificationListener, null, null);
+            emitters.add(emitter);
+        }
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(type)) {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                    .from((CompositeData) notification.getUserData());
+            long usedAfter = 0;
+            for (MemoryUsage usage : info.getGcInfo().getMemoryUsageAfterGc().values()) {
+                usedAfter += usage.getUsed();
+            }
+            synchronized (this) {
+                gcCount++;
+                gcMillis += info.getGcInfo().getDuration();
+                lastGc = info.getGcName() + " (" + info.getGcCause() + ")";
+                if (info.getGcAction().contains("major")) {
+                    addEvent(new Event(System.currentTimeMillis(), "gc", -1, null, -1, usedAfter, 0));
+                }
+            }
+        } else if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+            synchronized (this) {
+                addEvent(new Event(System.currentTimeMillis(), "threshold:" + info.getPoolName(), -1, null, -1,
+                        info.getUsage().getUsed(), 0));
+            }
+            raiseThresholds(info.getPoolName());
+        }
+        refresh();
+    }
+
+    /**
+     * Depois de passar do limite alto, o próximo aviso do pool é o crítico
+     */
+    private void raiseThresholds(String poolName) {
+        for (MemoryPoolMXBean pool : heapPools) {
+            long max = pool.getUsage().getMax();
+            if (!pool.getName().equals(poolName) || max <= 0) {
+                continue;
+            }
+            long critical = max * CRITICAL_PERCENT / 100;
+            if (pool.isUsageThresholdSupported() && pool.getUsageThreshold() < critical) {
+                pool.setUsageThreshold(critical);
+            }
+            if (pool.isCollectionUsageThresholdSupported() && pool.getCollectionUsageThreshold() < critical) {
+                pool.setCollectionUsageThreshold(critical);
+            }
+        }
+    }
+
+    private Sample measure() {
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        long max = heap.getMax() > 0 ? heap.getMax() : Runtime.getRuntime().maxMemory();
+        int percent = (int) (heap.getUsed() * 100 / max);
+        Level level = percent > CRITICAL_PERCENT ? Level.CRITICAL : percent > HIGH_PERCENT ? Level.HIGH : Level.NORMAL;
+        if (level == Level.NORMAL) {
+            resetThresholds();
+        }
+        synchronized (this) {
+            return new Sample(heap.getUsed(), heap.getCommitted(), max, percent, level, gcCount, gcMillis, lastGc);
+        }
+    }
+
+    /**
+     * Com o uso de volta ao normal, o aviso volta a ser no limite alto
+     */
+    private void resetThresholds() {
+        for (MemoryPoolMXBean pool : heapPools) {
+            long max = pool.getUsage().getMax();
+            if (max <= 0) {
+                continue;
+            }
+            long high = max * HIGH_PERCENT / 100;
+            if (pool.isUsageThresholdSupported() && pool.getUsageThreshold() != high) {
+                pool.setUsageThreshold(high);
+            }
+            if (pool.isCollectionUsageThresholdSupported() && pool.getCollectionUsageThreshold() != high) {
+                pool.setCollectionUsageThreshold(high);
+            }
+        }
+    }
+
+    private void addEvent(Event event) {
+        if (events.size() >= MAX_EVENTS) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Medição do heap em um instante
+     */
+    public static class Sample {
+        private final long used;
+        private final long committed;
+        private final long max;
+        private final int percent;
+        private final Level level;
+        private final long gcCount;
+        private final long gcMillis;
+        private final String lastGc;
+
+        Sample(long used, long committed, long max, int percent, Level level, long gcCount, long gcMillis,
+                String lastGc) {
+            this.used = used;
+            this.committed = committed;
+            this.max = max;
+            this.percent = percent;
+            this.level = level;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.lastGc = lastGc;
+        }
+
+        public long getUsed() {
+            return used;
+        }
+
+        public long getCommitted() {
+            return committed;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public int getPercent() {
+            return percent;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+
+        public String getLastGc() {
+            return lastGc;
+        }
+    }
+
+    private static final class Event {
+        final long time;
+        final String type;
+        final int tabId;
+        final String url;
+        final int domNodes;
+        final long heapUsed;
+        final long heapDelta;
+
+        Event(long time, String type, int tabId, String url, int domNodes, long heapUsed, long heapDelta) {
+            this.time = time;
+            this.type = type;
+            this.tabId = tabId;
+            this.url = url;
+            this.domNodes = domNodes;
+            this.heapUsed = heapUsed;
+            this.heapDelta = heapDelta;
+        }
+    }
+}
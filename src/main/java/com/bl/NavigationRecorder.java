@@ -0,0 +1,208 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+
+import javafx.animation.AnimationTimer;
+import javafx.concurrent.Worker;
+import javafx.scene.web.WebEngine;
+
+/**
+ * Mede as navegações de um WebEngine: as transições do Worker, os marcos do
+ * Navigation Timing e as entradas do Resource Timing lidos da página com
+ * executeScript quando ela termina, e o primeiro desenho.
+ *
+ * O primeiro desenho vem do Paint Timing quando o WebKit o expõe; senão é
+ * estimado pelo primeiro quadro do JavaFX em que o body já tem conteúdo,
+ * verificado a cada {@value #PAINT_CHECK_FRAMES} quadros, só enquanto a
+ * página carrega e só na aba visível; abas de fundo ficam sem a estimativa.
+ *
+ * Carregamentos de about:blank (como o que descarrega uma aba ao hibernar)
+ * não são registrados.
+ *
+ * Deve ser usado pela thread do JavaFX.
+ */
+public class NavigationRecorder {
+    private static final int MAX_RESOURCES = 300;
+    private static final int PAINT_CHECK_FRAMES = 4; // ~67 ms a 60 quadros por segundo
+    private static final String BLANK = "about:blank";
+    // Marcos do Navigation Timing na ordem em que acontecem
+    private static final String[] PHASES = { "redirectStart", "redirectEnd", "fetchStart", "domainLookupStart",
+            "domainLookupEnd", "connectStart", "secureConnectionStart", "connectEnd", "requestStart",
+            "responseStart", "responseEnd", "domLoading", "domInteractive", "domContentLoadedEventStart",
+            "domContentLoadedEventEnd", "domComplete", "loadEventStart", "loadEventEnd" };
+    private static final String METRICS_SCRIPT = "(function() {"
+            + "  var p = window.performance;"
+            + "  if (!p || !p.timing) return null;"
+            + "  var r = { timing: {}, resources: [], paint: [] };"
+            + "  var names = " + new Gson().toJson(PHASES) + ".concat(['navigationStart']);"
+            + "  for (var i = 0; i < names.length; i++) r.timing[names[i]] = p.timing[names[i]] || 0;"
+            + "  if (p.getEntriesByType) {"
+            + "    r.resources = p.getEntriesByType('resource').slice(0, " + MAX_RESOURCES + ").map(function(e) {"
+            + "      return { name: e.name, type: e.initiatorType, start: e.startTime, duration: e.duration,"
+            + "               size: e.transferSize || 0 };"
+            + "    });"
+            + "    r.paint = p.getEntriesByType('paint').map(function(e) {"
+            + "      return { name: e.name, start: e.startTime };"
+            + "    });"
+            + "  }"
+            + "  return JSON.stringify(r);"
+            + "})()";
+
+    private final WebEngine engine;
+    private final BooleanSupplier visible;
+    private final Consumer<NavigationTiming> sink;
+    private final Gson gson = new Gson();
+    private final AnimationTimer paintWatcher;
+
+    // Navegação em andamento
+    private boolean recording;
+    private long startEpochMs;
+    private long startNanos;
+    private List<NavigationTiming.StateChange> states;
+    private long firstPaintMs;
+    private int framesUntilCheck;
+
+    /**
+     * @param visible se a aba do engine é a selecionada; consultado na thread
+     *                do JavaFX
+     * @param sink    recebe cada navegação terminada, na thread do JavaFX,
+     *                ainda sem aba: o WebView pode ter sido criado antes dela
+     */
+    public NavigationRecorder(WebEngine engine, BooleanSupplier visible, Consumer<NavigationTiming> sink) {
+        this.engine = engine;
+        this.visible = visible;
+        this.sink = sink;
+        this.paintWatcher = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                checkFirstPaint();
+            }
+        };
+        engine.getLoadWorker().stateProperty().addListener((obs, oldState, newState) -> onState(newState));
+    }
+
+    private void onState(Worker.State state) {
+        if (state == Worker.State.SCHEDULED) {
+            recording = true;
+            startEpochMs = System.currentTimeMillis();
+            startNanos = System.nanoTime();
+            states = new ArrayList<>();
+            firstPaintMs = -1;
+            framesUntilCheck = 0;
+            paintWatcher.start();
+        }
+        if (!recording) {
+            return;
+        }
+        states.add(new NavigationTiming.StateChange(state.name(), elapsedMs()));
+        if (state == Worker.State.SUCCEEDED || state == Worker.State.FAILED || state == Worker.State.CANCELLED) {
+            paintWatcher.stop();
+            recording = false;
+            if (!BLANK.equals(engine.getLocation())) {
+                sink.accept(finish(state));
+            }
+        }
+    }
+
+    private void checkFirstPaint() {
+        if (firstPaintMs >= 0) {
+            paintWatcher.stop();
+            return;
+        }
+        if (framesUntilCheck-- > 0 || !visible.getAsBoolean()) {
+            return;
+        }
+        framesUntilCheck = PAINT_CHECK_FRAMES - 1;
+        try {
+            Object hasContent = engine.executeScript("!!(document.body && document.body.firstChild)");
+            if (Boolean.TRUE.equals(hasContent)) {
+                firstPaintMs = elapsedMs(); // Desenhado neste quadro
+                paintWatcher.stop();
+            }
+        } catch (RuntimeException e) {
+            // Documento ainda não existe
+        }
+    }
+
+    private NavigationTiming finish(Worker.State state) {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        List<NavigationTiming.ResourceTiming> resources = new ArrayList<>();
+        long paint = firstPaintMs;
+        boolean paintEstimated = paint >= 0;
+        if (state == Worker.State.SUCCEEDED) {
+            try {
+                Object json = engine.executeScript(METRICS_SCRIPT);
+                Metrics metrics = json instanceof String ? gson.fromJson((String) json, Metrics.class) : null;
+                if (metrics != null && metrics.timing != null) {
+                    // navigationStart em relação ao load pedido ao engine
+                    double origin = metrics.timing.getOrDefault("navigationStart", 0.0);
+                    long offset = origin > 0 ? Math.round(origin) - startEpochMs : 0;
+                    for (String phase : PHASES) {
+                        double value = metrics.timing.getOrDefault(phase, 0.0);
+                        if (value > 0) {
+                            phases.put(phase, Math.round(value) - startEpochMs);
+                        }
+                    }
+                    if (metrics.resources != null) {
+                        for (RawResource r : metrics.resources) {
+                            resources.add(new NavigationTiming.ResourceTiming(r.name, r.type,
+                                    offset + Math.round(r.start), Math.round(r.duration), r.size));
+                        }
+                    }
+                    if (metrics.paint != null) {
+                        // first-paint, ou first-contentful-paint quando só ele existe
+                        double paintEntry = -1;
+                        boolean foundFirstPaint = false;
+                        for (RawPaint p : metrics.paint) {
+                            if ("first-paint".equals(p.name)) {
+                                paintEntry = p.start;
+                                foundFirstPaint = true;
+                            } else if ("first-contentful-paint".equals(p.name) && !foundFirstPaint) {
+                                paintEntry = p.start;
+                            }
+                        }
+                        if (paintEntry >= 0) {
+                            paint = offset + Math.round(paintEntry);
+                            paintEstimated = false;
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Página sem JavaScript ou JSON inesperado: fica só com os estados do Worker
+            }
+        }
+        return new NavigationTiming(0, engine.getLocation(), startEpochMs, state.name(), states, phases, paint,
+                paintEstimated, resources);
+    }
+
+    private long elapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Formato devolvido pelo METRICS_SCRIPT
+    private static class Metrics {
+        Map<String, Double> timing;
+        List<RawResource> resources;
+        List<RawPaint> paint;
+    }
+
+    private static class RawResource {
+        String name;
+        String type;
+        double start;
+        double duration;
+        long size;
+    }
+
+    private static class RawPaint {
+        String name;
+        double start;
+    }
+}
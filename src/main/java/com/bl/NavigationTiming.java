@@ -0,0 +1,173 @@
+package com.bl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tempos de uma navegação de uma aba. Todos os tempos são milissegundos desde
+ * o início da navegação (o load pedido ao WebEngine); -1 quando não medido.
+ * Imutável.
+ */
+public class NavigationTiming {
+    private final int tabId; // 0 quando a aba não é conhecida
+    private final String url;
+    private final long startEpochMs;
+    private final String outcome;
+    private final List<StateChange> states;
+    private final Map<String, Long> phases; // Marcos do performance.timing, em ordem
+    private final long firstPaintMs;
+    private final boolean firstPaintEstimated;
+    private final List<ResourceTiming> resources;
+
+    public NavigationTiming(int tabId, String url, long startEpochMs, String outcome, List<StateChange> states,
+            Map<String, Long> phases, long firstPaintMs, boolean firstPaintEstimated,
+            List<ResourceTiming> resources) {
+        this.tabId = tabId;
+        this.url = url;
+        this.startEpochMs = startEpochMs;
+        this.outcome = outcome;
+        this.states = Collections.unmodifiableList(states);
+        this.phases = Collections.unmodifiableMap(new LinkedHashMap<>(phases));
+        this.firstPaintMs = firstPaintMs;
+        this.firstPaintEstimated = firstPaintEstimated;
+        this.resources = Collections.unmodifiableList(resources);
+    }
+
+    /**
+     * A mesma navegação atribuída a uma aba
+     */
+    public NavigationTiming withTabId(int tabId) {
+        return new NavigationTiming(tabId, url, startEpochMs, outcome, states, phases, firstPaintMs,
+                firstPaintEstimated, resources);
+    }
+
+    public int getTabId() {
+        return tabId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getStartEpochMs() {
+        return startEpochMs;
+    }
+
+    /**
+     * Estado final do Worker (SUCCEEDED, FAILED ou CANCELLED)
+     */
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public List<StateChange> getStates() {
+        return states;
+    }
+
+    /**
+     * Marcos do Navigation Timing (fetchStart, responseStart, domInteractive,
+     * loadEventEnd...), só os que a página chegou a registrar
+     */
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    public long getPhase(String name) {
+        Long value = phases.get(name);
+        return value != null ? value : -1;
+    }
+
+    public long getDomContentLoadedMs() {
+        return getPhase("domContentLoadedEventStart");
+    }
+
+    /**
+     * Fim do carregamento: o evento load da página ou, sem Navigation Timing,
+     * o último estado do Worker
+     */
+    public long getLoadMs() {
+        long loadEvent = getPhase("loadEventEnd");
+        if (loadEvent >= 0) {
+            return loadEvent;
+        }
+        return states.isEmpty() ? -1 : states.get(states.size() - 1).getAtMs();
+    }
+
+    public long getFirstPaintMs() {
+        return firstPaintMs;
+    }
+
+    /**
+     * Se o primeiro desenho foi estimado pelo primeiro quadro com conteúdo no
+     * body, quando o WebKit não expõe o Paint Timing
+     */
+    public boolean isFirstPaintEstimated() {
+        return firstPaintEstimated;
+    }
+
+    public List<ResourceTiming> getResources() {
+        return resources;
+    }
+
+    /**
+     * Uma transição do Worker do WebEngine
+     */
+    public static class StateChange {
+        private final String state;
+        private final long atMs;
+
+        public StateChange(String state, long atMs) {
+            this.state = state;
+            this.atMs = atMs;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public long getAtMs() {
+            return atMs;
+        }
+    }
+
+    /**
+     * Uma entrada do Resource Timing
+     */
+    public static class ResourceTiming {
+        private final String name;
+        private final String initiatorType;
+        private final long startMs;
+        private final long durationMs;
+        private final long transferSize;
+
+        public ResourceTiming(String name, String initiatorType, long startMs, long durationMs, long transferSize) {
+            this.name = name;
+            this.initiatorType = initiatorType;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+            this.transferSize = transferSize;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getInitiatorType() {
+            return initiatorType;
+        }
+
+        public long getStartMs() {
+            return startMs;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getTransferSize() {
+            return transferSize;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Últimas navegações medidas, de todas as abas, em memória. O número de
+ * navegações guardadas é limitado: as mais antigas saem primeiro.
+ *
+ * Os métodos podem ser chamados de qualquer thread.
+ */
+public class NavigationTimingStore {
+    private final int capacity;
+    private final Deque<NavigationTiming> timings = new ArrayDeque<>();
+    private long modCount;
+
+    public NavigationTimingStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(NavigationTiming timing) {
+        if (timings.size() >= capacity) {
+            timings.removeFirst();
+        }
+        timings.addLast(timing);
+        modCount++;
+    }
+
+    /**
+     * Navegações mais recentes primeiro
+     *
+     * @param tabId aba, ou 0 para todas
+     */
+    public synchronized List<NavigationTiming> getTimings(int tabId) {
+        List<NavigationTiming> result = new ArrayList<>();
+        for (NavigationTiming timing : timings) {
+            if (tabId == 0 || timing.getTabId() == tabId) {
+                result.add(timing);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Navegações com o carregamento mais lento primeiro
+     */
+    public synchronized List<NavigationTiming> getSlowest(int limit) {
+        List<NavigationTiming> result = new ArrayList<>(timings);
+        result.sort(Comparator.comparingLong(NavigationTiming::getLoadMs).reversed());
+        return result.subList(0, Math.min(limit, result.size()));
+    }
+
+    public synchronized int size() {
+        return timings.size();
+    }
+
+    /**
+     * Muda a cada navegação registrada ou limpeza
+     */
+    public synchronized long getModCount() {
+        return modCount;
+    }
+
+    public synchronized void clear() {
+        timings.clear();
+        modCount++;
+    }
+
+    /**
+     * Grava todas as navegações guardadas em JSON
+     */
+    public void exportJson(Path file) throws IOException {
+        List<NavigationTiming> snapshot = getTimings(0);
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            gson.toJson(snapshot, writer);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.bl;
+
+import java.awt.BasicStroke;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseEvent;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.function.UnaryOperator;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.ToolTipManager;
+
+/**
+ * Painel de desenvolvedor com os tempos das últimas navegações, do
+ * {@link NavigationTimingStore}: a lista das navegações e, para a
+ * selecionada, uma cascata com as fases do documento (DNS, conexão,
+ * requisição, resposta, processamento) e cada recurso, marcando o primeiro
+ * desenho, o DOMContentLoaded e o load.
+ */
+public class PerformanceDialog extends JDialog {
+    private static final int REFRESH_INTERVAL_MS = 1000;
+    private static final Color DNS_COLOR = new Color(0, 150, 136);
+    private static final Color CONNECT_COLOR = new Color(255, 152, 0);
+    private static final Color REQUEST_COLOR = new Color(76, 175, 80);
+    private static final Color RESPONSE_COLOR = new Color(33, 150, 243);
+    private static final Color PROCESSING_COLOR = new Color(158, 158, 158);
+    private static final Color RESOURCE_COLOR = new Color(121, 134, 203);
+    private static final Color PAINT_COLOR = new Color(56, 142, 60);
+    private static final Color DOM_CONTENT_LOADED_COLOR = new Color(25, 118, 210);
+    private static final Color LOAD_COLOR = new Color(211, 47, 47);
+
+    private final NavigationTimingStore store;
+    private final PersistenceService persistence;
+    private final IntSupplier activeTabId;
+    private final DefaultListModel<NavigationTiming> listModel = new DefaultListModel<>();
+    private final JList<NavigationTiming> timingList = new JList<>(listModel);
+    private final JCheckBox activeTabOnly = new JCheckBox("Só a aba atual");
+    private final JLabel summaryLabel = new JLabel(" ");
+    private final WaterfallView waterfall;
+    private final Timer refreshTimer;
+    private long shownModCount = -1;
+
+    /**
+     * @param activeTabId id da aba selecionada no momento
+     * @param fonts       ajusta as fontes à escala da tela
+     */
+    public PerformanceDialog(JFrame owner, NavigationTimingStore store, PersistenceService persistence,
+            IntSupplier activeTabId, float scalingFactor, UnaryOperator<Font> fonts) {
+        super(owner, "Desempenho das páginas", false);
+        this.store = store;
+        this.persistence = persistence;
+        this.activeTabId = activeTabId;
+        setSize((int) (900 * scalingFactor), (int) (650 * scalingFactor));
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        timingList.setFont(fonts.apply(timingList.getFont()));
+        timingList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        timingList.setFixedCellHeight(timingList.getFontMetrics(timingList.getFont()).getHeight() + 4);
+        timingList.setFixedCellWidth(100);
+        timingList.setCellRenderer((list, timing, index, isSelected, cellHasFocus) -> {
+            JLabel label = new JLabel(String.format("%s  aba %d  %6s  %s  %s",
+                    timeFormat.format(new Date(timing.getStartEpochMs())), timing.getTabId(),
+                    formatMs(timing.getLoadMs()), timing.getOutcome().equals("SUCCEEDED") ? "" : timing.getOutcome(),
+                    UrlUtils.shortenUrl(timing.getUrl() != null ? timing.getUrl() : "", 90)));
+            label.setFont(list.getFont());
+            label.setOpaque(true);
+            label.setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+            label.setForeground(isSelected ? list.getSelectionForeground() : list.getForeground());
+            return label;
+        });
+        timingList.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showTiming(timingList.getSelectedValue());
+            }
+        });
+
+        waterfall = new WaterfallView(fonts.apply(getFont() != null ? getFont() : timingList.getFont()),
+                scalingFactor);
+        summaryLabel.setFont(fonts.apply(summaryLabel.getFont()));
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(4, 5, 4, 5));
+
+        activeTabOnly.setFont(fonts.apply(activeTabOnly.getFont()));
+        activeTabOnly.addActionListener(e -> reload());
+
+        JButton exportButton = new JButton("Exportar JSON...");
+        exportButton.setFont(fonts.apply(exportButton.getFont()));
+        exportButton.addActionListener(e -> export());
+
+        JButton clearButton = new JButton("Limpar");
+        clearButton.setFont(fonts.apply(clearButton.getFont()));
+        clearButton.addActionListener(e -> {
+            store.clear();
+            reload();
+        });
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 0, 5));
+        topPanel.add(activeTabOnly, BorderLayout.WEST);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        buttonPanel.add(exportButton);
+        buttonPanel.add(clearButton);
+        topPanel.add(buttonPanel, BorderLayout.EAST);
+
+        JPanel detailPanel = new JPanel(new BorderLayout());
+        detailPanel.add(summaryLabel, BorderLayout.NORTH);
+        detailPanel.add(new JScrollPane(waterfall), BorderLayout.CENTER);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(timingList), detailPanel);
+        split.setResizeWeight(0.3);
+
+        JPanel contentPanel = new JPanel(new BorderLayout());
+        contentPanel.add(topPanel, BorderLayout.NORTH);
+        contentPanel.add(split, BorderLayout.CENTER);
+        add(contentPanel);
+
+        // Navegações feitas com o painel aberto aparecem sem reabrir
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> {
+            if (store.getModCount() != shownModCount) {
+                reload();
+            }
+        });
+        reload();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+
+    private void reload() {
+        shownModCount = store.getModCount();
+        NavigationTiming selected = timingList.getSelectedValue();
+        List<NavigationTiming> timings = store.getTimings(activeTabOnly.isSelected() ? activeTabId.getAsInt() : 0);
+        listModel.clear();
+        listModel.addAll(timings);
+        if (selected != null && timings.contains(selected)) {
+            timingList.setSelectedValue(selected, false);
+        } else if (!timings.isEmpty()) {
+            timingList.setSelectedIndex(0);
+        } else {
+            showTiming(null);
+        }
+    }
+
+    private void showTiming(NavigationTiming timing) {
+        waterfall.setTiming(timing);
+        if (timing == null) {
+            summaryLabel.setText(store.size() == 0 ? "Nenhuma navegação medida ainda" : " ");
+            return;
+        }
+        summaryLabel.setText(String.format("Primeiro desenho %s%s · DOMContentLoaded %s · load %s · %d recursos",
+                formatMs(timing.getFirstPaintMs()), timing.isFirstPaintEstimated() ? " (estimado)" : "",
+                formatMs(timing.getDomContentLoadedMs()), formatMs(timing.getLoadMs()),
+                timing.getResources().size()));
+        StringBuilder states = new StringBuilder("<html>Worker: ");
+        for (NavigationTiming.StateChange change : timing.getStates()) {
+            states.append(change.getState()).append(" em ").append(change.getAtMs()).append(" ms; ");
+        }
+        summaryLabel.setToolTipText(states.append("</html>").toString());
+    }
+
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("tempos_navegacao.json"));
+        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            java.nio.file.Path file = chooser.getSelectedFile().toPath();
+            persistence.run(() -> store.exportJson(file)).whenComplete((done, ex) -> {
+                if (ex != null) {
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                            "Erro ao exportar tempos: " + ex.getMessage()));
+                }
+            });
+        }
+    }
+
+    private static String formatMs(long ms) {
+        return ms < 0 ? "-" : ms + " ms";
+    }
+
+    /**
+     * Cascata de uma navegação: uma linha para o documento, dividida nas
+     * fases do Navigation Timing, e uma por recurso, na ordem de início
+     */
+    private static class WaterfallView extends JComponent {
+        private final int rowHeight;
+        private final int labelWidth;
+        private final int axisHeight;
+        private NavigationTiming timing;
+        private List<NavigationTiming.ResourceTiming> resources = new ArrayList<>();
+        private long totalMs = 1;
+
+        WaterfallView(Font font, float scalingFactor) {
+            setFont(font);
+            FontMetrics metrics = getFontMetrics(font);
+            rowHeight = metrics.getHeight() + (int) (4 * scalingFactor);
+            labelWidth = (int) (260 * scalingFactor);
+            axisHeight = rowHeight;
+            ToolTipManager.sharedInstance().registerComponent(this);
+        }
+
+        void setTiming(NavigationTiming timing) {
+            this.timing = timing;
+            resources = new ArrayList<>();
+            totalMs = 1;
+            if (timing != null) {
+                resources.addAll(timing.getResources());
+                resources.sort((a, b) -> Long.compare(a.getStartMs(), b.getStartMs()));
+                totalMs = Math.max(totalMs, timing.getLoadMs());
+                totalMs = Math.max(totalMs, timing.getFirstPaintMs());
+                for (NavigationTiming.ResourceTiming resource : resources) {
+                    totalMs = Math.max(totalMs, resource.getStartMs() + resource.getDurationMs());
+                }
+            }
+            revalidate();
+            repaint();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            int rows = timing == null ? 0 : 1 + resources.size();
+            return new Dimension(labelWidth + 400, axisHeight + rows * rowHeight + 4);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getParent() != null ? getParent().getBackground() : Color.WHITE);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            if (timing == null) {
+                g2.dispose();
+                return;
+            }
+            FontMetrics metrics = g2.getFontMetrics();
+            Color text = javax.swing.UIManager.getColor("Label.foreground");
+            int chartWidth = Math.max(50, getWidth() - labelWidth - 10);
+
+            // Eixo com marcas a cada fração do total
+            g2.setColor(text);
+            for (int i = 0; i <= 4; i++) {
+                long ms = totalMs * i / 4;
+                int x = xFor(ms, chartWidth);
+                g2.drawString(ms + " ms", Math.min(x, getWidth() - metrics.stringWidth(ms + " ms") - 2),
+                        metrics.getAscent());
+            }
+
+            // Documento
+            int y = axisHeight;
+            g2.drawString(clip("Documento", metrics), 4, y + metrics.getAscent() + 2);
+            int barHeight = rowHeight - 6;
+            paintPhase(g2, "domainLookupStart", "domainLookupEnd", DNS_COLOR, y, barHeight, chartWidth);
+            paintPhase(g2, "connectStart", "connectEnd", CONNECT_COLOR, y, barHeight, chartWidth);
+            paintPhase(g2, "requestStart", "responseStart", REQUEST_COLOR, y, barHeight, chartWidth);
+            paintPhase(g2, "responseStart", "responseEnd", RESPONSE_COLOR, y, barHeight, chartWidth);
+            paintPhase(g2, "responseEnd", "loadEventEnd", PROCESSING_COLOR, y, barHeight, chartWidth);
+            if (timing.getPhases().isEmpty()) {
+                // Sem Navigation Timing: só a duração total, pelos estados do Worker
+                paintBar(g2, 0, timing.getLoadMs(), PROCESSING_COLOR, y, barHeight, chartWidth);
+            }
+
+            // Recursos
+            for (NavigationTiming.ResourceTiming resource : resources) {
+                y += rowHeight;
+                g2.setColor(text);
+                g2.drawString(clip(resourceLabel(resource), metrics), 4, y + metrics.getAscent() + 2);
+                paintBar(g2, resource.getStartMs(), resource.getStartMs() + Math.max(1, resource.getDurationMs()),
+                        RESOURCE_COLOR, y, barHeight, chartWidth);
+            }
+
+            // Marcos verticais
+            int bottom = y + rowHeight;
+            g2.setStroke(new BasicStroke(1.5f));
+            paintMarker(g2, timing.getFirstPaintMs(), PAINT_COLOR, bottom, chartWidth);
+            paintMarker(g2, timing.getDomContentLoadedMs(), DOM_CONTENT_LOADED_COLOR, bottom, chartWidth);
+            paintMarker(g2, timing.getLoadMs(), LOAD_COLOR, bottom, chartWidth);
+            g2.dispose();
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent event) {
+            if (timing == null) {
+                return null;
+            }
+            int row = (event.getY() - axisHeight) / rowHeight;
+            if (event.getY() < axisHeight || row > resources.size()) {
+                return "<html><font color='#388E3C'>primeiro desenho</font> · "
+                        + "<font color='#1976D2'>DOMContentLoaded</font> · <font color='#D32F2F'>load</font></html>";
+            }
+            if (row == 0) {
+                return String.format("<html>%s<br>DNS %s · conexão %s · requisição %s · resposta %s · "
+                        + "processamento %s</html>", timing.getUrl(),
+                        formatPhase("domainLookupStart", "domainLookupEnd"),
+                        formatPhase("connectStart", "connectEnd"), formatPhase("requestStart", "responseStart"),
+                        formatPhase("responseStart", "responseEnd"), formatPhase("responseEnd", "loadEventEnd"));
+            }
+            NavigationTiming.ResourceTiming resource = resources.get(row - 1);
+            return String.format("<html>%s<br>%s · início %d ms · duração %d ms%s</html>", resource.getName(),
+                    resource.getInitiatorType(), resource.getStartMs(), resource.getDurationMs(),
+                    resource.getTransferSize() > 0 ? String.format(" · %.1f KB", resource.getTransferSize() / 1024.0)
+                            : "");
+        }
+
+        private String formatPhase(String from, String to) {
+            long start = timing.getPhase(from);
+            long end = timing.getPhase(to);
+            return start >= 0 && end >= start ? (end - start) + " ms" : "-";
+        }
+
+        private void paintPhase(Graphics2D g2, String from, String to, Color color, int y, int height, int width) {
+            long start = timing.getPhase(from);
+            long end = timing.getPhase(to);
+            if (start >= 0 && end >= start) {
+                paintBar(g2, start, Math.max(end, start + 1), color, y, height, width);
+            }
+        }
+
+        private void paintBar(Graphics2D g2, long startMs, long endMs, Color color, int y, int height, int width) {
+            int x1 = xFor(startMs, width);
+            int x2 = xFor(endMs, width);
+            g2.setColor(color);
+            g2.fillRect(x1, y + 3, Math.max(2, x2 - x1), height);
+        }
+
+        private void paintMarker(Graphics2D g2, long ms, Color color, int bottom, int width) {
+            if (ms < 0) {
+                return;
+            }
+            int x = xFor(ms, width);
+            g2.setColor(color);
+            g2.drawLine(x, axisHeight, x, bottom);
+        }
+
+        private int xFor(long ms, int width) {
+            return labelWidth + (int) (Math.max(0, ms) * width / totalMs);
+        }
+
+        private String clip(String label, FontMetrics metrics) {
+            if (metrics.stringWidth(label) <= labelWidth - 8) {
+                return label;
+            }
+            String clipped = label;
+            while (clipped.length() > 1 && metrics.stringWidth(clipped + "…") > labelWidth - 8) {
+                clipped = clipped.substring(0, clipped.length() - 1);
+            }
+            return clipped + "…";
+        }
+
+        private static String resourceLabel(NavigationTiming.ResourceTiming resource) {
+            String name = resource.getName() != null ? resource.getName() : "";
+            int query = name.indexOf('?');
+            String path = query >= 0 ? name.substring(0, query) : name;
+            int slash = path.lastIndexOf('/', path.length() - 2);
+            return slash >= 0 ? path.substring(slash + 1) : path;
+        }
+    }
+}
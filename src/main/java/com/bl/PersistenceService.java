@@ -0,0 +1,279 @@
+package com.bl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravações em disco fora das threads de interface, num pool pequeno e
+ * limitado de threads (Java 17, ainda sem threads virtuais).
+ *
+ * Gravações com chave são coalescidas: enquanto uma gravação de uma chave
+ * espera, uma nova da mesma chave a substitui, e gravações da mesma chave
+ * nunca rodam ao mesmo tempo. Assim um slider ou um timer podem pedir
+ * gravações à vontade sem enfileirar trabalho repetido. Gravações com atraso
+ * juntam as rajadas de alterações numa só.
+ *
+ * Antes de sair, {@link #shutdown(long)} executa na hora as gravações
+ * pendentes, inclusive as com atraso, e espera que terminem.
+ */
+public class PersistenceService {
+    private static final int THREADS = 2;
+
+    /**
+     * Trabalho de disco que pode falhar
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Protegidos por this
+    private final Map<String, Task> pending = new HashMap<>(); // Gravação mais recente de cada chave
+    private final Map<String, ScheduledFuture<?>> delayed = new HashMap<>();
+    private final Set<String> active = new HashSet<>(); // Chaves agendadas ou gravando
+    private int oneOffRunning;
+    private boolean closed;
+    private long submitted;
+    private long coalesced;
+    private long completed;
+    private long failures;
+    private long writeNanos;
+
+    public PersistenceService() {
+        executor = new ScheduledThreadPoolExecutor(THREADS, r -> {
+            Thread thread = new Thread(r, "PersistenceService");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Agenda uma gravação identificada por chave, substituindo a que ainda
+     * estiver esperando com a mesma chave. Erros são registrados no log.
+     */
+    public void save(String key, Task task) {
+        save(key, 0, task);
+    }
+
+    /**
+     * Como {@link #save(String, Task)}, mas só grava depois do atraso, para
+     * juntar alterações em sequência
+     */
+    public void save(String key, long delayMs, Task task) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            submitted++;
+            if (pending.put(key, task) != null) {
+                coalesced++;
+            }
+            if (!active.add(key)) {
+                return; // Já agendada ou gravando; pegará a versão nova
+            }
+            if (delayMs > 0) {
+                delayed.put(key, executor.schedule(() -> drain(key), delayMs, TimeUnit.MILLISECONDS));
+                return;
+            }
+        }
+        executor.execute(() -> drain(key));
+    }
+
+    /**
+     * Executa uma gravação avulsa, como uma exportação pedida pelo usuário;
+     * o resultado indica se ela falhou
+     */
+    public CompletableFuture<Void> run(Task task) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                result.completeExceptionally(new IOException("gravações já encerradas"));
+                return result;
+            }
+            submitted++;
+            oneOffRunning++;
+        }
+        executor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                task.run();
+                recordWrite(System.nanoTime() - start, false);
+                result.complete(null);
+            } catch (Exception e) {
+                recordWrite(0, true);
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    oneOffRunning--;
+                    notifyAll();
+                }
+            }
+        });
+        return result;
+    }
+
+    private void drain(String key) {
+        while (true) {
+            Task task;
+            synchronized (this) {
+                delayed.remove(key);
+                task = pending.remove(key);
+                if (task == null) {
+                    active.remove(key);
+                    notifyAll();
+                    return;
+                }
+            }
+            long start = System.nanoTime();
+            try {
+                task.run();
+                recordWrite(System.nanoTime() - start, false);
+            } catch (Exception e) {
+                recordWrite(0, true);
+                System.err.println("Erro ao gravar " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void recordWrite(long nanos, boolean failed) {
+        if (failed) {
+            failures++;
+        } else {
+            completed++;
+            writeNanos += nanos;
+        }
+    }
+
+    /**
+     * Antecipa as gravações com atraso e espera todas as pendentes
+     *
+     * @return false se o tempo acabou antes
+     */
+    public boolean flush(long timeoutMs) {
+        synchronized (this) {
+            for (Map.Entry<String, ScheduledFuture<?>> entry : delayed.entrySet()) {
+                // Se já começou, a própria execução grava a versão pendente
+                if (entry.getValue().cancel(false)) {
+                    String key = entry.getKey();
+                    executor.execute(() -> drain(key));
+                }
+            }
+            delayed.clear();
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (!active.isEmpty() || oneOffRunning > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Grava tudo o que estiver pendente e encerra as threads. Gravações
+     * pedidas depois disso são descartadas.
+     */
+    public void shutdown(long timeoutMs) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        if (!flush(timeoutMs)) {
+            System.err.println("Erro ao encerrar gravações: tempo esgotado com gravações pendentes");
+        }
+        synchronized (this) {
+            closed = true;
+        }
+        executor.shutdown();
+    }
+
+    public synchronized long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Gravações substituídas por outra da mesma chave antes de rodar
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    public synchronized long getCompleted() {
+        return completed;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gravações esperando ou em andamento
+     */
+    public synchronized int getPending() {
+        return active.size() + oneOffRunning;
+    }
+
+    public synchronized double getAverageWriteMillis() {
+        return completed > 0 ? writeNanos / 1e6 / completed : 0;
+    }
+
+    public synchronized String getSummary() {
+        return String.format("%d pedidas, %d coalescidas, %d gravadas (média %.1f ms), %d falhas, %d pendentes",
+                submitted, coalesced, completed, getAverageWriteMillis(), failures, getPending());
+    }
+
+    /**
+     * Conteúdo de um arquivo gravado por {@link #writeAtomically}
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Grava o arquivo num temporário ao lado, força a gravação em disco e o
+     * troca pelo anterior, de modo que uma queda nunca deixe o arquivo pela
+     * metade. Se a gravação falhar, o arquivo anterior fica intacto e o
+     * temporário é apagado.
+     */
+    public static void writeAtomically(Path file, Content content) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                content.writeTo(writer);
+            }
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.bl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Journal de registros em texto (um registro por linha) com snapshot.
+ *
+ * Cada alteração é anexada ao arquivo de journal por uma thread de fundo, com
+ * fsync em lotes; periodicamente o estado completo é compactado em um arquivo
+ * de snapshot e o journal é truncado. Na inicialização o estado é reconstruído
+ * lendo o snapshot seguido do journal. Uma linha incompleta no fim do journal
+ * (queda no meio da escrita) é descartada.
+ *
+ * Cada compactação inicia uma nova geração, gravada na primeira linha do
+ * snapshot e do journal. Se a queda acontecer depois de o snapshot novo
+ * substituir o antigo e antes de o journal ser truncado, o journal fica com a
+ * geração anterior; seus registros já estão no snapshot e não são reproduzidos
+ * de novo. Arquivos sem cabeçalho são da geração 0.
+ */
+public class RecordJournal {
+    private static final int SYNC_BATCH_SIZE = 32;
+    private static final long SYNC_INTERVAL_MS = 1000;
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final String GENERATION_PREFIX = "#G\t"; // Registros nunca começam com '#'
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final ScheduledExecutorService writer;
+
+    // Acessados apenas pela thread de escrita
+    private FileChannel journalChannel;
+    private int unsyncedRecords;
+    private boolean syncScheduled;
+
+    // Registros no journal desde a última compactação e geração atual (thread
+    // de quem chama append)
+    private int journalRecords;
+    private long generation;
+
+    // Estatísticas de escrita: só a thread de escrita altera, qualquer uma lê
+    private final AtomicLong queuedRecords = new AtomicLong();
+    private volatile long writtenRecords;
+    private volatile long writeNanos;
+    private volatile long syncs;
+    private volatile long syncNanos;
+
+    public RecordJournal(Path snapshotFile, Path journalFile, String name) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Indica se já existe algum arquivo do journal em disco
+     */
+    public boolean exists() {
+        return Files.exists(snapshotFile) || Files.exists(journalFile);
+    }
+
+    /**
+     * Reproduz todos os registros do snapshot e do journal, em ordem. Um
+     * journal de geração anterior à do snapshot é descartado. Deve ser chamado
+     * antes do primeiro append.
+     */
+    public void replay(Consumer<String> handler) throws IOException {
+        long snapshotGeneration = readGeneration(snapshotFile);
+        long journalGeneration = readGeneration(journalFile);
+        readLines(snapshotFile, handler);
+        if (journalGeneration < snapshotGeneration) {
+            // Queda entre a troca do snapshot e o truncamento do journal
+            generation = snapshotGeneration;
+            journalRecords = 0;
+            try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                resetJournal(channel, generation);
+            }
+            return;
+        }
+        generation = Math.max(snapshotGeneration, journalGeneration);
+        journalRecords = readLines(journalFile, handler);
+    }
+
+    /**
+     * Geração gravada na primeira linha do arquivo, ou 0 se não houver
+     */
+    private static long readGeneration(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            if (first == null || !first.startsWith(GENERATION_PREFIX)) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(first.substring(GENERATION_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                return 0; // Cabeçalho incompleto
+            }
+        }
+    }
+
+    private int readLines(Path file, Consumer<String> handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int count = 0;
+        byte[] content = Files.readAllBytes(file);
+        int end = content.length;
+        // Ignora a última linha se ela não terminou de ser escrita
+        while (end > 0 && content[end - 1] != '\n') {
+            end--;
+        }
+        try (BufferedReader reader = new BufferedReader(new StringReader(
+                new String(content, 0, end, StandardCharsets.UTF_8)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith(GENERATION_PREFIX)) {
+                    handler.accept(line);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Esvazia o journal, deixando só o cabeçalho da geração, e força a
+     * gravação antes de qualquer registro novo
+     */
+    private static void resetJournal(FileChannel channel, long generation) throws IOException {
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap((GENERATION_PREFIX + generation + "\n").getBytes(StandardCharsets.UTF_8)));
+        channel.force(true);
+    }
+
+    /**
+     * Anexa um registro ao journal de forma assíncrona
+     */
+    public void append(String record) {
+        journalRecords++;
+        queuedRecords.incrementAndGet();
+        byte[] bytes = (record + "\n").getBytes(StandardCharsets.UTF_8);
+        writer.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                channel().write(ByteBuffer.wrap(bytes));
+                writeNanos += System.nanoTime() - start;
+                writtenRecords++;
+                unsyncedRecords++;
+                if (unsyncedRecords >= SYNC_BATCH_SIZE) {
+                    sync();
+                } else if (!syncScheduled) {
+                    syncScheduled = true;
+                    writer.schedule(this::sync, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar journal " + journalFile + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Indica se o journal cresceu o suficiente para valer uma compactação,
+     * considerando o número de registros que o snapshot teria
+     */
+    public boolean needsCompaction(int snapshotRecords) {
+        return journalRecords >= Math.max(COMPACTION_THRESHOLD, snapshotRecords);
+    }
+
+    /**
+     * Grava o estado completo como novo snapshot, de uma nova geração, e
+     * trunca o journal, em segundo plano. Os itens informados devem ser uma
+     * cópia imutável que reflita todos os appends feitos até aqui; a
+     * formatação de cada item em registro acontece na thread de escrita.
+     */
+    public <T> void compact(Collection<T> snapshot, Function<T, String> format) {
+        journalRecords = 0;
+        long snapshotGeneration = ++generation;
+        writer.execute(() -> {
+            Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try {
+                try (BufferedWriter out = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                    out.write(GENERATION_PREFIX + snapshotGeneration);
+                    out.write('\n');
+                    for (T item : snapshot) {
+                        out.write(format.apply(item));
+                        out.write('\n');
+                    }
+                }
+                try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    tempChannel.force(true);
+                }
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                resetJournal(channel(), snapshotGeneration);
+                unsyncedRecords = 0;
+            } catch (IOException e) {
+                System.err.println("Erro ao compactar journal " + journalFile + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Aguarda as escritas pendentes e força a gravação em disco, sem encerrar
+     * a thread de escrita. Bloqueia quem chama; não usar na thread do Swing.
+     */
+    public void flush() {
+        try {
+            writer.submit(this::sync).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Erro ao descarregar journal " + journalFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registros anexados que a thread de escrita ainda não gravou
+     */
+    public long getPendingRecords() {
+        return queuedRecords.get() - writtenRecords;
+    }
+
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    /**
+     * Tempo médio de escrita de um registro no journal, em microssegundos
+     */
+    public double getAverageWriteMicros() {
+        long written = writtenRecords;
+        return written > 0 ? writeNanos / 1000.0 / written : 0;
+    }
+
+    /**
+     * Tempo médio de um fsync do journal, em microssegundos
+     */
+    public double getAverageSyncMicros() {
+        long count = syncs;
+        return count > 0 ? syncNanos / 1000.0 / count : 0;
+    }
+
+    /**
+     * Aguarda as escritas pendentes, força a gravação em disco e encerra a
+     * thread de escrita
+     */
+    public void close() {
+        writer.execute(() -> {
+            sync();
+            try {
+                if (journalChannel != null) {
+                    journalChannel.close();
+                    journalChannel = null;
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar journal " + journalFile + ": " + e.getMessage());
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sync() {
+        syncScheduled = false;
+        if (unsyncedRecords == 0 || journalChannel == null) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            journalChannel.force(false);
+            syncNanos += System.nanoTime() - start;
+            syncs++;
+            unsyncedRecords = 0;
+        } catch (IOException e) {
+            System.err.println("Erro ao sincronizar journal " + journalFile + ": " + e.getMessage());
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (journalChannel == null) {
+            journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return journalChannel;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Arquivo da sessão: as abas abertas (URL, título, zoom, rolagem e lista de
+ * voltar/avançar) e qual delas estava selecionada.
+ *
+ * A gravação vai para um arquivo temporário que depois substitui o anterior,
+ * então uma queda no meio da escrita nunca deixa uma sessão corrompida.
+ */
+public class SessionStore {
+    private final Path file;
+    private final Gson gson = new Gson();
+
+    public SessionStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Lê a sessão salva, ou null se não houver uma válida
+     */
+    public Session load() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Session session = gson.fromJson(reader, Session.class);
+            return session != null && session.tabs != null && !session.tabs.isEmpty() ? session : null;
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Erro ao carregar sessão: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Grava a sessão substituindo a anterior. Pode ser chamado de qualquer
+     * thread, mas não concorrentemente.
+     */
+    public synchronized void save(Session session) {
+        try {
+            PersistenceService.writeAtomically(file, writer -> gson.toJson(session, writer));
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar sessão: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abas na ordem em que aparecem na janela
+     */
+    public static class Session {
+        private final List<TabSnapshot> tabs;
+        private final int selectedIndex;
+
+        public Session(List<TabSnapshot> tabs, int selectedIndex) {
+            this.tabs = new ArrayList<>(tabs);
+            this.selectedIndex = selectedIndex;
+        }
+
+        public List<TabSnapshot> getTabs() {
+            return tabs;
+        }
+
+        public int getSelectedIndex() {
+            return selectedIndex;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.bl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * Trabalho especulativo sobre a sugestão principal da barra de URL, para que
+ * a navegação mais provável já encontre o caminho pronto: resolve o DNS do
+ * host, abre uma conexão TCP/TLS sem enviar requisição e, com confiança alta,
+ * baixa o documento principal para o {@link HttpDiskCache}.
+ *
+ * Orçamentos evitam desperdício: cada host é resolvido/conectado no máximo
+ * uma vez por intervalo, cada URL é pré-carregada no máximo uma vez por
+ * intervalo, documentos grandes são abandonados e o total pré-carregado por
+ * minuto é limitado. Os intervalos só começam a contar quando a especulação
+ * roda de fato, não quando é descartada por uma previsão mais nova. Também
+ * contabiliza quantas navegações digitadas coincidiram com a previsão e o
+ * tempo até o primeiro byte delas.
+ *
+ * Os métodos públicos devem ser chamados pela thread do Swing; a rede é
+ * acessada em uma única thread de fundo.
+ */
+public class SpeculativeLoader {
+    private static final long HOST_COOLDOWN_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long PREFETCH_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long PREDICTION_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long PREFETCH_BUDGET_BYTES_PER_MINUTE = 2 * 1024 * 1024;
+    private static final int MAX_PREFETCH_BYTES = 512 * 1024;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int SESSION_TICKET_WAIT_MS = 200;
+
+    private final HttpDiskCache httpCache; // null: apenas DNS
+    private final boolean prefetchEnabled;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+
+    // Consultados na thread do Swing, gravados na de fundo quando a especulação roda
+    private final Map<String, Long> resolvedHosts = new ConcurrentHashMap<>();
+    private final Map<String, Long> connectedHosts = new ConcurrentHashMap<>();
+    private final Map<String, Long> prefetchedUrls = new ConcurrentHashMap<>();
+    private String lastPrediction;
+    private long lastPredictionTime;
+    private int stableCount;
+    private long budgetWindowStart;
+    private long budgetUsed;
+
+    // Estatísticas
+    private long predictions;
+    private final AtomicLong resolves = new AtomicLong();
+    private final AtomicLong preconnects = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong prefetchedBytes = new AtomicLong();
+    private long navigations;
+    private long predictedNavigations;
+    private long predictedFirstBytes;
+    private long predictedFirstByteMillis;
+    private long otherFirstBytes;
+    private long otherFirstByteMillis;
+
+    /**
+     * @param httpCache       cache por onde passam conexões e pré-carregamentos,
+     *                        ou null para apenas resolver o DNS
+     * @param prefetchEnabled se o documento principal pode ser baixado
+     */
+    public SpeculativeLoader(HttpDiskCache httpCache, boolean prefetchEnabled) {
+        this.httpCache = httpCache;
+        this.prefetchEnabled = prefetchEnabled && httpCache != null;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "SpeculativeLoader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Recebe a sugestão principal para o texto digitado. A confiança cresce
+     * quando o texto é prefixo da URL sugerida e quando a mesma sugestão se
+     * mantém entre consultas seguidas.
+     */
+    public void onPrediction(String input, String url) {
+        long now = System.currentTimeMillis();
+        URI uri = toHttpUri(url);
+        if (uri == null) {
+            return;
+        }
+        stableCount = url.equals(lastPrediction) ? stableCount + 1 : 0;
+        lastPrediction = url;
+        lastPredictionTime = now;
+        predictions++;
+
+        String typed = SuggestionIndex.normalizeUrl(input.trim());
+        boolean prefixMatch = typed.length() >= MIN_PREFIX_LENGTH
+                && SuggestionIndex.normalizeUrl(url).startsWith(typed);
+        String host = uri.getHost().toLowerCase();
+
+        String stage;
+        Map<String, Long> done;
+        String key;
+        if (prefixMatch && stableCount >= 1 && prefetchEnabled && allowPrefetch(url, now)) {
+            stage = "prefetch";
+            done = prefetchedUrls;
+            key = url;
+        } else if (prefixMatch && httpCache != null && allowHost(connectedHosts, host, now)) {
+            stage = "preconnect";
+            done = connectedHosts;
+            key = host;
+        } else if (allowHost(resolvedHosts, host, now)) {
+            stage = "dns";
+            done = resolvedHosts;
+            key = host;
+        } else {
+            return; // Nada novo a fazer para esta previsão
+        }
+
+        long speculation = generation.incrementAndGet();
+        executor.submit(() -> {
+            if (speculation != generation.get()) {
+                return; // Já existe uma previsão mais nova
+            }
+            markDone(done, key, stage.equals("prefetch") ? PREFETCH_COOLDOWN_MS : HOST_COOLDOWN_MS);
+            speculate(stage, uri, url);
+        });
+    }
+
+    /**
+     * Registra uma navegação digitada e indica se ela coincidiu com a última
+     * previsão
+     */
+    public boolean recordNavigation(String url) {
+        navigations++;
+        generation.incrementAndGet(); // Especulações pendentes já não servem
+        boolean predicted = lastPrediction != null
+                && System.currentTimeMillis() - lastPredictionTime < PREDICTION_TTL_MS
+                && SuggestionIndex.normalizeUrl(lastPrediction).equals(SuggestionIndex.normalizeUrl(url));
+        if (predicted) {
+            predictedNavigations++;
+        }
+        lastPrediction = null;
+        stableCount = 0;
+        return predicted;
+    }
+
+    /**
+     * Tempo entre o início da navegação e o primeiro byte da resposta
+     * (responseStart do Navigation Timing)
+     */
+    public void recordFirstByte(long millis, boolean predicted) {
+        if (predicted) {
+            predictedFirstBytes++;
+            predictedFirstByteMillis += millis;
+        } else {
+            otherFirstBytes++;
+            otherFirstByteMillis += millis;
+        }
+    }
+
+    /**
+     * Fração das navegações digitadas que coincidiram com a previsão
+     */
+    public double getHitRate() {
+        return navigations > 0 ? (double) predictedNavigations / navigations : 0;
+    }
+
+    /**
+     * Resumo das estatísticas de especulação
+     */
+    public String getSummary() {
+        return String.format("%d previsões (%d DNS, %d conexões, %d pré-carregamentos, %.1f KB); "
+                + "%d de %d navegações previstas (%.0f%%); primeiro byte em média %d ms previstas, %d ms demais",
+                predictions, resolves.get(), preconnects.get(), prefetches.get(), prefetchedBytes.get() / 1024.0,
+                predictedNavigations, navigations, getHitRate() * 100,
+                predictedFirstBytes > 0 ? predictedFirstByteMillis / predictedFirstBytes : 0,
+                otherFirstBytes > 0 ? otherFirstByteMillis / otherFirstBytes : 0);
+    }
+
+    /**
+     * Encerra a thread de fundo, descartando especulações pendentes
+     */
+    public void close() {
+        generation.incrementAndGet();
+        executor.shutdownNow();
+    }
+
+    private static boolean allowHost(Map<String, Long> hosts, String host, long now) {
+        Long last = hosts.get(host);
+        return last == null || now - last >= HOST_COOLDOWN_MS;
+    }
+
+    private boolean allowPrefetch(String url, long now) {
+        if (now - budgetWindowStart >= TimeUnit.MINUTES.toMillis(1)) {
+            budgetWindowStart = now;
+            budgetUsed = prefetchedBytes.get();
+        }
+        if (prefetchedBytes.get() - budgetUsed >= PREFETCH_BUDGET_BYTES_PER_MINUTE) {
+            return false;
+        }
+        Long last = prefetchedUrls.get(url);
+        return last == null || now - last >= PREFETCH_COOLDOWN_MS;
+    }
+
+    /**
+     * Inicia o intervalo de um host ou URL, na thread de fundo
+     */
+    private static void markDone(Map<String, Long> times, String key, long cooldownMs) {
+        long now = System.currentTimeMillis();
+        times.put(key, now);
+        Iterator<Long> it = times.values().iterator();
+        long before = now - cooldownMs;
+        while (it.hasNext()) {
+            if (it.next() < before) {
+                it.remove();
+            }
+        }
+    }
+
+    private void speculate(String stage, URI uri, String url) {
+        try {
+            InetAddress.getAllByName(uri.getHost()); // Fica no cache de DNS da JVM
+            resolves.incrementAndGet();
+            if (stage.equals("preconnect")) {
+                preconnect(uri);
+            } else if (stage.equals("prefetch")) {
+                prefetch(url);
+            }
+        } catch (IOException e) {
+            // Especulação é só uma otimização: falhas não afetam a navegação
+        }
+    }
+
+    /**
+     * Abre uma conexão TCP e, em https, faz o handshake TLS, sem enviar
+     * nenhuma requisição. A conexão não tem como ser entregue ao HttpClient e
+     * é fechada; o que se aproveita é o caminho aquecido e, em https, a sessão
+     * TLS guardada no SSLContext padrão, que o HttpClient e o WebEngine usam,
+     * para que a conexão da navegação faça um handshake abreviado.
+     */
+    private void preconnect(URI uri) throws IOException {
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        String host = uri.getHost();
+        int port = uri.getPort() >= 0 ? uri.getPort() : secure ? 443 : 80;
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            if (secure) {
+                handshake(socket, host, port);
+            }
+        }
+        preconnects.incrementAndGet();
+    }
+
+    private static void handshake(Socket socket, String host, int port) throws IOException {
+        SSLContext context;
+        try {
+            context = SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (SSLSocket ssl = (SSLSocket) context.getSocketFactory().createSocket(socket, host, port, true)) {
+            SSLParameters parameters = ssl.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS"); // Sessão só de um certificado válido
+            ssl.setSSLParameters(parameters);
+            ssl.setSoTimeout(SESSION_TICKET_WAIT_MS);
+            ssl.startHandshake();
+            // No TLS 1.3 os tíquetes de sessão chegam depois do handshake e só
+            // são guardados numa leitura; sem requisição, o servidor não manda
+            // mais nada e a leitura termina pelo tempo limite
+            try {
+                ssl.getInputStream().read();
+            } catch (SocketTimeoutException e) {
+                // Esperado
+            }
+        }
+    }
+
+    /**
+     * Baixa o documento pelo cache, que o guarda se a resposta permitir
+     */
+    private void prefetch(String url) throws IOException {
+        URLConnection connection = httpCache.openConnection(new URL(url));
+        connection.setRequestProperty("Accept", "text/html,application/xhtml+xml");
+        long read = 0;
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                read += n;
+                if (read > MAX_PREFETCH_BYTES) {
+                    break; // Grande demais; fechar antes do fim descarta a gravação
+                }
+            }
+        } finally {
+            if (connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).disconnect();
+            }
+            prefetchedBytes.addAndGet(read);
+        }
+        prefetches.incrementAndGet();
+    }
+
+    private static URI toHttpUri(String url) {
+        try {
+            URI uri = new URI(url);
+            String scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                return null;
+            }
+            return uri;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.bl;
+
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Linha do tempo da inicialização: duração de cada fase (com a thread em que
+ * rodou) e marcos como a primeira janela e a primeira página carregada. Os
+ * tempos são relativos à entrada no main; cada fase é registrada no log ao
+ * terminar e pode ser consultada depois. Pode ser usada por qualquer thread.
+ */
+public class StartupTimeline {
+    private static final StartupTimeline INSTANCE = new StartupTimeline();
+
+    private final long originNanos = System.nanoTime();
+    private final long jvmStartToOriginMillis = System.currentTimeMillis()
+            - ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Phase> phases = new ArrayList<>();
+    private final Map<String, Long> milestones = new LinkedHashMap<>();
+
+    public static StartupTimeline get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Executa e cronometra uma fase
+     */
+    public void run(String name, Runnable task) {
+        call(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa e cronometra uma fase que produz um resultado
+     */
+    public <T> T call(String name, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            Phase phase = new Phase(name, Thread.currentThread().getName(), toMillis(start),
+                    (System.nanoTime() - start) / 1_000_000);
+            synchronized (this) {
+                phases.add(phase);
+            }
+            System.out.printf("[startup] %-28s %5d ms  (início em +%d ms, %s)%n", phase.getName(),
+                    phase.getDurationMillis(), phase.getStartMillis(), phase.getThread());
+        }
+    }
+
+    /**
+     * Registra um marco (apenas a primeira ocorrência de cada nome conta)
+     */
+    public void mark(String milestone) {
+        long at = toMillis(System.nanoTime());
+        synchronized (this) {
+            if (milestones.containsKey(milestone)) {
+                return;
+            }
+            milestones.put(milestone, at);
+        }
+        System.out.printf("[startup] marco: %-22s +%d ms (+%d ms desde o início da JVM)%n", milestone, at,
+                at + jvmStartToOriginMillis);
+    }
+
+    public synchronized List<Phase> getPhases() {
+        return Collections.unmodifiableList(new ArrayList<>(phases));
+    }
+
+    /**
+     * Marcos em milissegundos desde a entrada no main
+     */
+    public synchronized Map<String, Long> getMilestones() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(milestones));
+    }
+
+    /**
+     * Tempo entre o início da JVM e a entrada no main
+     */
+    public long getJvmStartToOriginMillis() {
+        return jvmStartToOriginMillis;
+    }
+
+    private long toMillis(long nanos) {
+        return (nanos - originNanos) / 1_000_000;
+    }
+
+    /**
+     * Uma fase cronometrada da inicialização
+     */
+    public static class Phase {
+        private final String name;
+        private final String thread;
+        private final long startMillis;
+        private final long durationMillis;
+
+        @ConstructorProperties({ "name", "thread", "startMillis", "durationMillis" })
+        public Phase(String name, String thread, long startMillis, long durationMillis) {
+            this.name = name;
+            this.thread = thread;
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Índice das sugestões da barra de URL, mantido incrementalmente a partir do
+ * histórico e dos favoritos.
+ *
+ * Usa duas árvores de prefixos compactadas (radix tries): uma sobre as URLs
+ * normalizadas (sem protocolo e sem "www.") e os hosts, outra sobre as
+ * palavras dos títulos e das URLs, o que equivale a um índice de n-gramas de
+ * borda. Cada nó guarda a maior pontuação da sua subárvore, e a busca
+ * percorre os nós em ordem de melhor pontuação, parando assim que tem
+ * resultados suficientes; o custo depende do limite pedido e não do tamanho
+ * do índice.
+ *
+ * Os métodos públicos são sincronizados: as atualizações chegam pela thread do
+ * Swing e as buscas rodam em segundo plano.
+ */
+public class SuggestionIndex {
+    private static final double BOOKMARK_SCORE = 1000;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKENS_PER_URL = 32;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Maior pontuação primeiro; empates resolvidos pela URL */
+    private static final Comparator<Doc> BY_SCORE = Comparator
+            .comparingDouble((Doc doc) -> doc.score).reversed()
+            .thenComparing(doc -> doc.url);
+
+    private final Trie urlTrie = new Trie();
+    private final Trie tokenTrie = new Trie();
+    private final Map<String, Doc> docs = new HashMap<>();
+
+    /**
+     * Insere ou atualiza uma URL do histórico com sua pontuação (frecência)
+     */
+    public synchronized void put(String url, String title, double historyScore) {
+        Doc doc = docs.get(url);
+        if (doc == null) {
+            doc = new Doc(url);
+            docs.put(url, doc);
+        } else {
+            unindex(doc);
+        }
+        doc.title = title;
+        doc.historyScore = historyScore;
+        doc.inHistory = true;
+        index(doc);
+    }
+
+    /**
+     * Marca ou desmarca uma URL como favorita; favoritos sempre aparecem à
+     * frente das entradas que só existem no histórico
+     */
+    public synchronized void setBookmarked(String url, boolean bookmarked) {
+        Doc doc = docs.get(url);
+        if (doc == null) {
+            if (!bookmarked) {
+                return;
+            }
+            doc = new Doc(url);
+            docs.put(url, doc);
+        } else {
+            unindex(doc);
+        }
+        doc.bookmarked = bookmarked;
+        if (doc.inHistory || doc.bookmarked) {
+            index(doc);
+        } else {
+            docs.remove(url);
+        }
+    }
+
+    /**
+     * Remove uma URL do histórico, mantendo-a se for favorita
+     */
+    public synchronized void removeHistory(String url) {
+        Doc doc = docs.get(url);
+        if (doc == null || !doc.inHistory) {
+            return;
+        }
+        unindex(doc);
+        doc.inHistory = false;
+        doc.historyScore = 0;
+        doc.title = null;
+        if (doc.bookmarked) {
+            index(doc);
+        } else {
+            docs.remove(url);
+        }
+    }
+
+    /**
+     * Remove todas as entradas do histórico, mantendo os favoritos
+     */
+    public synchronized void clearHistory() {
+        for (Doc doc : new ArrayList<>(docs.values())) {
+            unindex(doc);
+            doc.inHistory = false;
+            doc.historyScore = 0;
+            doc.title = null;
+            if (doc.bookmarked) {
+                index(doc);
+            } else {
+                docs.remove(doc.url);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return docs.size();
+    }
+
+    /**
+     * Retorna até {@code limit} URLs que casam com o texto digitado, da maior
+     * para a menor pontuação. Uma única palavra casa com o início da URL, do
+     * host ou de qualquer palavra do título/URL; várias palavras precisam
+     * casar todas.
+     */
+    public synchronized List<String> search(String input, int limit) {
+        String query = normalizeUrl(input.trim());
+        List<String> results = new ArrayList<>();
+        if (query.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        String[] words = WHITESPACE.split(query);
+        PriorityQueue<Object> queue = new PriorityQueue<>(
+                (a, b) -> Double.compare(scoreOf(b), scoreOf(a)));
+        Predicate<Doc> filter = doc -> true;
+        if (words.length == 1) {
+            addIfPresent(queue, urlTrie.find(query));
+            addIfPresent(queue, tokenTrie.find(query));
+        } else {
+            // Busca pela palavra mais longa (mais seletiva) e filtra pelas demais
+            String longest = words[0];
+            for (String word : words) {
+                if (word.length() > longest.length()) {
+                    longest = word;
+                }
+            }
+            addIfPresent(queue, tokenTrie.find(longest));
+            filter = doc -> matchesAll(doc, words);
+        }
+
+        Set<Doc> seen = new HashSet<>();
+        while (!queue.isEmpty() && results.size() < limit) {
+            Object next = queue.poll();
+            if (next instanceof DocCursor) {
+                // Documentos de um nó saem um a um, na ordem de pontuação
+                DocCursor cursor = (DocCursor) next;
+                Doc doc = cursor.current;
+                if (seen.add(doc) && filter.test(doc)) {
+                    results.add(doc.url);
+                }
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            } else {
+                Node node = (Node) next;
+                if (!node.docs.isEmpty()) {
+                    DocCursor cursor = new DocCursor(node.docs.iterator());
+                    cursor.advance();
+                    queue.add(cursor);
+                }
+                queue.addAll(node.children.values());
+            }
+        }
+        return results;
+    }
+
+    private void index(Doc doc) {
+        doc.score = doc.historyScore + (doc.bookmarked ? BOOKMARK_SCORE : 0);
+        String normalizedUrl = normalizeUrl(doc.url);
+        String host = HistoryEntry.normalizeHost(doc.url);
+        Set<String> urlKeys = new LinkedHashSet<>();
+        urlKeys.add(normalizedUrl);
+        if (!host.isEmpty()) {
+            urlKeys.add(host);
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(normalizedUrl, tokens);
+        if (doc.title != null) {
+            tokenize(doc.title.toLowerCase(Locale.ROOT), tokens);
+        }
+        doc.urlKeys = urlKeys.toArray(new String[0]);
+        doc.tokens = tokens.toArray(new String[0]);
+        for (String key : doc.urlKeys) {
+            urlTrie.insert(key, doc);
+        }
+        for (String token : doc.tokens) {
+            tokenTrie.insert(token, doc);
+        }
+    }
+
+    private void unindex(Doc doc) {
+        for (String key : doc.urlKeys) {
+            urlTrie.remove(key, doc);
+        }
+        for (String token : doc.tokens) {
+            tokenTrie.remove(token, doc);
+        }
+        doc.urlKeys = new String[0];
+        doc.tokens = new String[0];
+    }
+
+    private static boolean matchesAll(Doc doc, String[] words) {
+        for (String word : words) {
+            boolean matched = false;
+            for (String token : doc.tokens) {
+                if (token.startsWith(word)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void tokenize(String text, Set<String> tokens) {
+        int start = -1;
+        for (int i = 0; i <= text.length() && tokens.size() < MAX_TOKENS_PER_URL; i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Normaliza uma URL ou texto digitado: minúsculo, sem protocolo e sem "www."
+     */
+    static String normalizeUrl(String url) {
+        String normalized = url.toLowerCase(Locale.ROOT);
+        int schemeEnd = normalized.indexOf("://");
+        if (schemeEnd >= 0) {
+            normalized = normalized.substring(schemeEnd + 3);
+        }
+        return normalized.startsWith("www.") ? normalized.substring(4) : normalized;
+    }
+
+    private static void addIfPresent(PriorityQueue<Object> queue, Node node) {
+        if (node != null) {
+            queue.add(node);
+        }
+    }
+
+    private static double scoreOf(Object item) {
+        return item instanceof DocCursor ? ((DocCursor) item).current.score : ((Node) item).maxScore;
+    }
+
+    private static final class Doc {
+        final String url;
+        String title;
+        double historyScore;
+        double score;
+        boolean inHistory;
+        boolean bookmarked;
+        String[] urlKeys = new String[0];
+        String[] tokens = new String[0];
+
+        Doc(String url) {
+            this.url = url;
+        }
+    }
+
+    /**
+     * Posição na lista de documentos de um nó durante a busca
+     */
+    private static final class DocCursor {
+        final Iterator<Doc> iterator;
+        Doc current;
+
+        DocCursor(Iterator<Doc> iterator) {
+            this.iterator = iterator;
+        }
+
+        boolean advance() {
+            current = iterator.hasNext() ? iterator.next() : null;
+            return current != null;
+        }
+    }
+
+    private static final class Node {
+        String edge;
+        final Map<Character, Node> children = new HashMap<>(4);
+        // A pontuação de um documento só muda enquanto ele está fora do índice
+        final NavigableSet<Doc> docs = new TreeSet<>(BY_SCORE);
+        double maxScore;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        void recomputeMaxScore() {
+            double max = docs.isEmpty() ? 0 : docs.first().score;
+            for (Node child : children.values()) {
+                max = Math.max(max, child.maxScore);
+            }
+            maxScore = max;
+        }
+    }
+
+    /**
+     * Árvore de prefixos compactada: cada aresta guarda um trecho da chave
+     */
+    private static final class Trie {
+        private final Node root = new Node("");
+
+        void insert(String key, Doc doc) {
+            Node node = root;
+            node.maxScore = Math.max(node.maxScore, doc.score);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    child = new Node(key.substring(i));
+                    node.children.put(child.edge.charAt(0), child);
+                    node = child;
+                    break;
+                }
+                int common = commonPrefix(child.edge, key, i);
+                if (common < child.edge.length()) {
+                    // Divide a aresta no ponto em que a chave diverge
+                    Node middle = new Node(child.edge.substring(0, common));
+                    child.edge = child.edge.substring(common);
+                    middle.children.put(child.edge.charAt(0), child);
+                    middle.maxScore = child.maxScore;
+                    node.children.put(middle.edge.charAt(0), middle);
+                    child = middle;
+                }
+                node = child;
+                node.maxScore = Math.max(node.maxScore, doc.score);
+                i += common;
+            }
+            node.docs.add(doc);
+            node.maxScore = Math.max(node.maxScore, doc.score);
+        }
+
+        void remove(String key, Doc doc) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null || !key.startsWith(child.edge, i)) {
+                    return;
+                }
+                node = child;
+                path.add(node);
+                i += child.edge.length();
+            }
+            node.docs.remove(doc);
+
+            // Recalcula as pontuações de baixo para cima e remove folhas vazias
+            for (int p = path.size() - 1; p >= 0; p--) {
+                Node current = path.get(p);
+                if (p > 0 && current.docs.isEmpty() && current.children.isEmpty()) {
+                    path.get(p - 1).children.remove(current.edge.charAt(0));
+                } else {
+                    current.recomputeMaxScore();
+                }
+            }
+        }
+
+        /**
+         * Nó cuja subárvore contém todas as chaves iniciadas pelo prefixo
+         */
+        Node find(String prefix) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    return null;
+                }
+                int common = commonPrefix(child.edge, prefix, i);
+                if (i + common == prefix.length()) {
+                    return child; // O prefixo termina dentro (ou no fim) desta aresta
+                }
+                if (common < child.edge.length()) {
+                    return null;
+                }
+                node = child;
+                i += common;
+            }
+            return node;
+        }
+
+        private static int commonPrefix(String edge, String key, int offset) {
+            int max = Math.min(edge.length(), key.length() - offset);
+            int n = 0;
+            while (n < max && edge.charAt(n) == key.charAt(offset + n)) {
+                n++;
+            }
+            return n;
+        }
+    }
+}
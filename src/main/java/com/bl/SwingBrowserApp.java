@@ -17,26 +17,34 @@ import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.prefs.Preferences;
 
 import javax.imageio.ImageIO;
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
-import javax.swing.DefaultListModel;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JList;
@@ -50,7 +58,9 @@ import javax.swing.JSlider;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -60,58 +70,151 @@ import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Worker;
 import javafx.embed.swing.JFXPanel;
 import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.web.WebEngine;
+import javafx.scene.web.WebHistory;
 import javafx.scene.web.WebView;
 
 public class SwingBrowserApp extends JFrame {
     private static final String APP_NAME = "Java Browser";
     private static final String DEFAULT_HOME_PAGE = "https://www.google.com";
-    private static final String HISTORY_FILE = "browser_history.json";
-    private static final String BOOKMARKS_FILE = "browser_bookmarks.json";
+    private static final String HISTORY_FILE = "browser_history.json"; // Formato antigo, migrado para o journal
+    private static final String HISTORY_SNAPSHOT_FILE = "browser_history.snapshot";
+    private static final String HISTORY_JOURNAL_FILE = "browser_history.journal";
+    private static final String BOOKMARKS_FILE = "browser_bookmarks.json"; // Formato antigo, migrado para o journal
+    private static final String BOOKMARKS_SNAPSHOT_FILE = "browser_bookmarks.snapshot";
+    private static final String BOOKMARKS_JOURNAL_FILE = "browser_bookmarks.journal";
     private static final String PREFERENCES_NODE = "com.bl.advancedbrowser";
+    private static final int DEFAULT_HISTORY_CAPACITY = 20_000;
+    private static final int MIN_HISTORY_CAPACITY = 100;
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int BOOKMARKS_MENU_LIMIT = 15;
+    private static final int DEFAULT_HIBERNATE_AFTER_MINUTES = 10;
+    private static final int HIBERNATION_CHECK_INTERVAL_MS = 30_000;
+    private static final int DEFAULT_WEBVIEW_POOL_SIZE = 2;
+    private static final String HTTP_CACHE_DIR = "browser_cache";
+    private static final int DEFAULT_HTTP_CACHE_SIZE_MB = 256;
+    private static final String SESSION_FILE = "browser_session.json";
+    private static final String FILTERS_FILE = "browser_filters.txt";
+    private static final int SESSION_SAVE_INTERVAL_MS = 30_000;
+    private static final int PREFERENCES_FLUSH_DELAY_MS = 1000; // Junta as rajadas do slider de zoom
+    private static final long PERSISTENCE_SHUTDOWN_TIMEOUT_MS = 5000;
+    private static final int MAX_SESSION_HISTORY = 50; // Entradas de voltar/avançar salvas por aba
+    private static final int NAVIGATION_TIMING_CAPACITY = 500;
+    // Do início da navegação ao primeiro byte da resposta, ou -1 sem Navigation Timing
+    private static final String FIRST_BYTE_SCRIPT = "(function() {"
+            + "  var t = window.performance && window.performance.timing;"
+            + "  return t && t.navigationStart > 0 && t.responseStart > 0 ? t.responseStart - t.navigationStart : -1;"
+            + "})()";
 
     // Componentes da UI
     private JFXPanel fxPanel;
     private WebView webView;
-    private WebEngine webEngine;
+    private volatile WebEngine webEngine; // Da aba selecionada; lido também na thread do JavaFX
     private JTextField urlBar;
+    private UrlSuggestionPipeline urlSuggestions;
+    private SpeculativeLoader speculativeLoader; // null quando desativado
     private JButton goButton, backButton, forwardButton, refreshButton;
     private JButton homeButton, bookmarksButton, historyButton, settingsButton;
     private JProgressBar progressBar;
-    private JLabel statusLabel, zoomLabel, memoryLabel;
+    private JLabel statusLabel, zoomLabel, memoryLabel, blockedLabel;
     private JTabbedPane tabbedPane;
     private JSlider zoomSlider;
-    private Thread memoryUpdateThread;
+    private MemoryTelemetry memoryTelemetry;
+    private MemoryPressurePolicy memoryPressurePolicy;
+    private Timer hibernationTimer;
+    private Timer sessionTimer;
+    private BackgroundThrottler backgroundThrottler;
 
     // Dados
-    private List<String> history = new ArrayList<>();
-    private Set<String> bookmarks = new LinkedHashSet<>();
+    private HistoryStore historyStore;
+    private final SuggestionIndex suggestionIndex = new SuggestionIndex();
+    private BookmarkStore bookmarkStore; // null até terminar de carregar
+    private final List<Runnable> pendingHistoryUpdates = new ArrayList<>(); // Até o histórico carregar
     private Preferences prefs;
 
-    // Rastreamento de WebEngines por aba
-    private Map<Integer, WebEngine> tabEngines = new HashMap<>();
-    private Map<Integer, WebView> tabWebViews = new HashMap<>();
+    // Rastreamento das abas (id, WebEngine e componente)
+    private final TabRegistry tabs = new TabRegistry();
+    private final EngineEventDispatcher engineEvents = new EngineEventDispatcher(this::applyEngineUpdates);
+    private BrowserTab lastSelectedTab;
+    private WebViewPool webViewPool;
+    private final HttpDiskCache httpCache; // null quando desativado
+    private ContentBlocker contentBlocker; // null quando desativado ou ainda compilando
+    private final SessionStore sessionStore = new SessionStore(Paths.get(SESSION_FILE));
+    private final NavigationTimingStore navigationTimings = new NavigationTimingStore(NAVIGATION_TIMING_CAPACITY);
+    private final BrowserManagement management = new BrowserManagement();
+    private final PersistenceService persistence = new PersistenceService();
+    private final TabSwitchMetrics tabSwitchMetrics = new TabSwitchMetrics();
+    private boolean restoringSession; // Abas da sessão sendo recriadas; seleção não restaura
+    private boolean firstPageMarked; // Thread do JavaFX
 
     // Configurações de dimensionamento
     private float scalingFactor = 1.0f;
     private double currentZoom = 1.0;
 
-    public SwingBrowserApp() {
-        loadPreferences();
-        configureScaling();
-        configureWindow();
-        loadData();
-        setupLookAndFeel();
-        createComponents();
-        setupLayout();
-        setupListeners();
-        setupWebView();
+    /**
+     * @param historyLoading   histórico sendo carregado em segundo plano
+     * @param bookmarksLoading favoritos sendo carregados em segundo plano
+     * @param iconLoading      ícone da janela sendo decodificado em segundo plano
+     * @param httpCache        cache HTTP instalado no main, ou null se desativado
+     */
+    public SwingBrowserApp(CompletableFuture<HistoryStore> historyLoading,
+            CompletableFuture<BookmarkStore> bookmarksLoading, CompletableFuture<java.awt.Image> iconLoading,
+            HttpDiskCache httpCache) {
+        this.httpCache = httpCache;
+        StartupTimeline timeline = StartupTimeline.get();
+        timeline.run("preferências e escala", () -> {
+            loadPreferences();
+            configureScaling();
+        });
+        backgroundThrottler = new BackgroundThrottler(isBackgroundThrottlingEnabled());
+        timeline.run("janela", this::configureWindow);
+        iconLoading.thenAccept(icon -> SwingUtilities.invokeLater(() -> setIconImage(icon)));
+        timeline.run("fontes", this::updateUIFonts);
+        timeline.run("componentes", () -> {
+            createComponents();
+            setupLayout();
+            setupListeners();
+        });
+        SessionStore.Session session = timeline.call("sessão", sessionStore::load);
+        if (session == null) {
+            timeline.run("primeira aba", this::setupWebView);
+        }
+        setupWebViewPool();
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         updateComponentSizes();
         startMemoryMonitor(); // Inicia monitoramento de memória
+        startHibernationMonitor(); // Hiberna abas ociosas em segundo plano
+        if (session != null) {
+            timeline.run("abas da sessão", () -> restoreSession(session));
+        }
+        startSessionSaver();
+        // Saídas sem fechar a janela (sinal do sistema) também gravam o que estiver pendente
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> persistence.shutdown(PERSISTENCE_SHUTDOWN_TIMEOUT_MS),
+                "PersistenceService-shutdown"));
+        registerManagementBeans();
+        finishDataLoading(historyLoading, bookmarksLoading);
+    }
+
+    /**
+     * Expõe abas, bancos de dados, memória, caches e a inicialização por JMX
+     * (com.bl:type=...), para inspeção com o JConsole local
+     */
+    private void registerManagementBeans() {
+        management.register("Tabs", new BrowserManagement.Tabs(tabs, this::getActiveTab, this::hibernateTab,
+                navigationTimings, backgroundThrottler, tabSwitchMetrics));
+        management.register("Stores", new BrowserManagement.Stores(() -> historyStore, () -> bookmarkStore,
+                navigationTimings, persistence));
+        management.register("Memory", new BrowserManagement.BrowserMemory(memoryTelemetry, memoryPressurePolicy,
+                webViewPool));
+        management.register("Caches", new BrowserManagement.Caches(httpCache, () -> contentBlocker,
+                () -> speculativeLoader, engineEvents));
+        management.register("Startup", new BrowserManagement.Startup(StartupTimeline.get()));
     }
 
     private void configureScaling() {
@@ -142,20 +245,15 @@ public class SwingBrowserApp extends JFrame {
 
         setLocationRelativeTo(null);
         setMinimumSize(new Dimension((int) (800 * scalingFactor), (int) (600 * scalingFactor)));
-
-        // Tenta carregar o ícone
-        try {
-            setIconImage(loadAppIcon());
-        } catch (Exception e) {
-            System.err.println("Erro ao carregar ícone: " + e.getMessage());
-        }
     }
 
-    private java.awt.Image loadAppIcon() throws IOException {
-        try (InputStream iconStream = getClass().getResourceAsStream("/image/iconeb2.png")) {
+    private static java.awt.Image loadAppIcon() {
+        try (InputStream iconStream = SwingBrowserApp.class.getResourceAsStream("/image/iconeb2.png")) {
             if (iconStream != null) {
                 return ImageIO.read(iconStream);
             }
+        } catch (IOException e) {
+            System.err.println("Erro ao carregar ícone: " + e.getMessage());
         }
         return null;
     }
@@ -164,48 +262,163 @@ public class SwingBrowserApp extends JFrame {
         prefs = Preferences.userRoot().node(PREFERENCES_NODE);
     }
 
-    private void loadData() {
-        loadHistory();
-        loadBookmarks();
+    /**
+     * Aguarda o histórico e os favoritos carregados em segundo plano, monta o
+     * índice de sugestões ainda fora da thread do Swing e só então os entrega
+     * à interface. Até lá, histórico e favoritos ficam desabilitados e as
+     * visitas são enfileiradas.
+     */
+    private void finishDataLoading(CompletableFuture<HistoryStore> historyLoading,
+            CompletableFuture<BookmarkStore> bookmarksLoading) {
+        historyButton.setEnabled(false);
+        bookmarksButton.setEnabled(false);
+        historyLoading.thenAcceptBoth(bookmarksLoading, (loadedHistory, loadedBookmarks) -> {
+            StartupTimeline.get().run("índice de sugestões",
+                    () -> buildSuggestionIndex(loadedHistory, loadedBookmarks));
+            SwingUtilities.invokeLater(() -> {
+                historyStore = loadedHistory;
+                historyStore.setEvictionListener(entry -> suggestionIndex.removeHistory(entry.getUrl()));
+                bookmarkStore = loadedBookmarks;
+                for (Runnable update : pendingHistoryUpdates) {
+                    update.run();
+                }
+                pendingHistoryUpdates.clear();
+                historyButton.setEnabled(true);
+                bookmarksButton.setEnabled(true);
+                StartupTimeline.get().mark("dados carregados");
+            });
+        }).exceptionally(e -> {
+            System.err.println("Erro ao carregar dados: " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Aplica uma alteração no histórico agora ou, se ele ainda está sendo
+     * carregado, assim que terminar
+     */
+    private void withHistory(Runnable update) {
+        if (historyStore != null) {
+            update.run();
+        } else {
+            pendingHistoryUpdates.add(update);
+        }
+    }
+
+    /**
+     * Monta o índice de sugestões da barra de URL a partir do histórico e dos favoritos
+     */
+    private void buildSuggestionIndex(HistoryStore store, BookmarkStore bookmarkedUrls) {
+        long now = System.currentTimeMillis();
+        for (HistoryEntry entry : store.getEntries()) {
+            suggestionIndex.put(entry.getUrl(), entry.getTitle(), HistoryStore.frecency(entry, now));
+        }
+        for (Bookmark bookmark : bookmarkedUrls.getBookmarks()) {
+            suggestionIndex.setBookmarked(bookmark.getUrl(), true);
+        }
     }
 
-    private void loadHistory() {
-        if (Files.exists(Paths.get(HISTORY_FILE))) {
+    private static HistoryStore loadHistory() {
+        int capacity = Preferences.userRoot().node(PREFERENCES_NODE).getInt("historyCapacity",
+                DEFAULT_HISTORY_CAPACITY);
+        HistoryStore store = new HistoryStore(new RecordJournal(Paths.get(HISTORY_SNAPSHOT_FILE),
+                Paths.get(HISTORY_JOURNAL_FILE), "HistoryJournal"), capacity);
+        if (store.exists()) {
+            try {
+                store.load();
+            } catch (IOException e) {
+                System.err.println("Erro ao carregar histórico: " + e.getMessage());
+            }
+        } else if (Files.exists(Paths.get(HISTORY_FILE))) {
+            // Migra o histórico salvo no formato JSON antigo (sem horários) para o journal
             try (FileReader reader = new FileReader(HISTORY_FILE)) {
-                history = new Gson().fromJson(reader, new TypeToken<List<String>>() {
+                List<String> legacyHistory = new Gson().fromJson(reader, new TypeToken<List<String>>() {
                 }.getType());
+                if (legacyHistory != null) {
+                    for (String url : legacyHistory) {
+                        store.recordVisit(url, 0);
+                    }
+                }
+                store.compact();
             } catch (IOException e) {
                 System.err.println("Erro ao carregar histórico: " + e.getMessage());
             }
         }
-        if (history == null) {
-            history = new ArrayList<>();
-        }
+        return store;
     }
 
-    private void loadBookmarks() {
-        if (Files.exists(Paths.get(BOOKMARKS_FILE))) {
+    private static BookmarkStore loadBookmarks() {
+        BookmarkStore store = new BookmarkStore(new RecordJournal(Paths.get(BOOKMARKS_SNAPSHOT_FILE),
+                Paths.get(BOOKMARKS_JOURNAL_FILE), "BookmarksJournal"));
+        if (store.exists()) {
+            try {
+                store.load();
+            } catch (IOException e) {
+                System.err.println("Erro ao carregar favoritos: " + e.getMessage());
+            }
+        } else if (Files.exists(Paths.get(BOOKMARKS_FILE))) {
+            // Migra os favoritos salvos no formato JSON antigo (apenas URLs) para o journal
             try (FileReader reader = new FileReader(BOOKMARKS_FILE)) {
-                bookmarks = new Gson().fromJson(reader, new TypeToken<LinkedHashSet<String>>() {
+                List<String> legacyBookmarks = new Gson().fromJson(reader, new TypeToken<List<String>>() {
                 }.getType());
+                if (legacyBookmarks != null) {
+                    store.importUrls(legacyBookmarks);
+                }
             } catch (IOException e) {
                 System.err.println("Erro ao carregar favoritos: " + e.getMessage());
             }
         }
-        if (bookmarks == null) {
-            bookmarks = new LinkedHashSet<>();
-        }
+        return store;
     }
 
-    private void setupLookAndFeel() {
+    private static void setupLookAndFeel() {
         try {
             FlatDarkLaf.setup();
-            updateUIFonts();
         } catch (Exception ex) {
             System.err.println("Failed to initialize LaF");
         }
     }
 
+    /**
+     * Instala o cache HTTP em disco na frente de todas as conexões http/https.
+     * Precisa rodar antes de o WebEngine abrir a primeira conexão.
+     */
+    private static HttpDiskCache installHttpCache() {
+        int sizeMb = Preferences.userRoot().node(PREFERENCES_NODE).getInt("httpCacheSizeMb",
+                DEFAULT_HTTP_CACHE_SIZE_MB);
+        if (sizeMb <= 0) {
+            return null;
+        }
+        HttpDiskCache cache = new HttpDiskCache(Paths.get(HTTP_CACHE_DIR), sizeMb * 1024L * 1024L);
+        try {
+            URL.setURLStreamHandlerFactory(cache.handlerFactory());
+        } catch (Error e) {
+            System.err.println("Erro ao instalar cache HTTP: " + e.getMessage());
+            return null;
+        }
+        // O carregador HTTP/2 do WebKit usa o HttpClient direto e ignoraria o cache
+        System.setProperty("com.sun.webkit.useHTTP2Loader", "false");
+        return cache;
+    }
+
+    /**
+     * Inicia o runtime do JavaFX sem esperar pelo primeiro JFXPanel
+     */
+    private static void startJavaFxRuntime() {
+        // Abas hibernadas e contidas ficam sem cena; o runtime não deve
+        // encerrar sozinho, mesmo que um JFXPanel o tenha iniciado antes
+        Platform.setImplicitExit(false);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+            started.await();
+        } catch (IllegalStateException e) {
+            // Um JFXPanel já iniciou o runtime
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void updateUIFonts() {
         Font baseFont = UIManager.getFont("Button.font");
         Font scaledFont = deriveFont(baseFont);
@@ -229,24 +442,13 @@ public class SwingBrowserApp extends JFrame {
         urlBar = new JTextField();
         urlBar.setFont(deriveFont(urlBar.getFont()));
         urlBar.setToolTipText("Digite a URL e pressione Enter");
-        
-        // Adicionar listener para sugestões
-        urlBar.getDocument().addDocumentListener(new DocumentListener() {
-            @Override
-            public void insertUpdate(DocumentEvent e) {
-                showUrlSuggestions();
-            }
 
-            @Override
-            public void removeUpdate(DocumentEvent e) {
-                showUrlSuggestions();
-            }
-
-            @Override
-            public void changedUpdate(DocumentEvent e) {
-                showUrlSuggestions();
-            }
-        });
+        // Sugestões calculadas em segundo plano enquanto o usuário digita
+        urlSuggestions = new UrlSuggestionPipeline(urlBar, suggestionIndex, MAX_SUGGESTIONS,
+                url -> UrlUtils.shortenUrl(url, 60));
+        urlSuggestions.setFont(deriveFont(urlBar.getFont()));
+        configureSpeculation();
+        configureContentBlocker(true);
 
         // Botões de navegação com ícones dimensionados
         backButton = createScaledButton("◀", "Voltar");
@@ -269,6 +471,10 @@ public class SwingBrowserApp extends JFrame {
         statusLabel.setFont(deriveFont(statusLabel.getFont()));
         statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 5));
 
+        blockedLabel = new JLabel("🛡 0");
+        blockedLabel.setFont(deriveFont(blockedLabel.getFont()));
+        blockedLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 5));
+
         // Painel de abas
         tabbedPane = new JTabbedPane();
         tabbedPane.setFont(deriveFont(tabbedPane.getFont()));
@@ -342,7 +548,13 @@ public class SwingBrowserApp extends JFrame {
         JPanel memoryPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
         memoryLabel = new JLabel("💾 -- MB");
         memoryLabel.setFont(deriveFont(memoryLabel.getFont()).deriveFont(Font.BOLD));
-        memoryLabel.setToolTipText("Uso de memória do navegador (atualizado a cada 2s)");
+        memoryLabel.setToolTipText("Uso de memória do navegador - clique para a telemetria e o desempenho das páginas");
+        memoryLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showMemoryMenu();
+            }
+        });
         memoryPanel.add(memoryLabel);
 
         // Adiciona o painel de zoom e memória à direita da barra de navegação
@@ -357,6 +569,7 @@ public class SwingBrowserApp extends JFrame {
         JPanel statusPanel = new JPanel(new BorderLayout());
         statusPanel.add(progressBar, BorderLayout.CENTER);
         statusPanel.add(statusLabel, BorderLayout.EAST);
+        statusPanel.add(blockedLabel, BorderLayout.WEST);
 
         // Layout principal
         JPanel contentPanel = new JPanel(new BorderLayout());
@@ -368,36 +581,27 @@ public class SwingBrowserApp extends JFrame {
     }
 
     private void createNewTab() {
-        JFXPanel newFxPanel = new JFXPanel();
+        long openStart = System.nanoTime();
+        WebViewPool.PooledWebView pooled = webViewPool.take();
+        JFXPanel newFxPanel = pooled != null ? pooled.getPanel() : new JFXPanel();
 
         Platform.runLater(() -> {
             try {
-                WebView newWebView = new WebView();
+                WebView newWebView;
+                if (pooled != null) {
+                    // WebView do estoque: só reaplica as configurações atuais
+                    newWebView = pooled.getWebView();
+                    applyWebViewSettings(newWebView, currentZoom);
+                } else {
+                    newWebView = buildWebView(newFxPanel, currentZoom);
+                }
                 WebEngine newWebEngine = newWebView.getEngine();
+                measureTabOpen(newWebEngine, openStart, pooled != null);
 
-                // Configurações do WebView com zoom inicial
-                newWebView.setZoom(currentZoom);
-                newWebView.setFontScale(currentZoom * scalingFactor);
-                newWebEngine.setJavaScriptEnabled(isJavaScriptEnabled());
-                newWebEngine.setUserAgent(getUserAgent());
-
-                // Configura listeners para a nova aba
-                setupWebEngineListeners(newWebEngine);
-
-                // Cria a cena JavaFX
-                BorderPane webPane = new BorderPane(newWebView);
-                Scene scene = new Scene(webPane);
-                newFxPanel.setScene(scene);
-
-                // Adiciona a nova aba
-                SwingUtilities.invokeLater(() -> {
-                    addNewTab("Nova aba", newFxPanel);
-                    // Armazena o engine e webview da nova aba
-                    int newTabIndex = tabbedPane.getTabCount() - 1;
-                    storeTabEngine(newTabIndex, newWebEngine, newWebView);
-                    // Carrega a página inicial na nova aba
-                    newWebEngine.load(getHomePage());
-                });
+                // Adiciona a nova aba antes de carregar, para que os eventos do engine a encontrem
+                SwingUtilities.invokeLater(() -> addNewTab("Nova aba", newFxPanel, newWebView));
+                // Carrega a página inicial na nova aba
+                newWebEngine.load(getHomePage());
             } catch (Exception e) {
                 SwingUtilities.invokeLater(() -> {
                     JOptionPane.showMessageDialog(SwingBrowserApp.this,
@@ -408,67 +612,122 @@ public class SwingBrowserApp extends JFrame {
         });
     }
 
-    private void setupWebEngineListeners(WebEngine engine) {
-        // Listener para atualizar a URL na barra de endereço
-        engine.locationProperty().addListener((obs, oldUrl, newUrl) -> {
-            SwingUtilities.invokeLater(() -> {
-                // Atualiza apenas se for a aba selecionada
-                if (tabbedPane.getSelectedComponent() != null &&
-                        tabbedPane.getSelectedComponent() instanceof JPanel &&
-                        ((JPanel) tabbedPane.getSelectedComponent()).getComponent(0) instanceof JFXPanel &&
-                        ((JFXPanel) ((JPanel) tabbedPane.getSelectedComponent()).getComponent(0)).getScene() != null &&
-                        ((JFXPanel) ((JPanel) tabbedPane.getSelectedComponent()).getComponent(0)).getScene()
-                                .getRoot() instanceof BorderPane
-                        &&
-                        ((BorderPane) ((JFXPanel) ((JPanel) tabbedPane.getSelectedComponent()).getComponent(0))
-                                .getScene()
-                                .getRoot()).getCenter() instanceof WebView
-                        &&
-                        ((WebView) ((BorderPane) ((JFXPanel) ((JPanel) tabbedPane.getSelectedComponent())
-                                .getComponent(0))
-                                .getScene().getRoot()).getCenter()).getEngine() == engine) {
-
-                    urlBar.setText(newUrl);
-                    addToHistory(newUrl);
-                    updateNavButtons();
+    /**
+     * Prepara o estoque de WebViews usado para abrir abas rapidamente
+     */
+    private void setupWebViewPool() {
+        webViewPool = new WebViewPool(prefs.getInt("webViewPoolSize", DEFAULT_WEBVIEW_POOL_SIZE),
+                panel -> buildWebView(panel, currentZoom));
+        webViewPool.scheduleRefill();
+    }
+
+    /**
+     * Mede o tempo entre o pedido de nova aba e o fim do carregamento da
+     * página inicial, e o reporta na barra de status e nas estatísticas do
+     * estoque
+     */
+    private void measureTabOpen(WebEngine engine, long openStart, boolean pooled) {
+        engine.getLoadWorker().stateProperty().addListener(new ChangeListener<Worker.State>() {
+            @Override
+            public void changed(ObservableValue<? extends Worker.State> obs, Worker.State oldState,
+                    Worker.State newState) {
+                if (newState != Worker.State.SUCCEEDED && newState != Worker.State.FAILED
+                        && newState != Worker.State.CANCELLED) {
+                    return;
                 }
-            });
+                obs.removeListener(this);
+                long elapsedMillis = (System.nanoTime() - openStart) / 1_000_000;
+                SwingUtilities.invokeLater(() -> {
+                    webViewPool.recordOpenLatency(elapsedMillis, pooled);
+                    statusLabel.setText(String.format("Nova aba aberta em %d ms", elapsedMillis));
+                });
+            }
         });
+    }
 
-        // Listener para atualizar o título da aba e da janela
-        engine.titleProperty().addListener((obs, oldTitle, newTitle) -> {
-            SwingUtilities.invokeLater(() -> {
-                // Atualiza o título da aba correspondente
-                for (int i = 0; i < tabbedPane.getTabCount(); i++) {
-                    Component tabComponent = tabbedPane.getComponentAt(i);
-                    if (tabComponent instanceof JPanel) {
-                        Component webComponent = ((JPanel) tabComponent).getComponent(0);
-                        if (webComponent instanceof JFXPanel) {
-                            JFXPanel fxPanel = (JFXPanel) webComponent;
-                            if (fxPanel.getScene() != null &&
-                                    fxPanel.getScene().getRoot() instanceof BorderPane &&
-                                    ((BorderPane) fxPanel.getScene().getRoot()).getCenter() instanceof WebView &&
-                                    ((WebView) ((BorderPane) fxPanel.getScene().getRoot()).getCenter())
-                                            .getEngine() == engine) {
-
-                                updateTabTitle(i, newTitle);
-                                break;
-                            }
-                        }
-                    }
+    private void markFirstPage(WebEngine engine) {
+        engine.getLoadWorker().stateProperty().addListener(new ChangeListener<Worker.State>() {
+            @Override
+            public void changed(ObservableValue<? extends Worker.State> obs, Worker.State oldState,
+                    Worker.State newState) {
+                if (newState == Worker.State.SUCCEEDED) {
+                    obs.removeListener(this);
+                    StartupTimeline.get().mark("primeira página");
                 }
-            });
+            }
         });
+    }
+
+    /**
+     * Cria um WebView configurado (zoom, JavaScript, user agent e listeners) e o
+     * instala no JFXPanel informado. Deve ser chamado na thread do JavaFX.
+     */
+    private WebView buildWebView(JFXPanel panel, double zoom) {
+        WebView newWebView = new WebView();
+        WebEngine newWebEngine = newWebView.getEngine();
+        applyWebViewSettings(newWebView, zoom);
+
+        // Configura listeners para a aba
+        setupWebEngineListeners(newWebEngine);
+
+        // O zoom entra no estado publicado da aba
+        engineEvents.zoomChanged(newWebEngine, newWebView.getZoom());
+        newWebView.zoomProperty().addListener(
+                (obs, oldZoom, newZoom) -> engineEvents.zoomChanged(newWebEngine, newZoom.doubleValue()));
+
+        // Cria a cena JavaFX
+        BorderPane webPane = new BorderPane(newWebView);
+        Scene scene = new Scene(webPane);
+        panel.setScene(scene);
+        return newWebView;
+    }
 
-        // Listener para a barra de progresso
-        engine.getLoadWorker().progressProperty().addListener((obs, oldProgress, newProgress) -> {
+    /**
+     * Aplica zoom, escala de fonte, JavaScript e user agent atuais ao WebView.
+     * Deve ser chamado na thread do JavaFX.
+     */
+    private void applyWebViewSettings(WebView view, double zoom) {
+        view.setZoom(zoom);
+        view.setFontScale(zoom * scalingFactor);
+        view.getEngine().setJavaScriptEnabled(isJavaScriptEnabled());
+        view.getEngine().setUserAgent(getUserAgent());
+    }
+
+    private void setupWebEngineListeners(WebEngine engine) {
+        // Localização, título, progresso, status e navegação seguem agrupados para o Swing
+        engine.locationProperty().addListener((obs, oldUrl, newUrl) -> engineEvents.locationChanged(engine, newUrl));
+        engine.titleProperty().addListener(
+                (obs, oldTitle, newTitle) -> engineEvents.titleChanged(engine, engine.getLocation(), newTitle));
+        engine.getLoadWorker().progressProperty().addListener(
+                (obs, oldProgress, newProgress) -> engineEvents.progressChanged(engine, newProgress.doubleValue()));
+
+        // Telemetria: tamanho do DOM e heap a cada página carregada
+        engine.getLoadWorker().stateProperty().addListener((obs, oldState, newState) -> {
+            if (newState != Worker.State.SUCCEEDED) {
+                return;
+            }
+            String location = engine.getLocation();
+            int domNodes = -1;
+            try {
+                domNodes = (int) toDouble(engine.executeScript("document.getElementsByTagName('*').length"));
+            } catch (Exception e) {
+                // Página sem JavaScript: registra sem a contagem
+            }
+            int nodes = domNodes;
             SwingUtilities.invokeLater(() -> {
-                int progress = (int) (newProgress.doubleValue() * 100);
-                progressBar.setValue(progress);
-                statusLabel.setText(progress == 100 ? "Carregamento completo" : "Carregando... " + progress + "%");
+                BrowserTab tab = tabs.findByEngine(engine);
+                if (tab != null) {
+                    memoryTelemetry.recordTabEvent(tab.getId(), "load", location, nodes);
+                }
             });
         });
 
+        // Tempos de cada navegação para o painel de desempenho
+        new NavigationRecorder(engine, () -> engine == webEngine, timing -> SwingUtilities.invokeLater(() -> {
+            BrowserTab tab = tabs.findByEngine(engine);
+            navigationTimings.add(tab != null ? timing.withTabId(tab.getId()) : timing);
+        }));
+
         // Listener para erros de carregamento
         engine.getLoadWorker().exceptionProperty().addListener((obs, oldException, newException) -> {
             if (newException != null) {
@@ -481,55 +740,75 @@ public class SwingBrowserApp extends JFrame {
             }
         });
 
-        // Listener para mensagens de status
-        engine.setOnStatusChanged(event -> {
-            SwingUtilities.invokeLater(() -> {
-                statusLabel.setText(event.getData());
-            });
-        });
-
-        // Listener para atualizar botões de navegação
-        engine.getHistory().currentIndexProperty().addListener((obs, oldIndex, newIndex) -> {
-            SwingUtilities.invokeLater(() -> {
-                updateNavButtons();
-            });
-        });
+        engine.setOnStatusChanged(event -> engineEvents.statusChanged(engine, event.getData()));
+        engine.getHistory().currentIndexProperty()
+                .addListener((obs, oldIndex, newIndex) -> engineEvents.historyChanged(engine));
     }
 
-    private void updateTabTitle(int tabIndex, String title) {
-        if (tabIndex >= 0 && tabIndex < tabbedPane.getTabCount()) {
-            // Truncar título a 10 caracteres
-            String truncatedTitle = truncateTitle(title, 10);
-
-            Component tabComponent = tabbedPane.getTabComponentAt(tabIndex);
-            if (tabComponent instanceof JPanel) {
-                for (Component c : ((JPanel) tabComponent).getComponents()) {
-                    if (c instanceof JLabel) {
-                        ((JLabel) c).setText(truncatedTitle);
-                        ((JLabel) c).setToolTipText(title); // Mostrar título completo no tooltip
-                        break;
-                    }
+    /**
+     * Aplica as mudanças agrupadas dos engines desde o último quadro
+     */
+    private void applyEngineUpdates(List<EngineEventDispatcher.EngineUpdate> updates) {
+        for (EngineEventDispatcher.EngineUpdate update : updates) {
+            BrowserTab tab = tabs.findByEngine(update.getEngine());
+            if (tab == null) {
+                continue; // Aba fechada ou hibernada
+            }
+            boolean selected = tab.getPanel() == tabbedPane.getSelectedComponent();
+            if (!update.getLocations().isEmpty()) {
+                tab.setLocation(update.getLocations().get(update.getLocations().size() - 1));
+                if (selected) {
+                    updateBlockedLabel(tab);
                 }
             }
-
-            // Atualiza o título da janela se for a aba selecionada
-            if (tabbedPane.getSelectedIndex() == tabIndex) {
-                setTitle(title + " - " + APP_NAME);
+            if (selected && !update.getLocations().isEmpty()) {
+                urlBar.setText(update.getLocations().get(update.getLocations().size() - 1));
+                for (String location : update.getLocations()) {
+                    addToHistory(location);
+                }
+            }
+            if (update.isTitleChanged()) {
+                String title = update.getTitle();
+                String location = update.getTitleLocation();
+                updateTabTitle(tab, title);
+                withHistory(() -> indexHistoryEntry(historyStore.updateTitle(location, title)));
+            }
+            if (!selected) {
+                continue; // Progresso, status e navegação só interessam para a aba visível
+            }
+            if (update.getProgress() != null) {
+                int progress = (int) (update.getProgress() * 100);
+                progressBar.setValue(progress);
+                statusLabel.setText(progress == 100 ? "Carregamento completo" : "Carregando... " + progress + "%");
+            }
+            if (update.getStatus() != null) {
+                statusLabel.setText(update.getStatus());
+            }
+            if (update.getCanGoBack() != null) {
+                backButton.setEnabled(update.getCanGoBack() || tab.hasSessionBack());
+                forwardButton.setEnabled(update.getCanGoForward() || tab.hasSessionForward());
             }
         }
+        statusLabel.setToolTipText(engineEvents.getSummary());
     }
 
-    private String truncateTitle(String title, int maxLength) {
-        if (title == null || title.isEmpty()) {
-            return "Nova aba";
-        }
-        if (title.length() <= maxLength) {
-            return title;
+    private void updateTabTitle(BrowserTab tab, String title) {
+        // Truncar título a 10 caracteres
+        String truncatedTitle = UrlUtils.truncateTitle(title, 10);
+
+        tab.setTitle(title);
+        tab.getTitleLabel().setText(truncatedTitle);
+        tab.getTitleLabel().setToolTipText(title); // Mostrar título completo no tooltip
+
+        // Atualiza o título da janela se for a aba selecionada
+        if (tab.getPanel() == tabbedPane.getSelectedComponent()) {
+            setTitle(title + " - " + APP_NAME);
         }
-        return title.substring(0, maxLength - 2) + "..";
     }
 
     private void updateZoom() {
+        prefs.putDouble("zoomLevel", currentZoom);
+        savePreferences();
         Platform.runLater(() -> {
             WebView currentWebView = getActiveWebView();
             if (currentWebView != null) {
@@ -538,9 +817,6 @@ public class SwingBrowserApp extends JFrame {
 
                 // Ajusta o tamanho da fonte baseado no zoom
                 currentWebView.setFontScale(currentZoom * scalingFactor);
-
-                // Salva o zoom nas preferências
-                prefs.putDouble("zoomLevel", currentZoom);
             }
         });
     }
@@ -549,41 +825,78 @@ public class SwingBrowserApp extends JFrame {
      * Retorna o WebView da aba selecionada no momento
      */
     private WebView getActiveWebView() {
-        int selectedIndex = tabbedPane.getSelectedIndex();
-        if (selectedIndex >= 0) {
-            return tabWebViews.get(selectedIndex);
+        BrowserTab activeTab = getActiveTab();
+        if (activeTab != null) {
+            return activeTab.getWebView();
         }
         return webView; // Fallback para o webview principal
     }
 
+    /**
+     * Retorna a aba selecionada no momento
+     */
+    private BrowserTab getActiveTab() {
+        return tabs.findByComponent(tabbedPane.getSelectedComponent());
+    }
+
     private void setupListeners() {
         // Listener para mudança de aba - atualiza webEngine e webView ativos
         tabbedPane.addChangeListener(e -> {
-            int selectedIndex = tabbedPane.getSelectedIndex();
-            if (selectedIndex >= 0) {
-                WebEngine newEngine = tabEngines.get(selectedIndex);
-                WebView newWebView = tabWebViews.get(selectedIndex);
+            if (restoringSession) {
+                return; // A aba selecionada é restaurada ao fim da sessão
+            }
+            long switchStart = System.nanoTime();
+            BrowserTab selectedTab = getActiveTab();
+            if (lastSelectedTab != null) {
+                lastSelectedTab.markActive();
+                // A aba que saiu da frente passa a rodar contida, se continuar aberta
+                if (lastSelectedTab != selectedTab && tabs.findById(lastSelectedTab.getId()) == lastSelectedTab) {
+                    backgroundThrottler.schedule(lastSelectedTab);
+                }
+            }
+            lastSelectedTab = selectedTab;
+
+            if (selectedTab != null) {
+                selectedTab.markActive();
+                backgroundThrottler.resume(selectedTab);
+                if (selectedTab.isHibernated()) {
+                    restoreTab(selectedTab);
+                    return;
+                }
+
+                WebEngine newEngine = selectedTab.getEngine();
+                WebView newWebView = selectedTab.getWebView();
 
                 if (newEngine != null && newWebView != null) {
                     webEngine = newEngine;
                     webView = newWebView;
 
-                    // Atualizar barra de URL com a URL da aba selecionada
-                    Platform.runLater(() -> {
-                        String currentUrl = newEngine.getLocation();
-                        if (currentUrl != null && !currentUrl.isEmpty()) {
-                            urlBar.setText(currentUrl);
-                        }
-                    });
-
-                    // Atualizar status dos botões de navegação
-                    updateNavButtons();
+                    // URL, título, botões e progresso saem do último estado publicado pela aba,
+                    // sem ida à thread do JavaFX; só uma aba que ainda não gerou eventos a consulta
+                    TabState state = engineEvents.getState(newEngine);
+                    if (state != null) {
+                        applyTabState(selectedTab, state);
+                    } else {
+                        Platform.runLater(() -> {
+                            String currentUrl = newEngine.getLocation();
+                            if (currentUrl != null && !currentUrl.isEmpty()) {
+                                SwingUtilities.invokeLater(() -> urlBar.setText(currentUrl));
+                            }
+                        });
+                        updateNavButtons();
+                    }
+                    updateBlockedLabel(selectedTab);
 
-                    // Atualizar zoom
-                    Platform.runLater(() -> {
-                        newWebView.setZoom(currentZoom);
-                        zoomLabel.setText(String.format("Zoom: %d%%", (int) (currentZoom * 100)));
-                    });
+                    // O zoom é global; o WebView só é tocado se estiver diferente
+                    zoomLabel.setText(String.format("Zoom: %d%%", (int) (currentZoom * 100)));
+                    if (state == null || state.getZoom() != currentZoom) {
+                        Platform.runLater(() -> newWebView.setZoom(currentZoom));
+                    }
+                    if (state != null) {
+                        tabSwitchMetrics.record(System.nanoTime() - switchStart);
+                    } else {
+                        tabSwitchMetrics.recordWithoutState();
+                    }
                 }
             }
         });
@@ -592,7 +905,11 @@ public class SwingBrowserApp extends JFrame {
         ActionListener loadUrlAction = e -> {
             String url = urlBar.getText().trim();
             if (!url.isEmpty()) {
-                loadUrl(ensureUrlProtocol(url));
+                String target = UrlUtils.ensureUrlProtocol(url);
+                if (speculativeLoader != null) {
+                    measureFirstByte(speculativeLoader.recordNavigation(target));
+                }
+                loadUrl(target);
             }
         };
 
@@ -600,20 +917,38 @@ public class SwingBrowserApp extends JFrame {
         urlBar.addActionListener(loadUrlAction);
 
         // Botões de navegação
-        backButton.addActionListener(e -> Platform.runLater(() -> {
+        // Além das pontas do histórico do engine, seguem pela lista herdada da sessão
+        backButton.addActionListener(e -> {
+            BrowserTab tab = getActiveTab();
             WebEngine currentEngine = getActiveWebEngine();
-            if (currentEngine != null && currentEngine.getHistory().getCurrentIndex() > 0) {
-                currentEngine.getHistory().go(-1);
-            }
-        }));
+            Platform.runLater(() -> {
+                if (currentEngine == null) {
+                    return;
+                }
+                WebHistory history = currentEngine.getHistory();
+                if (history.getCurrentIndex() > 0) {
+                    history.go(-1);
+                } else if (tab != null && tab.hasSessionBack()) {
+                    goBackInSession(tab, currentEngine);
+                }
+            });
+        });
 
-        forwardButton.addActionListener(e -> Platform.runLater(() -> {
+        forwardButton.addActionListener(e -> {
+            BrowserTab tab = getActiveTab();
             WebEngine currentEngine = getActiveWebEngine();
-            if (currentEngine != null && currentEngine.getHistory()
-                    .getCurrentIndex() < currentEngine.getHistory().getEntries().size() - 1) {
-                currentEngine.getHistory().go(1);
-            }
-        }));
+            Platform.runLater(() -> {
+                if (currentEngine == null) {
+                    return;
+                }
+                WebHistory history = currentEngine.getHistory();
+                if (history.getCurrentIndex() < history.getEntries().size() - 1) {
+                    history.go(1);
+                } else if (tab != null && tab.hasSessionForward()) {
+                    currentEngine.load(tab.popSessionForward());
+                }
+            });
+        });
 
         refreshButton.addActionListener(e -> Platform.runLater(() -> {
             WebEngine currentEngine = getActiveWebEngine();
@@ -639,10 +974,21 @@ public class SwingBrowserApp extends JFrame {
 
         // Listener para fechamento da janela
         addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                StartupTimeline.get().mark("primeira janela");
+            }
+
             @Override
             public void windowClosing(WindowEvent e) {
-                saveHistory();
-                saveBookmarks();
+                saveSessionNow();
+                management.unregisterAll();
+                // Sem os dados carregados não há o que gravar
+                if (historyStore != null) {
+                    historyStore.close();
+                    bookmarkStore.close();
+                }
+                persistence.shutdown(PERSISTENCE_SHUTDOWN_TIMEOUT_MS);
             }
         });
     }
@@ -675,34 +1021,16 @@ public class SwingBrowserApp extends JFrame {
 
         Platform.runLater(() -> {
             try {
-                webView = new WebView();
+                webView = buildWebView(fxPanel, currentZoom);
                 webEngine = webView.getEngine();
-
-                // Configurações do WebView com zoom inicial
-                webView.setZoom(currentZoom);
-                webView.setFontScale(currentZoom * scalingFactor);
-
-                webEngine.setJavaScriptEnabled(isJavaScriptEnabled());
-                webEngine.setUserAgent(getUserAgent());
-
-                // Cria a cena JavaFX
-                BorderPane webPane = new BorderPane(webView);
-                Scene scene = new Scene(webPane);
-                fxPanel.setScene(scene);
-
-                // Configura listeners para a aba inicial
-                setupWebEngineListeners(webEngine);
+                firstPageMarked = true;
+                markFirstPage(webEngine);
 
                 // Carrega a página inicial ANTES de retornar para thread Swing
                 webEngine.load(getHomePage());
 
                 // Adiciona o WebView a uma nova aba
-                SwingUtilities.invokeLater(() -> {
-                    addNewTab("Nova aba", fxPanel);
-                    // Armazena o engine da primeira aba
-                    int firstTabIndex = tabbedPane.getTabCount() - 1;
-                    storeTabEngine(firstTabIndex, webEngine, webView);
-                });
+                SwingUtilities.invokeLater(() -> addNewTab("Nova aba", fxPanel, webView));
             } catch (Exception e) {
                 SwingUtilities.invokeLater(() -> {
                     JOptionPane.showMessageDialog(SwingBrowserApp.this,
@@ -713,7 +1041,46 @@ public class SwingBrowserApp extends JFrame {
         });
     }
 
-    private void addNewTab(String title, Component component) {
+    private BrowserTab addNewTab(String title, JFXPanel component, WebView tabWebView) {
+        return addTab(title, component, tab -> tabs.attach(tab, component, tabWebView));
+    }
+
+    /**
+     * Recria as abas da sessão anterior como placeholders leves (como abas
+     * hibernadas); só a aba selecionada carrega a página agora, as demais
+     * quando forem selecionadas pela primeira vez
+     */
+    private void restoreSession(SessionStore.Session session) {
+        List<TabSnapshot> saved = session.getTabs();
+        restoringSession = true;
+        try {
+            for (TabSnapshot snapshot : saved) {
+                String title = snapshot.getTitle() != null && !snapshot.getTitle().isEmpty() ? snapshot.getTitle()
+                        : "Nova aba";
+                BrowserTab tab = addTab(UrlUtils.truncateTitle(title, 10), createSessionPlaceholder(snapshot),
+                        newTab -> newTab.hibernate(snapshot));
+                tab.setTitle(title);
+                tab.getTitleLabel().setToolTipText(title);
+            }
+        } finally {
+            restoringSession = false;
+        }
+        tabbedPane.setSelectedIndex(Math.max(0, Math.min(session.getSelectedIndex(), saved.size() - 1)));
+        BrowserTab selectedTab = getActiveTab();
+        lastSelectedTab = selectedTab;
+        if (selectedTab != null) {
+            selectedTab.markActive();
+            restoreTab(selectedTab);
+        }
+    }
+
+    /**
+     * Cria a aba com cabeçalho e botão de fechar e a seleciona
+     *
+     * @param init prepara a aba (WebView ou snapshot) antes de ela ser
+     *             registrada e selecionada
+     */
+    private BrowserTab addTab(String title, Component component, Consumer<BrowserTab> init) {
         JPanel tabPanel = new JPanel(new BorderLayout());
         tabPanel.add(component, BorderLayout.CENTER);
 
@@ -732,13 +1099,19 @@ public class SwingBrowserApp extends JFrame {
         closeButton.setRolloverEnabled(true);
         closeButton.setFont(deriveFont(closeButton.getFont()));
 
+        // Registra a aba antes de selecioná-la para que o listener de troca a encontre
+        BrowserTab tab = new BrowserTab(tabPanel, tabTitle);
+        init.accept(tab);
+        tabs.register(tab);
+        memoryTelemetry.recordTabEvent(tab.getId(), "open", null, -1);
+
         closeButton.addActionListener(e -> {
-            int tabIndex = tabbedPane.indexOfComponent(tabPanel);
             if (tabbedPane.getTabCount() > 1) {
-                tabbedPane.remove(tabIndex);
-                // Remover do mapa de engines
-                tabEngines.remove(tabIndex);
-                tabWebViews.remove(tabIndex);
+                tabbedPane.remove(tabPanel);
+                // Remover do registro de abas
+                tabs.unregister(tab);
+                backgroundThrottler.forget(tab);
+                memoryTelemetry.recordTabEvent(tab.getId(), "close", null, -1);
             } else {
                 loadUrl(getHomePage());
             }
@@ -752,14 +1125,280 @@ public class SwingBrowserApp extends JFrame {
         int newTabIndex = tabbedPane.getTabCount() - 1;
         tabbedPane.setTabComponentAt(newTabIndex, tabHeader);
         tabbedPane.setSelectedIndex(newTabIndex);
+        return tab;
+    }
+
+    /**
+     * Salva a sessão periodicamente, para que uma queda não perca as abas
+     */
+    private void startSessionSaver() {
+        sessionTimer = new Timer(SESSION_SAVE_INTERVAL_MS,
+                e -> captureSession(session -> persistence.save("sessão", () -> sessionStore.save(session))));
+        sessionTimer.start();
+    }
+
+    /**
+     * Reúne o estado das abas na ordem da janela. As abas hibernadas já têm
+     * snapshot; as demais são lidas na thread do JavaFX, onde o callback é
+     * chamado.
+     */
+    private void captureSession(Consumer<SessionStore.Session> onCaptured) {
+        List<BrowserTab> ordered = new ArrayList<>();
+        for (int i = 0; i < tabbedPane.getTabCount(); i++) {
+            BrowserTab tab = tabs.findByComponent(tabbedPane.getComponentAt(i));
+            if (tab != null) {
+                ordered.add(tab);
+            }
+        }
+        if (ordered.isEmpty()) {
+            return;
+        }
+        int selectedIndex = Math.max(0, ordered.indexOf(getActiveTab()));
+        List<TabSnapshot> snapshots = new ArrayList<>(ordered.size());
+        List<WebEngine> engines = new ArrayList<>(ordered.size());
+        List<WebView> views = new ArrayList<>(ordered.size());
+        for (BrowserTab tab : ordered) {
+            snapshots.add(tab.getSnapshot());
+            engines.add(tab.getEngine());
+            views.add(tab.getWebView());
+        }
+        Platform.runLater(() -> {
+            for (int i = 0; i < ordered.size(); i++) {
+                if (snapshots.get(i) == null && engines.get(i) != null) {
+                    snapshots.set(i, captureSnapshot(ordered.get(i), engines.get(i), views.get(i)));
+                }
+            }
+            snapshots.removeIf(snapshot -> snapshot == null);
+            onCaptured.accept(new SessionStore.Session(snapshots, selectedIndex));
+        });
     }
 
     /**
-     * Armazenar um WebEngine de uma aba no mapa de rastreamento
+     * Pede a gravação da sessão antes de sair, aguardando a leitura das abas;
+     * a gravação em si é concluída pelo encerramento do serviço de persistência
      */
-    private void storeTabEngine(int tabIndex, WebEngine engine, WebView webView) {
-        tabEngines.put(tabIndex, engine);
-        tabWebViews.put(tabIndex, webView);
+    private void saveSessionNow() {
+        sessionTimer.stop();
+        CountDownLatch captured = new CountDownLatch(1);
+        captureSession(session -> {
+            persistence.save("sessão", () -> sessionStore.save(session));
+            captured.countDown();
+        });
+        try {
+            captured.await(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inicia o timer que hiberna as abas em segundo plano ociosas
+     */
+    private void startHibernationMonitor() {
+        hibernationTimer = new Timer(HIBERNATION_CHECK_INTERVAL_MS, e -> hibernateIdleTabs());
+        hibernationTimer.start();
+    }
+
+    private void hibernateIdleTabs() {
+        int idleMinutes = getHibernateAfterMinutes();
+        if (idleMinutes <= 0) {
+            return; // Hibernação desativada
+        }
+
+        long idleSince = System.currentTimeMillis() - idleMinutes * 60_000L;
+        BrowserTab activeTab = getActiveTab();
+        for (BrowserTab tab : tabs.getTabs()) {
+            if (tab != activeTab && !tab.isHibernated() && !tab.isHibernating() && tab.getLastActive() < idleSince) {
+                hibernateTab(tab);
+            }
+        }
+    }
+
+    /**
+     * Salva o estado da aba e descarta seu WebView/WebEngine, trocando-o por um
+     * placeholder leve até que a aba seja selecionada novamente
+     */
+    private void hibernateTab(BrowserTab tab) {
+        JFXPanel oldFxPanel = tab.getFxPanel();
+        WebEngine engine = tab.getEngine();
+        WebView view = tab.getWebView();
+        if (oldFxPanel == null || engine == null || view == null) {
+            return;
+        }
+        // Eventos tardios do engine descartado deixam de alcançar a aba, e
+        // pedidos repetidos até o snapshot chegar são ignorados
+        if (!tabs.beginHibernation(tab)) {
+            return;
+        }
+        backgroundThrottler.forget(tab);
+
+        Platform.runLater(() -> {
+            TabSnapshot snapshot = captureSnapshot(tab, engine, view);
+
+            // Descarrega a página e desconecta a cena para liberar o WebView
+            engine.load("about:blank");
+            oldFxPanel.setScene(null);
+
+            SwingUtilities.invokeLater(() -> {
+                if (tabs.findById(tab.getId()) != tab) {
+                    return; // Aba fechada enquanto hibernava
+                }
+                if (!tabs.hibernate(tab, snapshot)) {
+                    return; // O snapshot já guardado é o da página real
+                }
+                JPanel tabPanel = tab.getPanel();
+                tabPanel.remove(oldFxPanel);
+                tabPanel.add(createHibernatedPlaceholder(), BorderLayout.CENTER);
+                tabPanel.revalidate();
+                tabPanel.repaint();
+                memoryTelemetry.recordTabEvent(tab.getId(), "hibernate", snapshot.getUrl(), -1);
+
+                // A aba pode ter sido selecionada enquanto hibernava
+                if (tabPanel == tabbedPane.getSelectedComponent()) {
+                    restoreTab(tab);
+                }
+            });
+        });
+    }
+
+    /**
+     * Estado atual de uma aba viva: página, rolagem, zoom e lista de
+     * voltar/avançar (a do engine somada à herdada). Deve ser chamado na
+     * thread do JavaFX.
+     */
+    private TabSnapshot captureSnapshot(BrowserTab tab, WebEngine engine, WebView view) {
+        double scrollX = 0;
+        double scrollY = 0;
+        try {
+            scrollX = toDouble(engine.executeScript("window.pageXOffset"));
+            scrollY = toDouble(engine.executeScript("window.pageYOffset"));
+        } catch (Exception ex) {
+            // Página sem JavaScript ou ainda carregando - restaura no topo
+        }
+        List<String> history = new ArrayList<>(tab.getSessionBackOldestFirst());
+        int historyIndex = history.size() + engine.getHistory().getCurrentIndex();
+        for (WebHistory.Entry entry : engine.getHistory().getEntries()) {
+            history.add(entry.getUrl());
+        }
+        history.addAll(tab.getSessionForward());
+        // Guarda só as entradas mais próximas da página atual
+        int from = Math.max(0, Math.min(historyIndex - MAX_SESSION_HISTORY / 2, history.size() - MAX_SESSION_HISTORY));
+        int to = Math.min(history.size(), from + MAX_SESSION_HISTORY);
+        return new TabSnapshot(engine.getLocation(), engine.getTitle(), scrollX, scrollY, view.getZoom(),
+                history.subList(from, to), historyIndex - from);
+    }
+
+    /**
+     * Volta para a página anterior herdada da sessão. O histórico do engine é
+     * esvaziado antes: as páginas dele passam a ser "avançar" herdado, e a
+     * anterior carregada vira a primeira entrada, de modo que voltar e
+     * avançar continuem na ordem certa. Deve ser chamado na thread do JavaFX.
+     */
+    private void goBackInSession(BrowserTab tab, WebEngine engine) {
+        WebHistory history = engine.getHistory();
+        List<WebHistory.Entry> entries = history.getEntries();
+        for (int i = entries.size() - 1; i >= history.getCurrentIndex(); i--) {
+            tab.pushSessionForward(entries.get(i).getUrl());
+        }
+        int maxSize = history.getMaxSize();
+        history.setMaxSize(0);
+        history.setMaxSize(maxSize);
+        engine.load(tab.popSessionBack());
+    }
+
+    /**
+     * Reconstrói o WebView de uma aba hibernada a partir do seu snapshot
+     */
+    private void restoreTab(BrowserTab tab) {
+        TabSnapshot snapshot = tab.getSnapshot();
+        if (snapshot == null || tab.isRestoring()) {
+            return; // Não hibernada ou restauração já em andamento
+        }
+        tab.setRestoring(true);
+        tab.setSessionHistory(snapshot.getBackEntries(), snapshot.getForwardEntries());
+        WebViewPool.PooledWebView pooled = webViewPool.take();
+        JFXPanel newFxPanel = pooled != null ? pooled.getPanel() : new JFXPanel();
+
+        Platform.runLater(() -> {
+            WebView restoredView;
+            if (pooled != null) {
+                restoredView = pooled.getWebView();
+                applyWebViewSettings(restoredView, snapshot.getZoom());
+            } else {
+                restoredView = buildWebView(newFxPanel, snapshot.getZoom());
+            }
+            WebEngine restoredEngine = restoredView.getEngine();
+            restoreScrollOnLoad(restoredEngine, snapshot);
+            if (!firstPageMarked) {
+                firstPageMarked = true; // Início com sessão: a primeira página é a da aba selecionada
+                markFirstPage(restoredEngine);
+            }
+
+            String url = snapshot.getUrl();
+            restoredEngine.load(url != null && !url.isEmpty() ? url : getHomePage());
+
+            SwingUtilities.invokeLater(() -> {
+                if (tabs.findById(tab.getId()) != tab) {
+                    return; // Aba fechada durante a restauração
+                }
+                tabs.attach(tab, newFxPanel, restoredView);
+                tab.markActive();
+                JPanel tabPanel = tab.getPanel();
+                tabPanel.removeAll();
+                tabPanel.add(newFxPanel, BorderLayout.CENTER);
+                tabPanel.revalidate();
+                tabPanel.repaint();
+
+                if (tabPanel == tabbedPane.getSelectedComponent()) {
+                    webEngine = restoredEngine;
+                    webView = restoredView;
+                    urlBar.setText(restoredEngine.getLocation());
+                    updateNavButtons();
+                }
+                memoryTelemetry.recordTabEvent(tab.getId(), "restore", url, -1);
+            });
+        });
+    }
+
+    private void restoreScrollOnLoad(WebEngine engine, TabSnapshot snapshot) {
+        if (snapshot.getScrollX() == 0 && snapshot.getScrollY() == 0) {
+            return;
+        }
+        engine.getLoadWorker().stateProperty().addListener(new ChangeListener<Worker.State>() {
+            @Override
+            public void changed(ObservableValue<? extends Worker.State> obs, Worker.State oldState,
+                    Worker.State newState) {
+                if (newState == Worker.State.SUCCEEDED || newState == Worker.State.FAILED
+                        || newState == Worker.State.CANCELLED) {
+                    obs.removeListener(this);
+                }
+                if (newState == Worker.State.SUCCEEDED) {
+                    try {
+                        engine.executeScript(String.format(java.util.Locale.ROOT, "window.scrollTo(%f, %f)",
+                                snapshot.getScrollX(), snapshot.getScrollY()));
+                    } catch (Exception ex) {
+                        System.err.println("Erro ao restaurar rolagem: " + ex.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private JLabel createSessionPlaceholder(TabSnapshot snapshot) {
+        JLabel placeholder = new JLabel("Aba da sessão anterior: " + UrlUtils.shortenUrl(
+                snapshot.getUrl() != null ? snapshot.getUrl() : "", 80), SwingConstants.CENTER);
+        placeholder.setFont(deriveFont(placeholder.getFont()));
+        return placeholder;
+    }
+
+    private JLabel createHibernatedPlaceholder() {
+        JLabel placeholder = new JLabel("💤 Aba hibernada para economizar memória", SwingConstants.CENTER);
+        placeholder.setFont(deriveFont(placeholder.getFont()));
+        return placeholder;
+    }
+
+    private double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
     }
 
     private void loadUrl(String url) {
@@ -777,38 +1416,195 @@ public class SwingBrowserApp extends JFrame {
         });
     }
 
-    private String ensureUrlProtocol(String url) {
-        // Se começa com protocolo conhecido, retorna como está
-        if (url.startsWith("http://") || url.startsWith("https://") || url.startsWith("file://")) {
-            return url;
+    /**
+     * Liga a especulação sobre a sugestão principal conforme as preferências
+     */
+    private void configureSpeculation() {
+        if (speculativeLoader != null) {
+            speculativeLoader.close();
         }
+        speculativeLoader = isPreconnectEnabled() ? new SpeculativeLoader(httpCache, isPrefetchEnabled()) : null;
+        SpeculativeLoader loader = speculativeLoader;
+        urlSuggestions.setPredictionListener(loader != null ? loader::onPrediction : null);
+    }
 
-        // Se contém apenas um ponto e parece um domínio, adiciona protocolo
-        if (url.contains(".") && !url.contains(" ")) {
-            return "http://" + url;
+    /**
+     * Compila as listas de filtros em segundo plano e as liga à conexão do
+     * cache HTTP, ou desliga o bloqueio, conforme as preferências
+     *
+     * @param atStartup se a compilação faz parte da inicialização e entra na
+     *                  linha do tempo; religar nas configurações não entra
+     */
+    private void configureContentBlocker(boolean atStartup) {
+        if (httpCache == null) {
+            return; // Sem o cache não há onde interceptar as requisições
         }
-
-        // Se contém espaços ou não parece URL, faz pesquisa Google
-        if (url.contains(" ") || !url.contains(".")) {
+        if (!isContentBlockingEnabled()) {
+            httpCache.setContentBlocker(null);
+            contentBlocker = null;
+            return;
+        }
+        Supplier<ContentBlocker> compile = () -> {
             try {
-                String encodedQuery = java.net.URLEncoder.encode(url, "UTF-8");
-                return "https://www.google.com/search?q=" + encodedQuery;
-            } catch (Exception e) {
-                return "https://www.google.com/search?q=" + url.replace(" ", "+");
+                ContentBlocker blocker = ContentBlocker.load(Paths.get(FILTERS_FILE));
+                blocker.setListener((pageUrl, url, bytes) -> SwingUtilities.invokeLater(
+                        () -> attributeBlocked(pageUrl, bytes)));
+                return blocker;
+            } catch (IOException e) {
+                System.err.println("Erro ao carregar filtros de conteúdo: " + e.getMessage());
+                return null;
+            }
+        };
+        Supplier<ContentBlocker> task = atStartup ? () -> StartupTimeline.get().call("filtros de conteúdo", compile)
+                : compile;
+        CompletableFuture.supplyAsync(task).thenAccept(blocker -> SwingUtilities.invokeLater(() -> {
+            if (blocker != null && isContentBlockingEnabled()) {
+                contentBlocker = blocker;
+                httpCache.setContentBlocker(blocker);
+            }
+        }));
+    }
+
+    /**
+     * Atribui um bloqueio à aba cuja página fez a requisição: a de mesma URL
+     * ou, para requisições de iframes, a de mesmo host
+     */
+    private void attributeBlocked(String pageUrl, long bytes) {
+        if (pageUrl == null) {
+            return;
+        }
+        String page = stripFragment(pageUrl);
+        String pageHost = hostOf(page);
+        BrowserTab target = null;
+        for (BrowserTab tab : tabs.getTabs()) {
+            String location = tab.getLocation();
+            if (location == null) {
+                continue;
+            }
+            if (stripFragment(location).equals(page)) {
+                target = tab;
+                break;
+            }
+            if (target == null && pageHost != null && pageHost.equals(hostOf(location))) {
+                target = tab;
             }
         }
+        if (target != null) {
+            target.recordBlocked(bytes);
+            if (target == getActiveTab()) {
+                updateBlockedLabel(target);
+            }
+        }
+    }
+
+    private void updateBlockedLabel(BrowserTab tab) {
+        if (tab == null) {
+            return;
+        }
+        blockedLabel.setText("🛡 " + tab.getBlockedRequests());
+        blockedLabel.setToolTipText(contentBlocker == null ? "Bloqueio de conteúdo desativado"
+                : String.format("%d requisições bloqueadas nesta página, ~%d KB economizados. Total: %s",
+                        tab.getBlockedRequests(), tab.getBlockedBytes() / 1024, contentBlocker.getSummary()));
+    }
+
+    private static String stripFragment(String url) {
+        int hash = url.indexOf('#');
+        return hash < 0 ? url : url.substring(0, hash);
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return new URI(url).getHost();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Registra no {@link SpeculativeLoader} o tempo até o primeiro byte da
+     * navegação digitada, lido do Navigation Timing quando a página termina
+     */
+    private void measureFirstByte(boolean predicted) {
+        SpeculativeLoader loader = speculativeLoader;
+        Platform.runLater(() -> {
+            WebEngine engine = getActiveWebEngine();
+            if (engine == null) {
+                return;
+            }
+            engine.getLoadWorker().stateProperty().addListener(new ChangeListener<Worker.State>() {
+                @Override
+                public void changed(ObservableValue<? extends Worker.State> obs, Worker.State oldState,
+                        Worker.State newState) {
+                    if (newState != Worker.State.SUCCEEDED && newState != Worker.State.FAILED
+                            && newState != Worker.State.CANCELLED) {
+                        return;
+                    }
+                    obs.removeListener(this);
+                    if (newState != Worker.State.SUCCEEDED) {
+                        return;
+                    }
+                    long firstByteMillis;
+                    try {
+                        Object value = engine.executeScript(FIRST_BYTE_SCRIPT);
+                        firstByteMillis = value instanceof Number ? ((Number) value).longValue() : -1;
+                    } catch (RuntimeException e) {
+                        return; // Página sem JavaScript
+                    }
+                    if (firstByteMillis >= 0) {
+                        SwingUtilities.invokeLater(() -> loader.recordFirstByte(firstByteMillis, predicted));
+                    }
+                }
+            });
+        });
+    }
 
-        // Fallback
-        return "http://" + url;
+    /**
+     * Mostra na barra o estado publicado por uma aba: URL, título da janela,
+     * botões de navegação e progresso
+     */
+    private void applyTabState(BrowserTab tab, TabState state) {
+        applyTabState(state, tab.hasSessionBack(), tab.hasSessionForward(), urlBar, backButton, forwardButton,
+                progressBar);
+        if (state.getTitle() != null) {
+            setTitle(state.getTitle() + " - " + APP_NAME);
+        }
+    }
+
+    /**
+     * A parte de {@link #applyTabState(BrowserTab, TabState)} que não depende
+     * da janela; também usada pelo TabSwitchBenchmark. Deve ser chamado na
+     * thread do Swing.
+     *
+     * @param sessionBack    se a aba tem entradas de voltar herdadas da sessão
+     * @param sessionForward se a aba tem entradas de avançar herdadas da sessão
+     */
+    static void applyTabState(TabState state, boolean sessionBack, boolean sessionForward, JTextField urlBar,
+            JButton backButton, JButton forwardButton, JProgressBar progressBar) {
+        if (state.getLocation() != null && !state.getLocation().isEmpty()) {
+            urlBar.setText(state.getLocation());
+        }
+        backButton.setEnabled(state.canGoBack() || sessionBack);
+        forwardButton.setEnabled(state.canGoForward() || sessionForward);
+        progressBar.setValue((int) (state.getProgress() * 100));
     }
 
     private void updateNavButtons() {
+        BrowserTab tab = getActiveTab();
+        WebEngine activeEngine = getActiveWebEngine();
+        TabState state = activeEngine != null ? engineEvents.getState(activeEngine) : null;
+        if (state != null) {
+            backButton.setEnabled(state.canGoBack() || (tab != null && tab.hasSessionBack()));
+            forwardButton.setEnabled(state.canGoForward() || (tab != null && tab.hasSessionForward()));
+            return;
+        }
         Platform.runLater(() -> {
             WebEngine currentEngine = getActiveWebEngine();
             if (currentEngine != null) {
-                boolean canGoBack = currentEngine.getHistory().getCurrentIndex() > 0;
+                boolean canGoBack = currentEngine.getHistory().getCurrentIndex() > 0
+                        || (tab != null && tab.hasSessionBack());
                 boolean canGoForward = currentEngine.getHistory()
-                        .getCurrentIndex() < currentEngine.getHistory().getEntries().size() - 1;
+                        .getCurrentIndex() < currentEngine.getHistory().getEntries().size() - 1
+                        || (tab != null && tab.hasSessionForward());
 
                 SwingUtilities.invokeLater(() -> {
                     backButton.setEnabled(canGoBack);
@@ -822,119 +1618,287 @@ public class SwingBrowserApp extends JFrame {
      * Retorna o WebEngine da aba selecionada no momento
      */
     private WebEngine getActiveWebEngine() {
-        int selectedIndex = tabbedPane.getSelectedIndex();
-        if (selectedIndex >= 0) {
-            return tabEngines.get(selectedIndex);
+        BrowserTab activeTab = getActiveTab();
+        if (activeTab != null) {
+            return activeTab.getEngine();
         }
         return webEngine; // Fallback para o engine principal
     }
 
     private void addToHistory(String url) {
-        if (!history.isEmpty() && history.get(history.size() - 1).equals(url)) {
-            return;
+        if (url != null) {
+            long now = System.currentTimeMillis();
+            withHistory(() -> indexHistoryEntry(historyStore.recordVisit(url, now)));
         }
-        history.add(url);
+    }
 
-        // Limita o histórico a 100 itens
-        if (history.size() > 100) {
-            history.remove(0);
+    private void indexHistoryEntry(HistoryEntry entry) {
+        if (entry != null) {
+            suggestionIndex.put(entry.getUrl(), entry.getTitle(),
+                    HistoryStore.frecency(entry, System.currentTimeMillis()));
         }
     }
 
+    /**
+     * Menu rápido: adicionar ou remover a página atual e os favoritos mais
+     * recentes; a lista completa fica no diálogo de favoritos
+     */
     private void showBookmarksMenu() {
         JPopupMenu menu = new JPopupMenu();
         menu.setFont(deriveFont(menu.getFont()));
 
         // Adiciona item para adicionar/remover favorito
         String currentUrl = urlBar.getText();
-        boolean isBookmarked = bookmarks.contains(currentUrl);
+        boolean isBookmarked = bookmarkStore.contains(currentUrl);
 
         JMenuItem toggleBookmarkItem = new JMenuItem(
                 isBookmarked ? "Remover dos favoritos" : "Adicionar aos favoritos");
         toggleBookmarkItem.setFont(deriveFont(toggleBookmarkItem.getFont()));
         toggleBookmarkItem.addActionListener(e -> {
             if (isBookmarked) {
-                bookmarks.remove(currentUrl);
+                bookmarkStore.remove(currentUrl);
+                suggestionIndex.setBookmarked(currentUrl, false);
             } else {
-                bookmarks.add(currentUrl);
+                BrowserTab activeTab = getActiveTab();
+                Bookmark added = bookmarkStore.add(currentUrl, activeTab != null ? activeTab.getTitle() : null);
+                if (added != null) {
+                    suggestionIndex.setBookmarked(added.getUrl(), true);
+                }
             }
-            saveBookmarks();
         });
         menu.add(toggleBookmarkItem);
+
+        if (isBookmarked) {
+            JMenuItem editBookmarkItem = new JMenuItem("Editar favorito...");
+            editBookmarkItem.setFont(deriveFont(editBookmarkItem.getFont()));
+            editBookmarkItem.addActionListener(e -> editBookmark(this, bookmarkStore.get(currentUrl)));
+            menu.add(editBookmarkItem);
+        }
         menu.addSeparator();
 
-        // Adiciona favoritos existentes
-        if (bookmarks.isEmpty()) {
+        // Adiciona os favoritos mais recentes
+        if (bookmarkStore.isEmpty()) {
             JMenuItem noBookmarksItem = new JMenuItem("Nenhum favorito salvo");
             noBookmarksItem.setEnabled(false);
             noBookmarksItem.setFont(deriveFont(noBookmarksItem.getFont()));
             menu.add(noBookmarksItem);
         } else {
-            for (String bookmark : bookmarks) {
-                JMenuItem bookmarkItem = new JMenuItem(shortenUrl(bookmark, 40));
+            for (Bookmark bookmark : bookmarkStore.findRecent(BOOKMARKS_MENU_LIMIT)) {
+                JMenuItem bookmarkItem = new JMenuItem(bookmark.getTitle() != null
+                        ? UrlUtils.truncateTitle(bookmark.getTitle(), 40)
+                        : UrlUtils.shortenUrl(bookmark.getUrl(), 40));
                 bookmarkItem.setFont(deriveFont(bookmarkItem.getFont()));
-                bookmarkItem.addActionListener(e -> loadUrl(bookmark));
+                bookmarkItem.setToolTipText(bookmark.getUrl());
+                bookmarkItem.addActionListener(e -> loadUrl(bookmark.getUrl()));
                 menu.add(bookmarkItem);
             }
+            menu.addSeparator();
+            JMenuItem allBookmarksItem = new JMenuItem("Todos os favoritos (" + bookmarkStore.size() + ")...");
+            allBookmarksItem.setFont(deriveFont(allBookmarksItem.getFont()));
+            allBookmarksItem.addActionListener(e -> showBookmarksDialog());
+            menu.add(allBookmarksItem);
         }
 
         menu.show(bookmarksButton, 0, bookmarksButton.getHeight());
     }
 
-    private void showHistoryDialog() {
-        JDialog historyDialog = new JDialog(this, "Histórico de Navegação", false);
-        historyDialog.setSize((int) (600 * scalingFactor), (int) (400 * scalingFactor));
-        historyDialog.setLocationRelativeTo(this);
-
-        DefaultListModel<String> listModel = new DefaultListModel<>();
-        for (String url : history) {
-            listModel.addElement(shortenUrl(url, 80));
+    /**
+     * Lista completa de favoritos com busca e filtro por pasta. A lista só
+     * desenha as linhas visíveis, então abre na hora mesmo com dezenas de
+     * milhares de favoritos.
+     */
+    private void showBookmarksDialog() {
+        JDialog bookmarksDialog = new JDialog(this, "Favoritos", false);
+        bookmarksDialog.setSize((int) (700 * scalingFactor), (int) (500 * scalingFactor));
+        bookmarksDialog.setLocationRelativeTo(this);
+
+        String allFolders = "Todas as pastas";
+        JComboBox<String> folderBox = new JComboBox<>();
+        folderBox.setFont(deriveFont(folderBox.getFont()));
+        folderBox.addItem(allFolders);
+        for (String folder : bookmarkStore.getFolders()) {
+            folderBox.addItem(folder);
         }
 
-        JList<String> historyList = new JList<>(listModel);
-        historyList.setFont(deriveFont(historyList.getFont()));
-        historyList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        historyList.addMouseListener(new MouseAdapter() {
+        JTextField searchField = new JTextField();
+        searchField.setFont(deriveFont(searchField.getFont()));
+        searchField.setToolTipText("Busca no título, endereço, pasta e etiquetas");
+
+        BookmarkListModel listModel = new BookmarkListModel();
+        JList<Bookmark> bookmarkList = new JList<>(listModel);
+        bookmarkList.setFont(deriveFont(bookmarkList.getFont()));
+        bookmarkList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Altura e largura fixas: a lista não mede as linhas e só desenha as visíveis
+        bookmarkList.setFixedCellHeight(bookmarkList.getFontMetrics(bookmarkList.getFont()).getHeight() + 6);
+        bookmarkList.setFixedCellWidth(100);
+        bookmarkList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                setText(formatBookmark((Bookmark) value));
+                return this;
+            }
+        });
+
+        JLabel countLabel = new JLabel();
+        countLabel.setFont(deriveFont(countLabel.getFont()));
+
+        Runnable refresh = () -> {
+            String folder = folderBox.getSelectedIndex() > 0 ? (String) folderBox.getSelectedItem() : null;
+            listModel.setBookmarks(bookmarkStore.search(searchField.getText(), folder));
+            countLabel.setText(listModel.getSize() + " de " + bookmarkStore.size() + " favoritos");
+        };
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                refresh.run();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                refresh.run();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                refresh.run();
+            }
+        });
+        folderBox.addActionListener(e -> refresh.run());
+
+        bookmarkList.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                if (e.getClickCount() == 2) {
-                    int index = historyList.locationToIndex(e.getPoint());
-                    if (index >= 0) {
-                        loadUrl(history.get(index));
-                        historyDialog.dispose();
-                    }
+                if (e.getClickCount() == 2 && bookmarkList.getSelectedValue() != null) {
+                    loadUrl(bookmarkList.getSelectedValue().getUrl());
+                    bookmarksDialog.dispose();
+                }
+            }
+        });
+
+        JButton editButton = new JButton("Editar...");
+        editButton.setFont(deriveFont(editButton.getFont()));
+        editButton.addActionListener(e -> {
+            Bookmark selected = bookmarkList.getSelectedValue();
+            if (selected != null && editBookmark(bookmarksDialog, selected) != null) {
+                Object folder = folderBox.getSelectedItem();
+                folderBox.removeAllItems();
+                folderBox.addItem(allFolders);
+                for (String name : bookmarkStore.getFolders()) {
+                    folderBox.addItem(name);
                 }
+                folderBox.setSelectedItem(folder); // Dispara a atualização da lista
             }
         });
 
-        JButton clearButton = new JButton("Limpar Histórico");
-        clearButton.setFont(deriveFont(clearButton.getFont()));
-        clearButton.addActionListener(e -> {
-            history.clear();
-            listModel.clear();
-            saveHistory();
+        JButton removeButton = new JButton("Remover");
+        removeButton.setFont(deriveFont(removeButton.getFont()));
+        removeButton.addActionListener(e -> {
+            Bookmark selected = bookmarkList.getSelectedValue();
+            if (selected != null && bookmarkStore.remove(selected.getUrl())) {
+                suggestionIndex.setBookmarked(selected.getUrl(), false);
+                refresh.run();
+            }
         });
 
+        JPanel filterPanel = new JPanel(new BorderLayout((int) (5 * scalingFactor), 0));
+        filterPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        filterPanel.add(folderBox, BorderLayout.WEST);
+        filterPanel.add(searchField, BorderLayout.CENTER);
+
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        buttonPanel.add(clearButton);
+        buttonPanel.add(editButton);
+        buttonPanel.add(removeButton);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 0));
+        bottomPanel.add(countLabel, BorderLayout.WEST);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
 
         JPanel contentPanel = new JPanel(new BorderLayout());
-        contentPanel.add(new JScrollPane(historyList), BorderLayout.CENTER);
-        contentPanel.add(buttonPanel, BorderLayout.SOUTH);
+        contentPanel.add(filterPanel, BorderLayout.NORTH);
+        contentPanel.add(new JScrollPane(bookmarkList), BorderLayout.CENTER);
+        contentPanel.add(bottomPanel, BorderLayout.SOUTH);
+
+        refresh.run();
+        bookmarksDialog.add(contentPanel);
+        bookmarksDialog.setVisible(true);
+        searchField.requestFocusInWindow();
+    }
+
+    /**
+     * Edita título, pasta e etiquetas de um favorito
+     *
+     * @return o favorito atualizado, ou null se a edição foi cancelada
+     */
+    private Bookmark editBookmark(Component parent, Bookmark bookmark) {
+        if (bookmark == null) {
+            return null;
+        }
+        JTextField titleField = new JTextField(bookmark.getTitle() != null ? bookmark.getTitle() : "", 30);
+        JComboBox<String> folderField = new JComboBox<>();
+        folderField.setEditable(true);
+        folderField.addItem("");
+        for (String folder : bookmarkStore.getFolders()) {
+            folderField.addItem(folder);
+        }
+        folderField.setSelectedItem(bookmark.getFolder());
+        JTextField tagsField = new JTextField(String.join(", ", bookmark.getTags()), 30);
+
+        JPanel panel = new JPanel(new GridLayout(3, 2, (int) (5 * scalingFactor), (int) (5 * scalingFactor)));
+        panel.add(new JLabel("Título:"));
+        panel.add(titleField);
+        panel.add(new JLabel("Pasta:"));
+        panel.add(folderField);
+        panel.add(new JLabel("Etiquetas (separadas por vírgula):"));
+        panel.add(tagsField);
+
+        int option = JOptionPane.showConfirmDialog(parent, panel, "Editar favorito", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE);
+        if (option != JOptionPane.OK_OPTION) {
+            return null;
+        }
+        Object folder = folderField.getSelectedItem();
+        return bookmarkStore.update(bookmark.getUrl(), titleField.getText(), folder != null ? folder.toString() : "",
+                Bookmark.parseTags(tagsField.getText()));
+    }
+
+    private String formatBookmark(Bookmark bookmark) {
+        StringBuilder text = new StringBuilder();
+        if (!bookmark.getFolder().isEmpty()) {
+            text.append('[').append(bookmark.getFolder()).append("] ");
+        }
+        if (bookmark.getTitle() != null) {
+            text.append(UrlUtils.truncateTitle(bookmark.getTitle(), 50)).append(" - ");
+        }
+        text.append(UrlUtils.shortenUrl(bookmark.getUrl(), 60));
+        if (!bookmark.getTags().isEmpty()) {
+            text.append("  #").append(String.join(" #", bookmark.getTags()));
+        }
+        return text.toString();
+    }
 
-        historyDialog.add(contentPanel);
-        historyDialog.setVisible(true);
+    private void showHistoryDialog() {
+        new HistoryDialog(this, historyStore, suggestionIndex, this::loadUrl, () -> {
+            historyStore.clear();
+            suggestionIndex.clearHistory();
+        }, scalingFactor, this::deriveFont).setVisible(true);
+    }
+
+    private void showPerformanceDialog() {
+        new PerformanceDialog(this, navigationTimings, persistence, () -> {
+            BrowserTab tab = getActiveTab();
+            return tab != null ? tab.getId() : 0;
+        }, scalingFactor, this::deriveFont).setVisible(true);
     }
 
     private void showSettingsDialog() {
         JDialog settingsDialog = new JDialog(this, "Configurações", true);
-        settingsDialog.setSize((int) (500 * scalingFactor), (int) (350 * scalingFactor)); // Aumentado para 350
+        settingsDialog.setSize((int) (500 * scalingFactor), (int) (680 * scalingFactor));
         settingsDialog.setLocationRelativeTo(this);
 
-        JPanel panel = new JPanel(new GridLayout(5, 2, (int) (10 * scalingFactor), (int) (10 * scalingFactor))); // Alterado
-                                                                                                                 // para
-                                                                                                                 // 5
-                                                                                                                 // linhas
+        JPanel panel = new JPanel(new GridLayout(12, 2, (int) (10 * scalingFactor), (int) (10 * scalingFactor)));
         panel.setBorder(BorderFactory.createEmptyBorder(
                 (int) (20 * scalingFactor),
                 (int) (20 * scalingFactor),
@@ -977,6 +1941,90 @@ public class SwingBrowserApp extends JFrame {
         defaultZoomField.setFont(deriveFont(defaultZoomField.getFont()));
         panel.add(defaultZoomField);
 
+        // Hibernação de abas
+        JLabel hibernateLabel = new JLabel("Hibernar abas após (min, 0 = nunca):");
+        hibernateLabel.setFont(deriveFont(hibernateLabel.getFont()));
+        panel.add(hibernateLabel);
+
+        JTextField hibernateField = new JTextField(String.valueOf(getHibernateAfterMinutes()));
+        hibernateField.setFont(deriveFont(hibernateField.getFont()));
+        panel.add(hibernateField);
+
+        // Abas de fundo com timers, animações e desenho contidos
+        JLabel throttleLabel = new JLabel("Conter abas em segundo plano:");
+        throttleLabel.setFont(deriveFont(throttleLabel.getFont()));
+        throttleLabel.setToolTipText("Animações, vídeos e timers das abas de fundo ficam pausados ou mais lentos");
+        panel.add(throttleLabel);
+
+        JCheckBox throttleCheckbox = new JCheckBox("", isBackgroundThrottlingEnabled());
+        throttleCheckbox.setFont(deriveFont(throttleCheckbox.getFont()));
+        panel.add(throttleCheckbox);
+
+        // Limite do histórico
+        JLabel historyCapacityLabel = new JLabel("Limite do histórico (páginas):");
+        historyCapacityLabel.setFont(deriveFont(historyCapacityLabel.getFont()));
+        panel.add(historyCapacityLabel);
+
+        JTextField historyCapacityField = new JTextField(String.valueOf(getHistoryCapacity()));
+        historyCapacityField.setFont(deriveFont(historyCapacityField.getFont()));
+        panel.add(historyCapacityField);
+
+        // Cache HTTP em disco
+        JLabel cacheSizeLabel = new JLabel("Cache em disco (MB, 0 = desativado):");
+        cacheSizeLabel.setFont(deriveFont(cacheSizeLabel.getFont()));
+        panel.add(cacheSizeLabel);
+
+        JTextField cacheSizeField = new JTextField(String.valueOf(getHttpCacheSizeMb()));
+        cacheSizeField.setFont(deriveFont(cacheSizeField.getFont()));
+        panel.add(cacheSizeField);
+
+        JLabel cacheStatsLabel = new JLabel(httpCache != null
+                ? String.format("%.0f%% do disco, %.1f MB economizados", httpCache.getHitRatio() * 100,
+                        httpCache.getBytesSaved() / 1048576.0)
+                : "Cache desativado");
+        cacheStatsLabel.setFont(deriveFont(cacheStatsLabel.getFont()));
+        cacheStatsLabel.setToolTipText(httpCache != null ? httpCache.getSummary() : null);
+        panel.add(cacheStatsLabel);
+
+        JButton clearCacheButton = new JButton("Limpar cache");
+        clearCacheButton.setFont(deriveFont(clearCacheButton.getFont()));
+        clearCacheButton.setEnabled(httpCache != null);
+        clearCacheButton.addActionListener(e -> {
+            httpCache.clear();
+            cacheStatsLabel.setToolTipText(httpCache.getSummary());
+        });
+        panel.add(clearCacheButton);
+
+        // Especulação sobre a sugestão principal da barra de URL
+        JLabel preconnectLabel = new JLabel("Conectar antes à sugestão principal:");
+        preconnectLabel.setFont(deriveFont(preconnectLabel.getFont()));
+        preconnectLabel.setToolTipText(speculativeLoader != null ? speculativeLoader.getSummary() : null);
+        panel.add(preconnectLabel);
+
+        JCheckBox preconnectCheckbox = new JCheckBox("", isPreconnectEnabled());
+        preconnectCheckbox.setFont(deriveFont(preconnectCheckbox.getFont()));
+        panel.add(preconnectCheckbox);
+
+        JLabel prefetchLabel = new JLabel("Pré-carregar a página sugerida:");
+        prefetchLabel.setFont(deriveFont(prefetchLabel.getFont()));
+        panel.add(prefetchLabel);
+
+        JCheckBox prefetchCheckbox = new JCheckBox("", isPrefetchEnabled());
+        prefetchCheckbox.setFont(deriveFont(prefetchCheckbox.getFont()));
+        prefetchCheckbox.setEnabled(httpCache != null); // Sem cache não há onde guardar a página
+        panel.add(prefetchCheckbox);
+
+        JLabel blockingLabel = new JLabel("Bloquear anúncios e rastreadores:");
+        blockingLabel.setFont(deriveFont(blockingLabel.getFont()));
+        blockingLabel.setToolTipText(contentBlocker != null ? contentBlocker.getSummary()
+                : "Regras extras podem ser adicionadas em " + FILTERS_FILE);
+        panel.add(blockingLabel);
+
+        JCheckBox blockingCheckbox = new JCheckBox("", isContentBlockingEnabled());
+        blockingCheckbox.setFont(deriveFont(blockingCheckbox.getFont()));
+        blockingCheckbox.setEnabled(httpCache != null); // As requisições são interceptadas pelo cache
+        panel.add(blockingCheckbox);
+
         // Botões
         JButton saveButton = new JButton("Salvar");
         saveButton.setFont(deriveFont(saveButton.getFont()));
@@ -984,6 +2032,18 @@ public class SwingBrowserApp extends JFrame {
             setHomePage(homePageField.getText().trim());
             setJavaScriptEnabled(enableJsCheckbox.isSelected());
             setUserAgent(userAgentField.getText().trim());
+            if (preconnectCheckbox.isSelected() != isPreconnectEnabled()
+                    || prefetchCheckbox.isSelected() != isPrefetchEnabled()) {
+                setPreconnectEnabled(preconnectCheckbox.isSelected());
+                setPrefetchEnabled(prefetchCheckbox.isSelected());
+                configureSpeculation();
+            }
+            if (blockingCheckbox.isSelected() != isContentBlockingEnabled()) {
+                setContentBlockingEnabled(blockingCheckbox.isSelected());
+                configureContentBlocker(false);
+            }
+            setBackgroundThrottlingEnabled(throttleCheckbox.isSelected());
+            backgroundThrottler.setEnabled(throttleCheckbox.isSelected());
 
             try {
                 int zoomValue = Integer.parseInt(defaultZoomField.getText().trim());
@@ -995,6 +2055,33 @@ public class SwingBrowserApp extends JFrame {
                 JOptionPane.showMessageDialog(this, "Valor de zoom inválido. Use um número entre 50 e 200.");
             }
 
+            try {
+                setHibernateAfterMinutes(Math.max(0, Integer.parseInt(hibernateField.getText().trim())));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Tempo de hibernação inválido. Use um número de minutos.");
+            }
+
+            try {
+                int capacity = Math.max(MIN_HISTORY_CAPACITY,
+                        Integer.parseInt(historyCapacityField.getText().trim()));
+                if (capacity != getHistoryCapacity()) {
+                    setHistoryCapacity(capacity);
+                    withHistory(() -> historyStore.setCapacity(capacity));
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Limite do histórico inválido. Use um número de páginas.");
+            }
+
+            try {
+                int cacheSizeMb = Math.max(0, Integer.parseInt(cacheSizeField.getText().trim()));
+                if (cacheSizeMb != getHttpCacheSizeMb()) {
+                    setHttpCacheSizeMb(cacheSizeMb);
+                    JOptionPane.showMessageDialog(this, "O novo tamanho do cache vale a partir do próximo início.");
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Tamanho de cache inválido. Use um número de megabytes.");
+            }
+
             settingsDialog.dispose();
         });
 
@@ -1014,36 +2101,22 @@ public class SwingBrowserApp extends JFrame {
         settingsDialog.setVisible(true);
     }
 
-    private String shortenUrl(String url, int maxLength) {
-        if (url.length() <= maxLength) {
-            return url;
-        }
-        return url.substring(0, maxLength / 2) + "..." + url.substring(url.length() - maxLength / 2);
-    }
-
-    private void saveHistory() {
-        try (FileWriter writer = new FileWriter(HISTORY_FILE)) {
-            new Gson().toJson(history, writer);
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar histórico: " + e.getMessage());
-        }
-    }
+    // Métodos de preferências
 
-    private void saveBookmarks() {
-        try (FileWriter writer = new FileWriter(BOOKMARKS_FILE)) {
-            new Gson().toJson(bookmarks, writer);
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar favoritos: " + e.getMessage());
-        }
+    /**
+     * As preferências mudam na hora em memória; a gravação em disco é feita
+     * pelo serviço de persistência, uma vez por rajada de alterações
+     */
+    private void savePreferences() {
+        persistence.save("preferências", PREFERENCES_FLUSH_DELAY_MS, prefs::flush);
     }
-
-    // Métodos de preferências
     private String getHomePage() {
         return prefs.get("homePage", DEFAULT_HOME_PAGE);
     }
 
     private void setHomePage(String url) {
         prefs.put("homePage", url);
+        savePreferences();
     }
 
     private boolean isJavaScriptEnabled() {
@@ -1052,6 +2125,7 @@ public class SwingBrowserApp extends JFrame {
 
     private void setJavaScriptEnabled(boolean enabled) {
         prefs.putBoolean("javaScriptEnabled", enabled);
+        savePreferences();
         Platform.runLater(() -> webEngine.setJavaScriptEnabled(enabled));
     }
 
@@ -1062,48 +2136,111 @@ public class SwingBrowserApp extends JFrame {
 
     private void setUserAgent(String userAgent) {
         prefs.put("userAgent", userAgent);
+        savePreferences();
         Platform.runLater(() -> webEngine.setUserAgent(userAgent));
     }
 
+    private int getHibernateAfterMinutes() {
+        return prefs.getInt("hibernateAfterMinutes", DEFAULT_HIBERNATE_AFTER_MINUTES);
+    }
+
+    private void setHibernateAfterMinutes(int minutes) {
+        prefs.putInt("hibernateAfterMinutes", minutes);
+        savePreferences();
+    }
+
+    private boolean isBackgroundThrottlingEnabled() {
+        return prefs.getBoolean("backgroundThrottling", true);
+    }
+
+    private void setBackgroundThrottlingEnabled(boolean enabled) {
+        prefs.putBoolean("backgroundThrottling", enabled);
+        savePreferences();
+    }
+
+    private boolean isPreconnectEnabled() {
+        return prefs.getBoolean("speculativePreconnect", true);
+    }
+
+    private void setPreconnectEnabled(boolean enabled) {
+        prefs.putBoolean("speculativePreconnect", enabled);
+        savePreferences();
+    }
+
+    private boolean isContentBlockingEnabled() {
+        return prefs.getBoolean("contentBlocking", true);
+    }
+
+    private void setContentBlockingEnabled(boolean enabled) {
+        prefs.putBoolean("contentBlocking", enabled);
+        savePreferences();
+    }
+
+    private boolean isPrefetchEnabled() {
+        return prefs.getBoolean("speculativePrefetch", false);
+    }
+
+    private void setPrefetchEnabled(boolean enabled) {
+        prefs.putBoolean("speculativePrefetch", enabled);
+        savePreferences();
+    }
+
+    private int getHistoryCapacity() {
+        return prefs.getInt("historyCapacity", DEFAULT_HISTORY_CAPACITY);
+    }
+
+    private void setHistoryCapacity(int capacity) {
+        prefs.putInt("historyCapacity", capacity);
+        savePreferences();
+    }
+
+    private int getHttpCacheSizeMb() {
+        return prefs.getInt("httpCacheSizeMb", DEFAULT_HTTP_CACHE_SIZE_MB);
+    }
+
+    private void setHttpCacheSizeMb(int sizeMb) {
+        prefs.putInt("httpCacheSizeMb", sizeMb);
+        savePreferences();
+    }
+
     /**
-     * Inicia o thread de atualização de memória
+     * Inicia a telemetria de memória; o label é atualizado a cada coleta de
+     * lixo, limite de uso ultrapassado ou evento de aba
      */
     private void startMemoryMonitor() {
-        memoryUpdateThread = new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    SwingUtilities.invokeLater(this::updateMemoryLabel);
-                    Thread.sleep(2000); // Atualizar a cada 2 segundos
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        }, "MemoryMonitor");
-        memoryUpdateThread.setDaemon(true);
-        memoryUpdateThread.start();
+        // Sob pressão de memória, abas de fundo são hibernadas das menos usadas às mais usadas
+        memoryPressurePolicy = new MemoryPressurePolicy(tabs, this::getActiveTab, this::hibernateTab, webViewPool);
+        memoryTelemetry = new MemoryTelemetry(sample -> {
+            updateMemoryLabel(sample);
+            memoryPressurePolicy.onSample(sample);
+        });
+        memoryTelemetry.start();
     }
 
     /**
-     * Atualiza o label de memória com informações atuais
+     * Atualiza o label de memória com uma nova medição
      */
-    private void updateMemoryLabel() {
+    private void updateMemoryLabel(MemoryTelemetry.Sample sample) {
         if (memoryLabel != null) {
-            Runtime runtime = Runtime.getRuntime();
-            long usedMemory = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024); // Em MB
-            long maxMemory = runtime.maxMemory() / (1024 * 1024); // Em MB
-
-            // Calcular percentual de uso
-            int percentUsed = (int) ((usedMemory * 100) / maxMemory);
-
-            // Atualizar label
-            String memoryText = String.format("💾 %d MB", usedMemory);
+            long usedMemory = sample.getUsed() / (1024 * 1024); // Em MB
+            long maxMemory = sample.getMax() / (1024 * 1024); // Em MB
+
+            // Atualizar label, incluindo as abas hibernadas (sem WebView em memória)
+            int hibernatedCount = tabs.getHibernatedCount();
+            String memoryText = hibernatedCount > 0
+                    ? String.format("💾 %d MB · 💤 %d", usedMemory, hibernatedCount)
+                    : String.format("💾 %d MB", usedMemory);
             memoryLabel.setText(memoryText);
+            memoryLabel.setToolTipText(String.format(
+                    "Uso de memória do navegador - %d de %d MB, %d aba(s) hibernada(s), %d coletas (%d ms), "
+                            + "última: %s. Clique para exportar a telemetria",
+                    usedMemory, maxMemory, hibernatedCount, sample.getGcCount(), sample.getGcMillis(),
+                    sample.getLastGc()));
 
             // Mudar cor baseado no uso
-            if (percentUsed > 85) {
+            if (sample.getLevel() == MemoryTelemetry.Level.CRITICAL) {
                 memoryLabel.setForeground(new java.awt.Color(220, 20, 20)); // Vermelho - crítico
-            } else if (percentUsed > 70) {
+            } else if (sample.getLevel() == MemoryTelemetry.Level.HIGH) {
                 memoryLabel.setForeground(new java.awt.Color(255, 165, 0)); // Laranja - alto
             } else {
                 memoryLabel.setForeground(new java.awt.Color(100, 200, 100)); // Verde - normal
@@ -1111,63 +2248,65 @@ public class SwingBrowserApp extends JFrame {
         }
     }
 
-    /**
-     * Exibe sugestões de URL baseadas no histórico e favoritos
-     */
-    private void showUrlSuggestions() {
-        String input = urlBar.getText().trim().toLowerCase();
-        
-        // Não mostrar sugestões para input vazio ou muito curto
-        if (input.length() < 2) {
-            return;
-        }
-
-        // Coletar sugestões do histórico e favoritos
-        List<String> suggestions = new ArrayList<>();
-        Set<String> uniqueSuggestions = new LinkedHashSet<>(); // Para evitar duplicatas
+    private void showMemoryMenu() {
+        JPopupMenu menu = new JPopupMenu();
+        menu.setFont(deriveFont(menu.getFont()));
 
-        // Adicionar sugestões do histórico
-        for (String url : history) {
-            if (url.toLowerCase().contains(input)) {
-                uniqueSuggestions.add(url);
+        // Sites que mais acumularam heap nesta sessão
+        int shown = 0;
+        for (Map.Entry<String, Long> site : memoryTelemetry.getHeapDeltaByHost().entrySet()) {
+            if (shown >= 5 || site.getValue() <= 0) {
+                break;
             }
+            JMenuItem siteItem = new JMenuItem(String.format("%s: +%d MB", site.getKey(),
+                    site.getValue() / (1024 * 1024)));
+            siteItem.setFont(deriveFont(siteItem.getFont()));
+            siteItem.setEnabled(false);
+            menu.add(siteItem);
+            shown++;
         }
-
-        // Adicionar sugestões dos favoritos
-        for (String bookmark : bookmarks) {
-            if (bookmark.toLowerCase().contains(input)) {
-                uniqueSuggestions.add(bookmark);
-            }
+        if (shown > 0) {
+            menu.addSeparator();
         }
 
-        suggestions.addAll(uniqueSuggestions);
-
-        // Se houver sugestões, mostrar em um popup
-        if (!suggestions.isEmpty() && suggestions.size() <= 10) {
-            showSuggestionsPopup(suggestions);
+        // Últimas decisões da política de pressão de memória
+        List<String> decisions = memoryPressurePolicy.getDecisions();
+        for (String decision : decisions.subList(0, Math.min(5, decisions.size()))) {
+            JMenuItem decisionItem = new JMenuItem(decision);
+            decisionItem.setFont(deriveFont(decisionItem.getFont()));
+            decisionItem.setEnabled(false);
+            menu.add(decisionItem);
         }
-    }
-
-    /**
-     * Mostra popup com sugestões de URL
-     */
-    private void showSuggestionsPopup(List<String> suggestions) {
-        JPopupMenu suggestionsMenu = new JPopupMenu();
-        suggestionsMenu.setFont(deriveFont(suggestionsMenu.getFont()));
-
-        for (String suggestion : suggestions) {
-            JMenuItem item = new JMenuItem(shortenUrl(suggestion, 60));
-            item.setFont(deriveFont(item.getFont()));
-            item.setToolTipText(suggestion); // Mostrar URL completa no tooltip
-            item.addActionListener(e -> {
-                urlBar.setText(suggestion);
-                suggestionsMenu.setVisible(false);
-            });
-            suggestionsMenu.add(item);
+        if (!decisions.isEmpty()) {
+            menu.addSeparator();
         }
 
-        // Mostrar o popup abaixo do campo de URL
-        suggestionsMenu.show(urlBar, 0, urlBar.getHeight());
+        JMenuItem exportItem = new JMenuItem("Exportar telemetria de memória (CSV)...");
+        exportItem.setFont(deriveFont(exportItem.getFont()));
+        exportItem.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new java.io.File("telemetria_memoria.csv"));
+            if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+                java.io.File file = chooser.getSelectedFile();
+                persistence.run(() -> memoryTelemetry.exportCsv(file.toPath()))
+                        .whenComplete((done, ex) -> SwingUtilities.invokeLater(() -> {
+                            if (ex == null) {
+                                statusLabel.setText("Telemetria exportada para " + file.getName());
+                            } else {
+                                JOptionPane.showMessageDialog(this,
+                                        "Erro ao exportar telemetria: " + ex.getMessage());
+                            }
+                        }));
+            }
+        });
+        menu.add(exportItem);
+
+        JMenuItem performanceItem = new JMenuItem("Desempenho das páginas...");
+        performanceItem.setFont(deriveFont(performanceItem.getFont()));
+        performanceItem.addActionListener(e -> showPerformanceDialog());
+        menu.add(performanceItem);
+
+        menu.show(memoryLabel, 0, -menu.getPreferredSize().height);
     }
 
     public static void main(String[] args) {
@@ -1176,9 +2315,31 @@ public class SwingBrowserApp extends JFrame {
         System.setProperty("prism.text", "t2k");
         System.setProperty("prism.lcdtext", "false");
 
+        // Medição de páginas em lote, sem janela
+        if (Arrays.asList(args).contains("--batch")) {
+            System.exit(BatchLoader.run(args));
+        }
+
+        // Trabalho independente da janela roda em paralelo enquanto ela é montada
+        StartupTimeline timeline = StartupTimeline.get();
+        HttpDiskCache httpCache = installHttpCache();
+        if (httpCache != null) {
+            CompletableFuture.runAsync(() -> timeline.run("índice do cache HTTP", httpCache::load));
+        }
+        CompletableFuture.runAsync(() -> timeline.run("runtime JavaFX", SwingBrowserApp::startJavaFxRuntime));
+        CompletableFuture<HistoryStore> historyLoading = CompletableFuture
+                .supplyAsync(() -> timeline.call("histórico", SwingBrowserApp::loadHistory));
+        CompletableFuture<BookmarkStore> bookmarksLoading = CompletableFuture
+                .supplyAsync(() -> timeline.call("favoritos", SwingBrowserApp::loadBookmarks));
+        CompletableFuture<java.awt.Image> iconLoading = CompletableFuture
+                .supplyAsync(() -> timeline.call("ícone", SwingBrowserApp::loadAppIcon));
+        // O tema precisa estar instalado antes de criar qualquer componente Swing
+        timeline.run("look and feel", SwingBrowserApp::setupLookAndFeel);
+
         SwingUtilities.invokeLater(() -> {
             try {
-                new SwingBrowserApp().setVisible(true);
+                timeline.call("construção da janela",
+                        () -> new SwingBrowserApp(historyLoading, bookmarksLoading, iconLoading, httpCache)).setVisible(true);
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(null,
                         "Erro ao iniciar o navegador: " + e.getMessage(),
@@ -1187,4 +2348,33 @@ public class SwingBrowserApp extends JFrame {
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Modelo da lista de favoritos sobre uma lista já pronta, sem copiar os
+     * itens para outro modelo
+     */
+    private static class BookmarkListModel extends AbstractListModel<Bookmark> {
+        private List<Bookmark> bookmarks = new ArrayList<>();
+
+        void setBookmarks(List<Bookmark> bookmarks) {
+            int oldSize = this.bookmarks.size();
+            this.bookmarks = bookmarks;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!bookmarks.isEmpty()) {
+                fireIntervalAdded(this, 0, bookmarks.size() - 1);
+            }
+        }
+
+        @Override
+        public int getSize() {
+            return bookmarks.size();
+        }
+
+        @Override
+        public Bookmark getElementAt(int index) {
+            return bookmarks.get(index);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bl;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.web.WebEngine;
+import javafx.scene.web.WebView;
+
+/**
+ * Registro das abas abertas com buscas O(1) por id, WebEngine e componente,
+ * para que os listeners não precisem percorrer o JTabbedPane. Deve ser
+ * acessado apenas pela thread do Swing.
+ */
+public class TabRegistry {
+    private final Map<Integer, BrowserTab> tabsById = new LinkedHashMap<>();
+    private final Map<WebEngine, BrowserTab> tabsByEngine = new IdentityHashMap<>();
+    private final Map<Component, BrowserTab> tabsByComponent = new IdentityHashMap<>();
+    private int hibernatedCount;
+
+    public void register(BrowserTab tab) {
+        tabsById.put(tab.getId(), tab);
+        tabsByComponent.put(tab.getPanel(), tab);
+        if (tab.getEngine() != null) {
+            tabsByEngine.put(tab.getEngine(), tab);
+        }
+        if (tab.isHibernated()) {
+            hibernatedCount++;
+        }
+    }
+
+    public void unregister(BrowserTab tab) {
+        if (tabsById.remove(tab.getId()) == null) {
+            return;
+        }
+        tabsByComponent.remove(tab.getPanel());
+        if (tab.getEngine() != null) {
+            tabsByEngine.remove(tab.getEngine());
+        }
+        if (tab.isHibernated()) {
+            hibernatedCount--;
+        }
+    }
+
+    /**
+     * Associa um novo WebView à aba (criação ou restauração após hibernar)
+     */
+    public void attach(BrowserTab tab, JFXPanel fxPanel, WebView webView) {
+        if (tab.getEngine() != null) {
+            tabsByEngine.remove(tab.getEngine());
+        }
+        if (tab.isHibernated()) {
+            hibernatedCount--;
+        }
+        tab.attach(fxPanel, webView);
+        tabsByEngine.put(tab.getEngine(), tab);
+    }
+
+    /**
+     * Desassocia o WebEngine da aba; eventos tardios desse engine deixam de
+     * ser encontrados pelo registro
+     */
+    public void detachEngine(BrowserTab tab) {
+        if (tab.getEngine() != null) {
+            tabsByEngine.remove(tab.getEngine());
+        }
+    }
+
+    /**
+     * Início da hibernação: desassocia o engine e marca a aba até o snapshot
+     * chegar, para que outro pedido não a hiberne de novo nesse meio tempo
+     *
+     * @return false se a aba já está hibernada ou hibernando
+     */
+    public boolean beginHibernation(BrowserTab tab) {
+        if (tab.isHibernated() || tab.isHibernating()) {
+            return false;
+        }
+        detachEngine(tab);
+        tab.setHibernating(true);
+        return true;
+    }
+
+    /**
+     * Conclui a hibernação; um snapshot já guardado nunca é substituído
+     *
+     * @return false se a aba já estava hibernada
+     */
+    public boolean hibernate(BrowserTab tab, TabSnapshot snapshot) {
+        detachEngine(tab);
+        if (tab.isHibernated()) {
+            tab.setHibernating(false);
+            return false;
+        }
+        hibernatedCount++;
+        tab.hibernate(snapshot);
+        return true;
+    }
+
+    public BrowserTab findById(int id) {
+        return tabsById.get(id);
+    }
+
+    public BrowserTab findByEngine(WebEngine engine) {
+        return engine != null ? tabsByEngine.get(engine) : null;
+    }
+
+    public BrowserTab findByComponent(Component component) {
+        return component != null ? tabsByComponent.get(component) : null;
+    }
+
+    /**
+     * Cópia das abas em ordem de criação
+     */
+    public List<BrowserTab> getTabs() {
+        return new ArrayList<>(tabsById.values());
+    }
+
+    public int size() {
+        return tabsById.size();
+    }
+
+    public int getHibernatedCount() {
+        return hibernatedCount;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estado mínimo de uma aba hibernada ou salva na sessão, suficiente para
+ * reconstruir o WebView quando a aba voltar a ser selecionada.
+ */
+public class TabSnapshot {
+    private final String url;
+    private final String title;
+    private final double scrollX;
+    private final double scrollY;
+    private final double zoom;
+    private final List<String> history; // Lista de voltar/avançar; pode faltar em sessões antigas
+    private final int historyIndex;
+
+    public TabSnapshot(String url, String title, double scrollX, double scrollY, double zoom) {
+        this(url, title, scrollX, scrollY, zoom, null, -1);
+    }
+
+    /**
+     * @param history      URLs da lista de voltar/avançar, da mais antiga à
+     *                     mais nova
+     * @param historyIndex posição da página atual em {@code history}
+     */
+    public TabSnapshot(String url, String title, double scrollX, double scrollY, double zoom, List<String> history,
+            int historyIndex) {
+        this.url = url;
+        this.title = title;
+        this.scrollX = scrollX;
+        this.scrollY = scrollY;
+        this.zoom = zoom;
+        this.history = history != null ? new ArrayList<>(history) : null;
+        this.historyIndex = historyIndex;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public double getScrollX() {
+        return scrollX;
+    }
+
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Páginas antes da atual, da mais próxima à mais antiga
+     */
+    public List<String> getBackEntries() {
+        if (history == null || historyIndex <= 0 || historyIndex >= history.size()) {
+            return Collections.emptyList();
+        }
+        List<String> back = new ArrayList<>(history.subList(0, historyIndex));
+        Collections.reverse(back);
+        return back;
+    }
+
+    /**
+     * Páginas depois da atual, da mais próxima à mais distante
+     */
+    public List<String> getForwardEntries() {
+        if (history == null || historyIndex < 0 || historyIndex >= history.size() - 1) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(history.subList(historyIndex + 1, history.size()));
+    }
+}
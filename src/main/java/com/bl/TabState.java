@@ -0,0 +1,84 @@
+package com.bl;
+
+/**
+ * Estado visível de uma aba viva (página, título, voltar/avançar, progresso e
+ * zoom) num valor imutável. Publicado pela thread do JavaFX a cada evento do
+ * WebEngine, pode ser lido de qualquer thread, o que permite à troca de abas
+ * atualizar a barra de URL e os botões na hora, sem consultar o engine.
+ *
+ * Diferente do {@link TabSnapshot}, que guarda o necessário para recriar uma
+ * aba hibernada.
+ */
+public final class TabState {
+    public static final TabState EMPTY = new TabState(null, null, false, false, 0, 1.0);
+
+    private final String location;
+    private final String title;
+    private final boolean canGoBack;
+    private final boolean canGoForward;
+    private final double progress;
+    private final double zoom;
+
+    public TabState(String location, String title, boolean canGoBack, boolean canGoForward, double progress,
+            double zoom) {
+        this.location = location;
+        this.title = title;
+        this.canGoBack = canGoBack;
+        this.canGoForward = canGoForward;
+        this.progress = progress;
+        this.zoom = zoom;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Só o histórico do engine; a lista herdada da sessão fica na aba
+     */
+    public boolean canGoBack() {
+        return canGoBack;
+    }
+
+    public boolean canGoForward() {
+        return canGoForward;
+    }
+
+    /**
+     * De 0 a 1
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public TabState withLocation(String location) {
+        return new TabState(location, title, canGoBack, canGoForward, progress, zoom);
+    }
+
+    public TabState withTitle(String title) {
+        return new TabState(location, title, canGoBack, canGoForward, progress, zoom);
+    }
+
+    public TabState withNavigation(boolean canGoBack, boolean canGoForward) {
+        if (canGoBack == this.canGoBack && canGoForward == this.canGoForward) {
+            return this;
+        }
+        return new TabState(location, title, canGoBack, canGoForward, progress, zoom);
+    }
+
+    public TabState withProgress(double progress) {
+        return new TabState(location, title, canGoBack, canGoForward, progress, zoom);
+    }
+
+    public TabState withZoom(double zoom) {
+        return new TabState(location, title, canGoBack, canGoForward, progress, zoom);
+    }
+}
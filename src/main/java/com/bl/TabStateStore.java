@@ -0,0 +1,40 @@
+package com.bl;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Último {@link TabState} publicado por cada engine. A thread do JavaFX troca
+ * o estado a cada evento e a do Swing o lê na troca de abas, sem esperar por
+ * ela. As chaves são fracas: engines descartados saem sozinhos.
+ *
+ * Os métodos podem ser chamados de qualquer thread.
+ *
+ * @param <K> o engine dono do estado
+ */
+public class TabStateStore<K> {
+    private final Map<K, TabState> states = new WeakHashMap<>();
+
+    /**
+     * Estado mais recente do engine, ou null se ele ainda não publicou nenhum
+     */
+    public synchronized TabState get(K engine) {
+        return states.get(engine);
+    }
+
+    /**
+     * Publica um estado derivado do atual, ou de {@link TabState#EMPTY} se o
+     * engine ainda não tem um
+     */
+    public synchronized TabState update(K engine, UnaryOperator<TabState> change) {
+        TabState current = states.get(engine);
+        TabState state = change.apply(current != null ? current : TabState.EMPTY);
+        states.put(engine, state);
+        return state;
+    }
+
+    public synchronized int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.bl;
+
+/**
+ * Latência da troca de abas: do evento de seleção até a barra de URL, os
+ * botões de navegação e o zoom refletirem a aba nova. Trocas para abas que
+ * ainda não publicaram um {@link TabState} dependem de uma ida à thread do
+ * JavaFX; elas são só contadas, fora da média e do máximo.
+ *
+ * Os métodos podem ser chamados de qualquer thread.
+ */
+public class TabSwitchMetrics {
+    private long switches;
+    private long totalNanos;
+    private long maxNanos;
+    private long withoutState;
+
+    public synchronized void record(long nanos) {
+        switches++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public synchronized void recordWithoutState() {
+        withoutState++;
+    }
+
+    /**
+     * Trocas atendidas pelo estado publicado
+     */
+    public synchronized long getSwitches() {
+        return switches;
+    }
+
+    public synchronized double getAverageMicros() {
+        return switches > 0 ? totalNanos / 1000.0 / switches : 0;
+    }
+
+    public synchronized double getMaxMicros() {
+        return maxNanos / 1000.0;
+    }
+
+    /**
+     * Trocas que não encontraram estado publicado e consultaram o engine
+     */
+    public synchronized long getWithoutState() {
+        return withoutState;
+    }
+}
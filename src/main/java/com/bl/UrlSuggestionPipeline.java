@@ -0,0 +1,211 @@
+package com.bl;
+
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Sugestões assíncronas para a barra de URL.
+ *
+ * As teclas digitadas são agrupadas por um debounce; a busca no
+ * {@link SuggestionIndex} roda em uma thread de fundo e resultados de
+ * consultas já superadas por uma digitação mais nova são descartados. Um único
+ * popup com uma lista é reaproveitado para todas as consultas, de modo que a
+ * thread do Swing só atualiza o modelo da lista.
+ */
+public class UrlSuggestionPipeline {
+    private static final int DEBOUNCE_MS = 120;
+    private static final int MIN_INPUT_LENGTH = 2;
+
+    private final JTextField urlBar;
+    private final SuggestionIndex index;
+    private final int maxSuggestions;
+    private final ExecutorService executor;
+    private final Timer debounceTimer;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final JList<String> suggestionList = new JList<>(listModel);
+    private final JPopupMenu popup = new JPopupMenu();
+
+    private BiConsumer<String, String> predictionListener;
+    private Future<?> pendingQuery;
+    private boolean updatingText;
+
+    public UrlSuggestionPipeline(JTextField urlBar, SuggestionIndex index, int maxSuggestions,
+            Function<String, String> labeler) {
+        this.urlBar = urlBar;
+        this.index = index;
+        this.maxSuggestions = maxSuggestions;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "UrlSuggestions");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        debounceTimer = new Timer(DEBOUNCE_MS, e -> submitQuery());
+        debounceTimer.setRepeats(false);
+
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setFocusable(false);
+        suggestionList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected,
+                        cellHasFocus);
+                label.setText(labeler.apply((String) value));
+                label.setToolTipText((String) value); // Mostrar URL completa no tooltip
+                return label;
+            }
+        });
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int selected = suggestionList.locationToIndex(e.getPoint());
+                if (selected >= 0) {
+                    selectSuggestion(listModel.getElementAt(selected));
+                }
+            }
+        });
+
+        popup.setFocusable(false);
+        popup.setBorder(BorderFactory.createEmptyBorder());
+        popup.add(suggestionList);
+
+        urlBar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                scheduleQuery();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                scheduleQuery();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                scheduleQuery();
+            }
+        });
+        urlBar.addActionListener(e -> hide());
+        urlBar.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                Component opposite = e.getOppositeComponent();
+                if (opposite == null || !SwingUtilities.isDescendingFrom(opposite, popup)) {
+                    hide();
+                }
+            }
+        });
+    }
+
+    /**
+     * Recebe o texto digitado e a sugestão principal a cada consulta exibida
+     */
+    public void setPredictionListener(BiConsumer<String, String> listener) {
+        this.predictionListener = listener;
+    }
+
+    public void setFont(Font font) {
+        suggestionList.setFont(font);
+    }
+
+    /**
+     * Esconde o popup e descarta as consultas em andamento
+     */
+    public void hide() {
+        debounceTimer.stop();
+        generation.incrementAndGet();
+        popup.setVisible(false);
+    }
+
+    private void scheduleQuery() {
+        // Textos definidos pelo próprio navegador (troca de página/aba) não geram sugestões
+        if (updatingText || !urlBar.isFocusOwner()) {
+            return;
+        }
+        debounceTimer.restart();
+    }
+
+    private void submitQuery() {
+        String input = urlBar.getText().trim();
+        long queryGeneration = generation.incrementAndGet();
+        if (pendingQuery != null) {
+            pendingQuery.cancel(false);
+        }
+        if (input.length() < MIN_INPUT_LENGTH) {
+            popup.setVisible(false);
+            return;
+        }
+
+        pendingQuery = executor.submit(() -> {
+            if (queryGeneration != generation.get()) {
+                return; // Já existe uma consulta mais nova
+            }
+            List<String> suggestions = index.search(input, maxSuggestions);
+            SwingUtilities.invokeLater(() -> {
+                if (queryGeneration == generation.get()) {
+                    render(suggestions);
+                    if (predictionListener != null && !suggestions.isEmpty()) {
+                        predictionListener.accept(input, suggestions.get(0));
+                    }
+                }
+            });
+        });
+    }
+
+    private void render(List<String> suggestions) {
+        if (suggestions.isEmpty() || !urlBar.isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+        listModel.clear();
+        listModel.addAll(suggestions);
+        suggestionList.clearSelection();
+        suggestionList.setVisibleRowCount(suggestions.size());
+
+        int width = Math.max(urlBar.getWidth(), suggestionList.getPreferredSize().width);
+        popup.setPopupSize(width, suggestionList.getPreferredScrollableViewportSize().height
+                + popup.getInsets().top + popup.getInsets().bottom);
+        if (popup.isVisible()) {
+            popup.pack();
+        } else {
+            popup.show(urlBar, 0, urlBar.getHeight());
+        }
+    }
+
+    private void selectSuggestion(String suggestion) {
+        updatingText = true;
+        try {
+            urlBar.setText(suggestion);
+        } finally {
+            updatingText = false;
+        }
+        hide();
+    }
+}
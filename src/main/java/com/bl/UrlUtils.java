@@ -0,0 +1,64 @@
+package com.bl;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * Funções de texto da barra de URL e das abas, sem dependência de UI
+ */
+public final class UrlUtils {
+    private UrlUtils() {
+    }
+
+    /**
+     * Completa o que foi digitado na barra de URL: adiciona o protocolo a
+     * domínios e transforma o resto em uma pesquisa
+     */
+    public static String ensureUrlProtocol(String url) {
+        // Se começa com protocolo conhecido, retorna como está
+        if (url.startsWith("http://") || url.startsWith("https://") || url.startsWith("file://")) {
+            return url;
+        }
+
+        // Se contém apenas um ponto e parece um domínio, adiciona protocolo
+        if (url.contains(".") && !url.contains(" ")) {
+            return "http://" + url;
+        }
+
+        // Se contém espaços ou não parece URL, faz pesquisa Google
+        if (url.contains(" ") || !url.contains(".")) {
+            try {
+                String encodedQuery = URLEncoder.encode(url, "UTF-8");
+                return "https://www.google.com/search?q=" + encodedQuery;
+            } catch (UnsupportedEncodingException e) {
+                return "https://www.google.com/search?q=" + url.replace(" ", "+");
+            }
+        }
+
+        // Fallback
+        return "http://" + url;
+    }
+
+    /**
+     * Encurta uma URL mantendo o início e o fim
+     */
+    public static String shortenUrl(String url, int maxLength) {
+        if (url.length() <= maxLength) {
+            return url;
+        }
+        return url.substring(0, maxLength / 2) + "..." + url.substring(url.length() - maxLength / 2);
+    }
+
+    /**
+     * Título para a aba, truncado em {@code maxLength} caracteres
+     */
+    public static String truncateTitle(String title, int maxLength) {
+        if (title == null || title.isEmpty()) {
+            return "Nova aba";
+        }
+        if (title.length() <= maxLength) {
+            return title;
+        }
+        return title.substring(0, maxLength - 2) + "..";
+    }
+}
@@ -0,0 +1,159 @@
+package com.bl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Function;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.web.WebView;
+
+/**
+ * Pequeno estoque de pares JFXPanel/WebView já construídos e configurados,
+ * para que abrir uma aba não precise montar WebView, cena e listeners na
+ * hora. O estoque é reposto em segundo plano depois que o navegador fica
+ * ocioso por um instante. Deve ser usado pela thread do Swing.
+ */
+public class WebViewPool {
+    private static final int REFILL_DELAY_MS = 1500;
+
+    private final int capacity;
+    private final Function<JFXPanel, WebView> factory;
+    private final Deque<PooledWebView> ready = new ArrayDeque<>();
+    private final Timer refillTimer;
+    private int building;
+    private boolean suspended;
+
+    // Latência de abertura de abas (clique até o fim do carregamento da página inicial)
+    private long pooledOpens;
+    private long pooledOpenMillis;
+    private long coldOpens;
+    private long coldOpenMillis;
+
+    /**
+     * @param factory cria e instala um WebView configurado no JFXPanel; é
+     *                chamado na thread do JavaFX
+     */
+    public WebViewPool(int capacity, Function<JFXPanel, WebView> factory) {
+        this.capacity = capacity;
+        this.factory = factory;
+        this.refillTimer = new Timer(REFILL_DELAY_MS, e -> refill());
+        this.refillTimer.setRepeats(false);
+    }
+
+    /**
+     * Retira um WebView pronto do estoque, ou null se estiver vazio
+     */
+    public PooledWebView take() {
+        PooledWebView pooled = ready.pollFirst();
+        scheduleRefill();
+        return pooled;
+    }
+
+    /**
+     * Agenda a reposição do estoque para quando o navegador ficar ocioso
+     */
+    public void scheduleRefill() {
+        if (capacity > 0) {
+            refillTimer.restart();
+        }
+    }
+
+    /**
+     * Suspende ou retoma a reposição do estoque (por exemplo, sob pressão de
+     * memória)
+     */
+    public void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+        if (!suspended) {
+            scheduleRefill();
+        }
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Descarta os WebViews prontos, liberando a memória deles
+     *
+     * @return quantos foram descartados
+     */
+    public int drain() {
+        int released = ready.size();
+        ready.clear();
+        return released;
+    }
+
+    public int getReadyCount() {
+        return ready.size();
+    }
+
+    public void recordOpenLatency(long millis, boolean pooled) {
+        if (pooled) {
+            pooledOpens++;
+            pooledOpenMillis += millis;
+        } else {
+            coldOpens++;
+            coldOpenMillis += millis;
+        }
+    }
+
+    /**
+     * Resumo das latências de abertura de abas, com e sem o estoque
+     */
+    public String getLatencySummary() {
+        return String.format("com estoque: %d abas, média %d ms; sem estoque: %d abas, média %d ms",
+                pooledOpens, pooledOpens > 0 ? pooledOpenMillis / pooledOpens : 0,
+                coldOpens, coldOpens > 0 ? coldOpenMillis / coldOpens : 0);
+    }
+
+    private void refill() {
+        if (suspended || ready.size() + building >= capacity) {
+            return;
+        }
+        building++;
+        JFXPanel panel = new JFXPanel();
+        Platform.runLater(() -> {
+            WebView webView = null;
+            try {
+                webView = factory.apply(panel);
+            } catch (Exception e) {
+                System.err.println("Erro ao preparar WebView: " + e.getMessage());
+            }
+            WebView built = webView;
+            SwingUtilities.invokeLater(() -> {
+                building--;
+                if (built != null) {
+                    ready.addLast(new PooledWebView(panel, built));
+                    // Constrói um por vez para não disputar a thread do JavaFX com a página ativa
+                    scheduleRefill();
+                }
+            });
+        });
+    }
+
+    /**
+     * Par JFXPanel/WebView pronto para virar uma aba
+     */
+    public static class PooledWebView {
+        private final JFXPanel panel;
+        private final WebView webView;
+
+        PooledWebView(JFXPanel panel, WebView webView) {
+            this.panel = panel;
+            this.webView = webView;
+        }
+
+        public JFXPanel getPanel() {
+            return panel;
+        }
+
+        public WebView getWebView() {
+            return webView;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Ocorrências sobrepostas encontradas pelo {@link AhoCorasick}
+ */
+public class AhoCorasickTest {
+    /**
+     * Ocorrências como "palavra@início", na ordem em que o autômato as visita
+     */
+    private static List<String> search(String text, String... words) {
+        List<String> found = new ArrayList<>();
+        new AhoCorasick(Arrays.asList(words)).search(text, (word, start) -> {
+            found.add(words[word] + "@" + start);
+            return true;
+        });
+        return found;
+    }
+
+    @Test
+    public void findsOverlappingWordsThroughFailureAndOutputLinks() {
+        // "she" termina onde "he" também termina, pelo link de saída
+        assertEquals(Arrays.asList("she@1", "he@2", "hers@2"), search("ushers", "he", "she", "his", "hers"));
+    }
+
+    @Test
+    public void findsNestedRepetitions() {
+        assertEquals(Arrays.asList("a@0", "aa@0", "a@1", "aaa@0", "aa@1", "a@2"), search("aaa", "aaa", "aa", "a"));
+    }
+
+    @Test
+    public void followsFailureLinkAfterPartialMatch() {
+        // Depois de "abc" falhar em "abd", a busca continua em "bcd" sem voltar no texto
+        assertEquals(Arrays.asList("bcd@1"), search("abcd", "abce", "bcd"));
+    }
+
+    @Test
+    public void reportsDuplicateWordsUnderEachIndex() {
+        List<Integer> indexes = new ArrayList<>();
+        new AhoCorasick(Arrays.asList("ads", "ads")).search("/ads/", (word, start) -> indexes.add(word));
+        assertEquals(Arrays.asList(0, 1), indexes);
+    }
+
+    @Test
+    public void stopsWhenVisitorReturnsFalse() {
+        List<String> found = new ArrayList<>();
+        String[] words = { "a", "b" };
+        new AhoCorasick(Arrays.asList(words)).search("abab", (word, start) -> {
+            found.add(words[word] + "@" + start);
+            return false;
+        });
+        assertEquals(Arrays.asList("a@0"), found);
+    }
+
+    @Test
+    public void noMatches() {
+        assertEquals(new ArrayList<String>(), search("https://site.com/", "doubleclick", "banner"));
+        assertEquals(new ArrayList<String>(), search("", "a"));
+        assertEquals(1, new AhoCorasick(new ArrayList<>()).size());
+    }
+}
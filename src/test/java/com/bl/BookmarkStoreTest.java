@@ -0,0 +1,140 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Favoritos gravados, reproduzidos e buscados pelo {@link BookmarkStore}
+ */
+public class BookmarkStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path snapshotFile;
+    private Path journalFile;
+
+    @Before
+    public void setup() {
+        snapshotFile = folder.getRoot().toPath().resolve("favoritos.snapshot");
+        journalFile = folder.getRoot().toPath().resolve("favoritos.journal");
+    }
+
+    private BookmarkStore open() throws IOException {
+        BookmarkStore store = new BookmarkStore(new RecordJournal(snapshotFile, journalFile, "BookmarkStoreTest"));
+        store.load();
+        return store;
+    }
+
+    private static List<String> urls(List<Bookmark> bookmarks) {
+        List<String> urls = new ArrayList<>();
+        for (Bookmark bookmark : bookmarks) {
+            urls.add(bookmark.getUrl());
+        }
+        return urls;
+    }
+
+    @Test
+    public void addUpdateAndRemoveSurviveReplay() throws IOException {
+        BookmarkStore store = open();
+        assertTrue(store.add("https://a.com/", "Site A") != null);
+        assertTrue(store.add("https://b.com/", "Site B") != null);
+        assertTrue(store.add("https://c.com/", "Site C") != null);
+        assertNull(store.add("https://a.com/", "De novo")); // Já é favorito
+        store.update("https://b.com/", "Site B renomeado", "Trabalho", List.of("docs", "Java"));
+        assertTrue(store.remove("https://c.com/"));
+        assertFalse(store.remove("https://c.com/"));
+        store.close();
+
+        BookmarkStore reloaded = open();
+        assertEquals(2, reloaded.size());
+        assertFalse(reloaded.contains("https://c.com/"));
+        assertEquals("Site A", reloaded.get("https://a.com/").getTitle());
+        Bookmark updated = reloaded.get("https://b.com/");
+        assertEquals("Site B renomeado", updated.getTitle());
+        assertEquals("Trabalho", updated.getFolder());
+        assertEquals(List.of("docs", "java"), updated.getTags());
+        reloaded.close();
+    }
+
+    @Test
+    public void tagsWithCommasStayOneTag() throws IOException {
+        BookmarkStore store = open();
+        store.add("https://a.com/", "Site A");
+        store.update("https://a.com/", "Site A", "", List.of("leitura,depois", "ok"));
+        assertEquals(List.of("leitura depois", "ok"), store.get("https://a.com/").getTags());
+        store.close();
+
+        BookmarkStore reloaded = open();
+        assertEquals(List.of("leitura depois", "ok"), reloaded.get("https://a.com/").getTags());
+        reloaded.close();
+    }
+
+    @Test
+    public void foldersAreCountedAndFiltered() throws IOException {
+        BookmarkStore store = open();
+        store.add("https://a.com/", "A");
+        store.add("https://b.com/", "B");
+        store.add("https://c.com/", "C");
+        store.update("https://a.com/", "A", "Trabalho", null);
+        store.update("https://b.com/", "B", "trabalho", null);
+        store.update("https://c.com/", "C", "Lazer", null);
+        assertEquals(List.of("Lazer", "Trabalho"), store.getFolders());
+        assertEquals(2, store.search("", "TRABALHO").size());
+        assertEquals(List.of("https://c.com/"), urls(store.search(null, "Lazer")));
+
+        store.update("https://c.com/", "C", "", null); // A pasta vazia some da lista
+        assertEquals(List.of("Trabalho"), store.getFolders());
+        store.remove("https://a.com/");
+        store.remove("https://b.com/");
+        assertEquals(List.of(), store.getFolders());
+        store.close();
+    }
+
+    @Test
+    public void searchesWordPrefixesInEveryField() throws IOException {
+        BookmarkStore store = open();
+        store.add("https://github.com/openjdk/jdk", "Repositório do JDK");
+        store.add("https://docs.oracle.com/javase/", "Documentação Java");
+        store.add("https://www.example.com/receitas", "Bolo de cenoura");
+        store.update("https://www.example.com/receitas", "Bolo de cenoura", "Cozinha", List.of("sobremesa"));
+
+        assertEquals(List.of("https://github.com/openjdk/jdk"), urls(store.search("git", null)));
+        assertEquals(List.of("https://docs.oracle.com/javase/"), urls(store.search("DOCUMENT", null)));
+        assertEquals(List.of("https://www.example.com/receitas"), urls(store.search("sobre", null)));
+        assertEquals(List.of("https://www.example.com/receitas"), urls(store.search("coz bolo", null)));
+        assertEquals(List.of(), urls(store.search("coz java", null))); // Todas as palavras precisam casar
+        assertEquals(List.of(), urls(store.search("ceno", "Trabalho")));
+        assertEquals(List.of(), urls(store.search("www", null))); // Prefixos de URL não são indexados
+
+        store.remove("https://github.com/openjdk/jdk");
+        assertEquals(List.of(), urls(store.search("git", null)));
+        store.close();
+    }
+
+    @Test
+    public void replaysSnapshotAfterImport() throws IOException {
+        BookmarkStore store = open();
+        store.importUrls(List.of("https://primeiro.com/", "https://segundo.com/", "https://primeiro.com/"));
+        store.add("https://terceiro.com/", null);
+        store.close();
+
+        BookmarkStore reloaded = open();
+        // Mais recentes primeiro; o primeiro da lista antiga é o mais antigo
+        assertEquals(List.of("https://terceiro.com/", "https://segundo.com/", "https://primeiro.com/"),
+                urls(reloaded.getBookmarks()));
+        assertNull(reloaded.get("https://terceiro.com/").getTitle());
+        reloaded.close();
+    }
+}
@@ -0,0 +1,149 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Regras no formato do EasyList compiladas pelo {@link ContentBlocker}
+ */
+public class ContentBlockerTest {
+    private static final String PAGE = "https://www.site.com.br/noticia";
+    private static final String ANY = "*/*";
+    private static final String IMAGE = "image/webp,image/*";
+    private static final String HTML = "text/html,application/xhtml+xml";
+
+    private static ContentBlocker compile(String... rules) {
+        return ContentBlocker.compile(Arrays.asList(rules));
+    }
+
+    @Test
+    public void hostAnchorMatchesHostAndSubdomainsOnly() {
+        ContentBlocker blocker = compile("||doubleclick.net^");
+        assertTrue(blocker.shouldBlock("https://doubleclick.net/pixel", PAGE, ANY));
+        assertTrue(blocker.shouldBlock("https://ad.g.doubleclick.net/pixel?id=1", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://doubleclick.net.evil.com/pixel", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://notdoubleclick.net/pixel", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://www.site.com.br/?ref=doubleclick.net", PAGE, ANY));
+    }
+
+    @Test
+    public void hostAnchorWithPath() {
+        ContentBlocker blocker = compile("||cdn.example.com/ads/");
+        assertTrue(blocker.shouldBlock("https://cdn.example.com/ads/banner.js", PAGE, ANY));
+        assertTrue(blocker.shouldBlock("https://eu.cdn.example.com/ads/banner.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://cdn.example.com/lib/app.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://mycdn.example.com/ads/banner.js", PAGE, ANY));
+    }
+
+    @Test
+    public void exceptionOverridesBlockingRule() {
+        ContentBlocker blocker = compile("||ads.example.com^", "@@||ads.example.com/permitido/");
+        assertTrue(blocker.shouldBlock("https://ads.example.com/banner.gif", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://ads.example.com/permitido/banner.gif", PAGE, ANY));
+    }
+
+    @Test
+    public void exceptionAloneBlocksNothing() {
+        ContentBlocker blocker = compile("@@||ads.example.com^");
+        assertFalse(blocker.shouldBlock("https://ads.example.com/banner.gif", PAGE, ANY));
+    }
+
+    @Test
+    public void thirdPartyOption() {
+        ContentBlocker blocker = compile("||tracker.com^$third-party");
+        assertTrue(blocker.shouldBlock("https://tracker.com/t.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://tracker.com/t.js", "https://www.tracker.com/", ANY));
+        assertFalse(blocker.shouldBlock("https://static.tracker.com/t.js", "https://tracker.com/", ANY));
+        // Sem página não há como saber se é de terceiros
+        assertFalse(blocker.shouldBlock("https://tracker.com/t.js", null, ANY));
+    }
+
+    @Test
+    public void firstPartyAndTwoLevelSuffixes() {
+        ContentBlocker blocker = compile("/contador.js$~third-party");
+        assertTrue(blocker.shouldBlock("https://img.site.com.br/contador.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://outro.com.br/contador.js", PAGE, ANY));
+    }
+
+    @Test
+    public void shortSecondLevelUnderCountryCodeIsRegistrable() {
+        ContentBlocker blocker = compile("||abc.de^$third-party", "||web.de^$third-party");
+        assertFalse(blocker.shouldBlock("https://cdn.abc.de/app.js", "https://www.abc.de/", ANY));
+        assertFalse(blocker.shouldBlock("https://static.web.de/logo.png", "https://www.web.de/", IMAGE));
+        assertTrue(blocker.shouldBlock("https://cdn.abc.de/app.js", "https://www.web.de/", ANY));
+    }
+
+    @Test
+    public void imageOption() {
+        ContentBlocker blocker = compile("/banner/*$image");
+        assertTrue(blocker.shouldBlock("https://site.com/banner/topo.png", PAGE, IMAGE));
+        assertFalse(blocker.shouldBlock("https://site.com/banner/topo.js", PAGE, ANY));
+    }
+
+    @Test
+    public void negatedTypeOption() {
+        ContentBlocker blocker = compile("/publicidade/$~image");
+        assertTrue(blocker.shouldBlock("https://site.com/publicidade/anuncio.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://site.com/publicidade/anuncio.png", PAGE, IMAGE));
+    }
+
+    @Test
+    public void startAnchor() {
+        ContentBlocker blocker = compile("|https://ads.");
+        assertTrue(blocker.shouldBlock("https://ads.site.com/a.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://site.com/r?u=https://ads.site.com/a.js", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("http://ads.site.com/a.js", PAGE, ANY));
+    }
+
+    @Test
+    public void endAnchor() {
+        ContentBlocker blocker = compile(".swf|");
+        assertTrue(blocker.shouldBlock("https://site.com/anuncio.swf", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://site.com/anuncio.swf?v=2", PAGE, ANY));
+    }
+
+    @Test
+    public void wildcardAndSeparator() {
+        ContentBlocker blocker = compile("/ads/*/banner^");
+        assertTrue(blocker.shouldBlock("https://site.com/ads/123/banner?tamanho=grande", PAGE, ANY));
+        assertTrue(blocker.shouldBlock("https://site.com/ads/1/2/banner/x.gif", PAGE, ANY));
+        assertTrue(blocker.shouldBlock("https://site.com/ads/123/banner", PAGE, ANY)); // ^ aceita o fim
+        assertFalse(blocker.shouldBlock("https://site.com/ads/123/bannerx", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://site.com/ads/banner", PAGE, ANY));
+    }
+
+    @Test
+    public void shortRulesWithoutKeyStillMatch() {
+        ContentBlocker blocker = compile("ad^");
+        assertTrue(blocker.shouldBlock("https://site.com/ad?x=1", PAGE, ANY));
+        assertFalse(blocker.shouldBlock("https://site.com/admin", PAGE, ANY));
+    }
+
+    @Test
+    public void matchingIgnoresCase() {
+        ContentBlocker blocker = compile("||Tracker.COM^", "/Pixel.GIF");
+        assertTrue(blocker.shouldBlock("https://TRACKER.com/a", PAGE, ANY));
+        assertTrue(blocker.shouldBlock("https://site.com/pixel.gif", PAGE, IMAGE));
+    }
+
+    @Test
+    public void subdocumentWithoutRefererIsNeverBlocked() {
+        ContentBlocker blocker = compile("||ads.example.com^");
+        assertFalse(blocker.shouldBlock("https://ads.example.com/", null, HTML));
+        assertTrue(blocker.shouldBlock("https://ads.example.com/", PAGE, HTML));
+    }
+
+    @Test
+    public void unsupportedRulesAreSkipped() {
+        ContentBlocker blocker = compile("! comentário", "[Adblock Plus 2.0]", "site.com##.anuncio",
+                "/banner\\d+/", "||popup.com^$popup", "||ads.example.com^");
+        assertEquals(1, blocker.getRuleCount());
+        assertEquals(3, blocker.getSkippedRules());
+        assertFalse(blocker.shouldBlock("https://popup.com/", PAGE, ANY));
+    }
+}
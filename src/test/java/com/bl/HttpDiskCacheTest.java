@@ -0,0 +1,155 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Cache HTTP contra um servidor local no próprio processo, contando quantas
+ * requisições chegam a ele
+ */
+public class HttpDiskCacheTest {
+    private static final long MAX_BYTES = 10 * 1024 * 1024;
+    private static final byte[] BODY = "<html><body>conteúdo de teste</body></html>".repeat(200)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, AtomicInteger> serverRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private HttpServer server;
+    private String base;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fresco", exchange -> reply(exchange, "max-age=60", null));
+        server.createContext("/etag", exchange -> reply(exchange, "no-cache", "\"v1\""));
+        server.createContext("/sem-cache", exchange -> reply(exchange, "no-store", null));
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void freshResponseReachesServerOnce() throws IOException {
+        HttpDiskCache cache = newCache(folder.newFolder().toPath(), MAX_BYTES);
+        for (int i = 0; i < 3; i++) {
+            fetch(cache, base + "/fresco");
+        }
+        assertEquals(1, requests("/fresco"));
+        assertEquals(2, cache.getHits());
+        assertEquals(2L * BODY.length, cache.getBytesSaved());
+    }
+
+    @Test
+    public void etagIsRevalidatedWithNotModified() throws IOException {
+        HttpDiskCache cache = newCache(folder.newFolder().toPath(), MAX_BYTES);
+        for (int i = 0; i < 3; i++) {
+            fetch(cache, base + "/etag");
+        }
+        assertEquals(3, requests("/etag"));
+        assertEquals(2, notModified.get());
+        assertEquals(2, cache.getRevalidated());
+    }
+
+    @Test
+    public void noStoreAlwaysReachesServer() throws IOException {
+        HttpDiskCache cache = newCache(folder.newFolder().toPath(), MAX_BYTES);
+        for (int i = 0; i < 3; i++) {
+            fetch(cache, base + "/sem-cache");
+        }
+        assertEquals(3, requests("/sem-cache"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void reopenedCacheServesFromDisk() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        fetch(newCache(directory, MAX_BYTES), base + "/fresco");
+
+        HttpDiskCache reopened = newCache(directory, MAX_BYTES);
+        assertEquals(1, reopened.size());
+        fetch(reopened, base + "/fresco");
+        assertEquals(1, requests("/fresco"));
+        assertEquals(1, reopened.getHits());
+    }
+
+    @Test
+    public void evictsDownToLimit() throws IOException {
+        long limit = BODY.length * 8L; // Oito respostas
+        HttpDiskCache cache = newCache(folder.newFolder().toPath(), limit);
+        for (int i = 0; i < 10; i++) {
+            fetch(cache, base + "/fresco?pagina=" + i);
+        }
+        assertTrue(cache.getTotalBytes() <= limit);
+        assertEquals(8, cache.size());
+    }
+
+    private static HttpDiskCache newCache(Path directory, long maxBytes) {
+        HttpDiskCache cache = new HttpDiskCache(directory, maxBytes);
+        cache.load();
+        return cache;
+    }
+
+    private int requests(String path) {
+        AtomicInteger count = serverRequests.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    private void reply(HttpExchange exchange, String cacheControl, String etag) throws IOException {
+        serverRequests.computeIfAbsent(exchange.getHttpContext().getPath(), path -> new AtomicInteger())
+                .incrementAndGet();
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        if (etag != null) {
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, BODY.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(BODY);
+        }
+    }
+
+    private static void fetch(HttpDiskCache cache, String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) cache.openConnection(new URL(url));
+        assertEquals(200, connection.getResponseCode());
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            in.transferTo(received);
+        }
+        assertEquals(BODY.length, received.size());
+    }
+}
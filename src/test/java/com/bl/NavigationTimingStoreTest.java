@@ -0,0 +1,109 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+
+/**
+ * Navegações guardadas pelo {@link NavigationTimingStore}
+ */
+public class NavigationTimingStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static NavigationTiming timing(int tabId, String url, long loadMs) {
+        return new NavigationTiming(tabId, url, 0, "SUCCEEDED", new ArrayList<>(),
+                Collections.singletonMap("loadEventEnd", loadMs), -1, false, new ArrayList<>());
+    }
+
+    private static List<String> urls(List<NavigationTiming> timings) {
+        List<String> urls = new ArrayList<>();
+        for (NavigationTiming timing : timings) {
+            urls.add(timing.getUrl());
+        }
+        return urls;
+    }
+
+    @Test
+    public void evictsOldestBeyondCapacity() {
+        NavigationTimingStore store = new NavigationTimingStore(3);
+        for (int i = 1; i <= 5; i++) {
+            store.add(timing(1, "https://site.com/" + i, i));
+        }
+        assertEquals(3, store.size());
+        assertEquals(List.of("https://site.com/5", "https://site.com/4", "https://site.com/3"),
+                urls(store.getTimings(0)));
+    }
+
+    @Test
+    public void filtersByTab() {
+        NavigationTimingStore store = new NavigationTimingStore(10);
+        store.add(timing(1, "https://a.com/", 10));
+        store.add(timing(2, "https://b.com/", 10));
+        store.add(timing(1, "https://c.com/", 10));
+        assertEquals(List.of("https://c.com/", "https://a.com/"), urls(store.getTimings(1)));
+        assertEquals(List.of("https://b.com/"), urls(store.getTimings(2)));
+        assertEquals(3, store.getTimings(0).size());
+    }
+
+    @Test
+    public void slowestFirst() {
+        NavigationTimingStore store = new NavigationTimingStore(10);
+        store.add(timing(1, "https://rapida.com/", 100));
+        store.add(timing(1, "https://lenta.com/", 3000));
+        store.add(timing(1, "https://media.com/", 800));
+        assertEquals(List.of("https://lenta.com/", "https://media.com/"), urls(store.getSlowest(2)));
+        assertEquals(3, store.getSlowest(10).size());
+    }
+
+    @Test
+    public void modCountChangesOnAddAndClear() {
+        NavigationTimingStore store = new NavigationTimingStore(10);
+        long before = store.getModCount();
+        store.add(timing(1, "https://a.com/", 10));
+        long afterAdd = store.getModCount();
+        assertNotEquals(before, afterAdd);
+        store.clear();
+        assertNotEquals(afterAdd, store.getModCount());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void withTabIdKeepsTheMeasurements() {
+        NavigationTiming unassigned = timing(0, "https://a.com/", 250);
+        NavigationTiming assigned = unassigned.withTabId(7);
+        assertEquals(0, unassigned.getTabId());
+        assertEquals(7, assigned.getTabId());
+        assertEquals("https://a.com/", assigned.getUrl());
+        assertEquals(250, assigned.getLoadMs());
+    }
+
+    @Test
+    public void exportsEveryTimingAsJson() throws IOException {
+        NavigationTimingStore store = new NavigationTimingStore(10);
+        store.add(timing(1, "https://a.com/", 10));
+        store.add(timing(2, "https://b.com/", 20));
+        Path file = folder.getRoot().toPath().resolve("navegacoes.json");
+        store.exportJson(file);
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<?> exported = new Gson().fromJson(reader, List.class);
+            assertEquals(2, exported.size());
+            assertEquals("https://b.com/", ((Map<?, ?>) exported.get(0)).get("url"));
+        }
+    }
+}
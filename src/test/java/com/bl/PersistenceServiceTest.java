@@ -0,0 +1,169 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Coalescência, atrasos, encerramento e gravação atômica do
+ * {@link PersistenceService}
+ */
+public class PersistenceServiceTest {
+    private static final long TIMEOUT_MS = 5000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PersistenceService service = new PersistenceService();
+
+    @After
+    public void shutdown() {
+        service.shutdown(TIMEOUT_MS);
+    }
+
+    @Test
+    public void coalescesSameKeyWhileWriting() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger lastWritten = new AtomicInteger(-1);
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            service.save("chave", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                writing.countDown();
+                release.await();
+                runs.incrementAndGet();
+                lastWritten.set(value);
+                running.decrementAndGet();
+            });
+            if (i == 0) {
+                assertTrue(writing.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)); // A primeira já está gravando
+            }
+        }
+        release.countDown();
+        assertTrue(service.flush(TIMEOUT_MS));
+
+        assertEquals(2, runs.get()); // A primeira e só a mais recente das demais
+        assertEquals(999, lastWritten.get());
+        assertEquals(1, maxRunning.get());
+        assertEquals(1000, service.getSubmitted());
+        assertEquals(998, service.getCoalesced());
+        assertEquals(2, service.getCompleted());
+        assertEquals(0, service.getPending());
+    }
+
+    @Test
+    public void differentKeysAreNotCoalesced() {
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            service.save("chave " + i, runs::incrementAndGet);
+        }
+        assertTrue(service.flush(TIMEOUT_MS));
+        assertEquals(10, runs.get());
+        assertEquals(0, service.getCoalesced());
+    }
+
+    @Test
+    public void flushAdvancesDelayedWrites() {
+        AtomicInteger runs = new AtomicInteger();
+        service.save("atrasada", TimeUnit.MINUTES.toMillis(10), runs::incrementAndGet);
+        service.save("atrasada", TimeUnit.MINUTES.toMillis(10), runs::incrementAndGet);
+        assertEquals(0, runs.get());
+        assertEquals(1, service.getPending());
+
+        assertTrue(service.flush(TIMEOUT_MS));
+        assertEquals(1, runs.get());
+        assertEquals(0, service.getPending());
+    }
+
+    @Test
+    public void shutdownDrainsThenRejects() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        service.save("atrasada", TimeUnit.MINUTES.toMillis(10), runs::incrementAndGet);
+        service.shutdown(TIMEOUT_MS);
+        assertEquals(1, runs.get());
+
+        service.save("depois", runs::incrementAndGet);
+        CompletableFuture<Void> late = service.run(runs::incrementAndGet);
+        try {
+            late.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            fail("Gravação aceita depois do encerramento");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        } catch (TimeoutException e) {
+            fail("Gravação pendurada depois do encerramento");
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1, service.getSubmitted());
+    }
+
+    @Test
+    public void reportsFailures() throws InterruptedException {
+        service.save("falha", () -> {
+            throw new IOException("disco cheio");
+        });
+        IOException error = new IOException("sem permissão");
+        CompletableFuture<Void> result = service.run(() -> {
+            throw error;
+        });
+        try {
+            result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            fail("Falha não informada");
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        } catch (TimeoutException e) {
+            fail("Gravação avulsa não terminou");
+        }
+        assertTrue(service.flush(TIMEOUT_MS));
+        assertEquals(2, service.getFailures());
+        assertEquals(0, service.getCompleted());
+    }
+
+    @Test
+    public void writeAtomicallyReplacesFileWithoutTemp() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("sessao.json");
+        Files.write(file, "antigo".getBytes(StandardCharsets.UTF_8));
+        PersistenceService.writeAtomically(file, writer -> writer.write("novo"));
+        assertEquals(List.of("novo"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(file.resolveSibling("sessao.json.tmp")));
+    }
+
+    @Test
+    public void failedAtomicWriteKeepsPreviousFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("sessao.json");
+        Files.write(file, "antigo".getBytes(StandardCharsets.UTF_8));
+        try {
+            PersistenceService.writeAtomically(file, writer -> {
+                writer.write("pela met");
+                throw new IOException("falhou no meio");
+            });
+            fail("Falha não propagada");
+        } catch (IOException e) {
+            assertEquals("falhou no meio", e.getMessage());
+        }
+        assertEquals(List.of("antigo"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(file.resolveSibling("sessao.json.tmp")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.bl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Gravação, descarga, compactação e reprodução do {@link RecordJournal}
+ */
+public class RecordJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path snapshotFile;
+    private Path journalFile;
+
+    @Before
+    public void setup() {
+        snapshotFile = folder.getRoot().toPath().resolve("teste.snapshot");
+        journalFile = folder.getRoot().toPath().resolve("teste.journal");
+    }
+
+    private RecordJournal open() {
+        return new RecordJournal(snapshotFile, journalFile, "RecordJournalTest");
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> records = new ArrayList<>();
+        RecordJournal journal = open();
+        journal.replay(records::add);
+        journal.close();
+        return records;
+    }
+
+    @Test
+    public void flushWritesEverythingAndKeepsJournalOpen() throws IOException {
+        RecordJournal journal = open();
+        for (int i = 0; i < 100; i++) {
+            journal.append("R\t" + i);
+        }
+        journal.flush();
+        assertEquals(0, journal.getPendingRecords());
+        assertEquals(100, journal.getWrittenRecords());
+        assertEquals(100, Files.readAllLines(journalFile, StandardCharsets.UTF_8).size());
+        assertTrue(journal.getAverageWriteMicros() > 0);
+        assertTrue(journal.getAverageSyncMicros() > 0);
+
+        journal.append("R\t100"); // Continua aceitando registros depois da descarga
+        journal.flush();
+        assertEquals(101, journal.getWrittenRecords());
+        journal.close();
+    }
+
+    @Test
+    public void replaysInOrderAfterClose() throws IOException {
+        assertFalse(open().exists());
+        RecordJournal journal = open();
+        journal.append("a");
+        journal.append("b");
+        journal.append("c");
+        journal.close();
+        assertTrue(open().exists());
+        assertEquals(List.of("a", "b", "c"), replay());
+    }
+
+    @Test
+    public void dropsTornLastLine() throws IOException {
+        Files.write(journalFile, "a\nb\nmeia-lin".getBytes(StandardCharsets.UTF_8));
+        assertEquals(List.of("a", "b"), replay());
+    }
+
+    @Test
+    public void compactionReplacesJournalWithSnapshot() throws IOException {
+        RecordJournal journal = open();
+        journal.append("velho 1");
+        journal.append("velho 2");
+        journal.compact(List.of("estado 1", "estado 2"), Function.identity());
+        journal.append("novo");
+        journal.close();
+
+        assertEquals(List.of("#G\t1", "estado 1", "estado 2"),
+                Files.readAllLines(snapshotFile, StandardCharsets.UTF_8));
+        assertEquals(List.of("#G\t1", "novo"), Files.readAllLines(journalFile, StandardCharsets.UTF_8));
+        assertEquals(List.of("estado 1", "estado 2", "novo"), replay());
+        assertFalse(Files.exists(snapshotFile.resolveSibling("teste.snapshot.tmp")));
+    }
+
+    @Test
+    public void journalOlderThanSnapshotIsNotReplayed() throws IOException {
+        // Queda depois de trocar o snapshot e antes de truncar o journal
+        Files.write(snapshotFile, "#G\t2\nestado\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(journalFile, "#G\t1\nvelho 1\nvelho 2\n".getBytes(StandardCharsets.UTF_8));
+        RecordJournal journal = open();
+        List<String> records = new ArrayList<>();
+        journal.replay(records::add);
+        assertEquals(List.of("estado"), records);
+        assertFalse(journal.needsCompaction(0));
+
+        journal.append("novo"); // Não pode ficar atrás dos registros descartados
+        journal.close();
+        assertEquals(List.of("estado", "novo"), replay());
+    }
+
+    @Test
+    public void generationsContinueAcrossRestarts() throws IOException {
+        RecordJournal journal = open();
+        journal.compact(List.of("a"), Function.identity());
+        journal.close();
+
+        journal = open();
+        journal.replay(record -> { });
+        journal.compact(List.of("b"), Function.identity());
+        journal.append("c");
+        journal.close();
+        assertEquals("#G\t2", Files.readAllLines(snapshotFile, StandardCharsets.UTF_8).get(0));
+        assertEquals(List.of("b", "c"), replay());
+    }
+
+    @Test
+    public void filesWithoutHeaderAreGenerationZero() throws IOException {
+        Files.write(snapshotFile, "a\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(journalFile, "b\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(List.of("a", "b"), replay());
+    }
+
+    @Test
+    public void needsCompactionAfterThresholdOrSnapshotSize() throws IOException {
+        RecordJournal journal = open();
+        for (int i = 0; i < 999; i++) {
+            journal.append("R");
+        }
+        assertFalse(journal.needsCompaction(10));
+        journal.append("R");
+        assertTrue(journal.needsCompaction(10));
+        assertFalse(journal.needsCompaction(5000)); // Snapshot maior que o journal
+        journal.compact(List.of(), Function.identity());
+        assertFalse(journal.needsCompaction(10));
+        journal.close();
+    }
+}